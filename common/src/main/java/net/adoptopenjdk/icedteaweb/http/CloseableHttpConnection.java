@@ -1,36 +1,141 @@
 package net.adoptopenjdk.icedteaweb.http;
 
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
 
 /**
  * {@link Closeable} wrapper around a {@link HttpURLConnection}.
  *
  * Only the needed methods of HttpURLConnection are exposed.
  *
- * Closing the connection will trigger a disconnect on the underlying HttpUrlConnection
+ * Closing the connection will return the underlying socket to the keep-alive cache if the rest of the response
+ * is small. Otherwise the underlying HttpUrlConnection is disconnected.
  */
 public class CloseableHttpConnection extends CloseableConnection {
+
+    /**
+     * Maximum number of unread bytes of a response which are read on close to keep the connection alive.
+     */
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
     private final HttpURLConnection delegate;
+    private final ConnectionPool.Lease lease;
+
+    private InputStream inputStream;
+    private boolean inputStreamClosed;
+    private boolean connected;
 
     CloseableHttpConnection(final HttpURLConnection delegate) {
+        this(delegate, null);
+    }
+
+    CloseableHttpConnection(final HttpURLConnection delegate, final ConnectionPool.Lease lease) {
         super(delegate);
         this.delegate = delegate;
+        this.lease = lease;
     }
 
     /**
-     * triggers {@link HttpURLConnection#disconnect()}.
+     * reads the rest of the response to return the socket to the keep-alive cache.
+     * triggers {@link HttpURLConnection#disconnect()} if this is not possible.
+     * If the response stream has already been closed the keep-alive cache has taken care of the socket.
      */
     @Override
     public void close() {
-        delegate.disconnect();
+        try {
+            if (connected && !inputStreamClosed && !drainResponse()) {
+                delegate.disconnect();
+            }
+        } finally {
+            if (lease != null) {
+                lease.release();
+            }
+        }
+    }
+
+    private boolean drainResponse() {
+        try (final InputStream in = inputStream != null ? inputStream : getResponseStream()) {
+            if (in == null) {
+                return true;
+            }
+            final byte[] throwAwayBuffer = new byte[8192];
+            int remaining = MAX_DRAIN_BYTES;
+            int read;
+            while ((read = in.read(throwAwayBuffer)) >= 0) {
+                remaining -= read;
+                if (remaining < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private InputStream getResponseStream() throws IOException {
+        try {
+            return delegate.getInputStream();
+        } catch (IOException e) {
+            return delegate.getErrorStream();
+        }
     }
 
     /**
      * delegates to {@link HttpURLConnection#getResponseCode()}
      */
     public int getResponseCode() throws IOException {
+        connected = true;
         return delegate.getResponseCode();
     }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        connected = true;
+        inputStream = new FilterInputStream(super.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                inputStreamClosed = true;
+                super.close();
+            }
+        };
+        return inputStream;
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        connected = true;
+        return super.getHeaderFields();
+    }
+
+    @Override
+    public String getHeaderField(final String name) {
+        connected = true;
+        return super.getHeaderField(name);
+    }
+
+    @Override
+    public URL getLocationHeaderFieldUrl() throws MalformedURLException {
+        connected = true;
+        return super.getLocationHeaderFieldUrl();
+    }
+
+    @Override
+    public long getLastModified() {
+        connected = true;
+        return super.getLastModified();
+    }
+
+    @Override
+    public long getContentLength() {
+        connected = true;
+        return super.getContentLength();
+    }
 }
@@ -1,5 +1,6 @@
 package net.adoptopenjdk.icedteaweb.http;
 
+import javax.net.ssl.HttpsURLConnection;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -95,6 +96,7 @@ public class ConnectionFactory {
     /**
      * Create a HTTP or HTTPS connection
      * The {@code requestMethod} and {@code requestProperties} are set onto the connection.
+     * Waits until the {@link ConnectionPool} allows another connection to the host.
      *
      * @param httpConnection the connection to wrap.
      * @param requestMethod the HTTP method to use for the connection.
@@ -115,6 +117,12 @@ public class ConnectionFactory {
             httpConnection.addRequestProperty(property.getKey(), property.getValue());
         }
 
-        return new CloseableHttpConnection(httpConnection);
+        final ConnectionPool pool = ConnectionPool.getInstance();
+        if (httpConnection instanceof HttpsURLConnection) {
+            final HttpsURLConnection httpsConnection = (HttpsURLConnection) httpConnection;
+            httpsConnection.setSSLSocketFactory(pool.getCountingSocketFactory(httpsConnection.getSSLSocketFactory()));
+        }
+
+        return new CloseableHttpConnection(httpConnection, pool.acquire(httpConnection.getURL()));
     }
 }
@@ -0,0 +1,86 @@
+package net.adoptopenjdk.icedteaweb.http;
+
+/**
+ * Snapshot of the connection statistics of a single host.
+ */
+public class ConnectionMetrics {
+    private final String host;
+    private final boolean tls;
+    private final long requests;
+    private final long newConnections;
+    private final int openConnections;
+    private final int peakConnections;
+    private final long waits;
+
+    ConnectionMetrics(final String host, final boolean tls, final long requests, final long newConnections,
+                      final int openConnections, final int peakConnections, final long waits) {
+        this.host = host;
+        this.tls = tls;
+        this.requests = requests;
+        this.newConnections = newConnections;
+        this.openConnections = openConnections;
+        this.peakConnections = peakConnections;
+        this.waits = waits;
+    }
+
+    /**
+     * @return protocol, host and port of the connections
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * @return number of requests sent to the host
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return number of new sockets (TLS handshakes) opened to the host, only known for HTTPS
+     */
+    public long getNewConnections() {
+        return newConnections;
+    }
+
+    /**
+     * @return number of connections currently in use
+     */
+    public int getOpenConnections() {
+        return openConnections;
+    }
+
+    /**
+     * @return maximum number of connections which have been in use at the same time
+     */
+    public int getPeakConnections() {
+        return peakConnections;
+    }
+
+    /**
+     * @return number of requests which had to wait for a connection as the limit per host was reached
+     */
+    public long getWaits() {
+        return waits;
+    }
+
+    /**
+     * @return fraction of the requests which reused an existing connection or {@link Double#NaN} if not known
+     */
+    public double getReuseRatio() {
+        if (!tls || requests == 0) {
+            return Double.NaN;
+        }
+        return Math.max(0, requests - newConnections) / (double) requests;
+    }
+
+    @Override
+    public String toString() {
+        return host + ": requests=" + requests
+                + (tls ? ", handshakes=" + newConnections + ", reuse=" + String.format("%.2f", getReuseRatio()) : "")
+                + ", open=" + openConnections
+                + ", peak=" + peakConnections
+                + ", waits=" + waits;
+    }
+}
@@ -0,0 +1,230 @@
+package net.adoptopenjdk.icedteaweb.http;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static net.adoptopenjdk.icedteaweb.JavaSystemPropertiesConstants.JAVA_SPEC_VERSION;
+
+/**
+ * Pool of HTTP and HTTPS connections.
+ * <p>
+ * The sockets themselves are kept alive by the keep-alive cache of the JDK. This pool makes sure connections
+ * are returned to this cache instead of being disconnected (see {@link CloseableHttpConnection#close()}),
+ * limits the number of connections which are open to a single host at the same time and configures the
+ * keep-alive cache to hold the same number of idle connections per host for the configured idle timeout.
+ * The keep-alive cache of Java 8 does not support an idle timeout, it keeps idle connections for the time
+ * announced by the server or five seconds.
+ * <p>
+ * For every host the pool collects {@link ConnectionMetrics}. New sockets can only be observed for HTTPS
+ * where the TLS handshakes are counted.
+ */
+public class ConnectionPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 6;
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 15;
+
+    /**
+     * Maximum time to wait for a free connection to a host.
+     * If this time is exceeded the connection is opened anyway to not dead lock on leaked connections.
+     */
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 60;
+
+    private static final String MAX_CONNECTIONS_PROPERTY = "http.maxConnections";
+    private static final String KEEP_ALIVE_TIME_SERVER_PROPERTY = "http.keepAlive.time.server";
+    private static final String KEEP_ALIVE_TIME_PROXY_PROPERTY = "http.keepAlive.time.proxy";
+
+    private static final ConnectionPool INSTANCE = new ConnectionPool();
+
+    private final Map<String, HostConnections> hosts = new ConcurrentHashMap<>();
+
+    private volatile int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    private volatile SSLSocketFactory countedSocketFactory;
+    private volatile SSLSocketFactory countingSocketFactory;
+
+    public static ConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    ConnectionPool() {
+    }
+
+    /**
+     * Configures the limits of the pool.
+     * Must be called before the first connection is opened as the keep-alive cache of the JDK reads its
+     * configuration only once. System properties set by the user take precedence.
+     *
+     * @param maxConnectionsPerHost maximum number of connections open to a single host at the same time
+     * @param idleTimeoutSeconds time in seconds an idle connection is kept alive, only supported by Java 11 and later
+     */
+    public void configure(final int maxConnectionsPerHost, final int idleTimeoutSeconds) {
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+        setPropertyIfAbsent(MAX_CONNECTIONS_PROPERTY, Integer.toString(this.maxConnectionsPerHost));
+        setPropertyIfAbsent(KEEP_ALIVE_TIME_SERVER_PROPERTY, Integer.toString(idleTimeoutSeconds));
+        setPropertyIfAbsent(KEEP_ALIVE_TIME_PROXY_PROPERTY, Integer.toString(idleTimeoutSeconds));
+        if (!isKeepAliveTimeSupported()) {
+            if (idleTimeoutSeconds != DEFAULT_IDLE_TIMEOUT_SECONDS) {
+                LOG.warn("The idle timeout of {} seconds cannot take effect as it requires Java 11 or later", idleTimeoutSeconds);
+            } else {
+                LOG.debug("The idle timeout is not supported by this version of Java");
+            }
+        }
+        LOG.debug("Connection pool allows {} connections per host which are kept alive for {} seconds", this.maxConnectionsPerHost, idleTimeoutSeconds);
+    }
+
+    /**
+     * The keep-alive time properties were introduced with Java 11. Older versions report their
+     * specification version as "1.x".
+     */
+    private static boolean isKeepAliveTimeSupported() {
+        final String specificationVersion = System.getProperty(JAVA_SPEC_VERSION);
+        return specificationVersion != null && !specificationVersion.startsWith("1.");
+    }
+
+    private static void setPropertyIfAbsent(final String key, final String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    /**
+     * @return a snapshot of the metrics of all hosts to which a connection was opened
+     */
+    public List<ConnectionMetrics> getMetrics() {
+        return hosts.values().stream()
+                .map(HostConnections::getMetrics)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Waits until a connection to the host of the given URL may be opened.
+     *
+     * @param url the URL to connect to
+     * @return the lease which must be released once the connection is closed
+     * @throws InterruptedIOException if the current thread is interrupted while waiting
+     */
+    Lease acquire(final URL url) throws InterruptedIOException {
+        final HostConnections host = hosts.computeIfAbsent(getHostKey(url), key -> new HostConnections(key, maxConnectionsPerHost));
+        return host.acquire();
+    }
+
+    /**
+     * Returns a socket factory which counts the TLS handshakes per host.
+     * The same instance is returned for the same delegate as the keep-alive cache of the JDK
+     * only reuses connections which were created by the same factory.
+     */
+    SSLSocketFactory getCountingSocketFactory(final SSLSocketFactory delegate) {
+        synchronized (this) {
+            if (delegate != countedSocketFactory) {
+                countedSocketFactory = delegate;
+                countingSocketFactory = new CountingSSLSocketFactory(delegate, this::recordNewTlsConnection);
+            }
+            return countingSocketFactory;
+        }
+    }
+
+    private void recordNewTlsConnection(final String host, final int port) {
+        final String key = getHostKey("https", host, port == 443 ? -1 : port);
+        final HostConnections connections = hosts.get(key);
+        if (connections != null) {
+            connections.newConnections.incrementAndGet();
+        }
+    }
+
+    private static String getHostKey(final URL url) {
+        return getHostKey(url.getProtocol(), url.getHost(), url.getPort() == url.getDefaultPort() ? -1 : url.getPort());
+    }
+
+    private static String getHostKey(final String protocol, final String host, final int port) {
+        final String hostKey = protocol.toLowerCase() + "://" + host.toLowerCase();
+        return port == -1 ? hostKey : hostKey + ":" + port;
+    }
+
+    /**
+     * The connections to a single host.
+     */
+    private static class HostConnections {
+        private final String host;
+        private final Semaphore permits;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong newConnections = new AtomicLong();
+        private final AtomicLong waits = new AtomicLong();
+        private final AtomicInteger openConnections = new AtomicInteger();
+        private final AtomicInteger peakConnections = new AtomicInteger();
+
+        private HostConnections(final String host, final int maxConnections) {
+            this.host = host;
+            this.permits = new Semaphore(maxConnections, true);
+        }
+
+        private Lease acquire() throws InterruptedIOException {
+            boolean permitAcquired = permits.tryAcquire();
+            if (!permitAcquired) {
+                waits.incrementAndGet();
+                try {
+                    permitAcquired = permits.tryAcquire(ACQUIRE_TIMEOUT_SECONDS, SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a connection to " + host);
+                }
+                if (!permitAcquired) {
+                    LOG.warn("No connection to {} was released within {} seconds - opening an additional connection", host, ACQUIRE_TIMEOUT_SECONDS);
+                }
+            }
+
+            requests.incrementAndGet();
+            final int open = openConnections.incrementAndGet();
+            peakConnections.accumulateAndGet(open, Math::max);
+            return new Lease(this, permitAcquired);
+        }
+
+        private void release(final boolean permitAcquired) {
+            openConnections.decrementAndGet();
+            if (permitAcquired) {
+                permits.release();
+            }
+        }
+
+        private ConnectionMetrics getMetrics() {
+            return new ConnectionMetrics(host, host.startsWith("https:"), requests.get(), newConnections.get(),
+                    openConnections.get(), peakConnections.get(), waits.get());
+        }
+    }
+
+    /**
+     * Permission to have a connection open to a host.
+     */
+    static class Lease {
+        private final HostConnections host;
+        private final boolean permitAcquired;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(final HostConnections host, final boolean permitAcquired) {
+            this.host = host;
+            this.permitAcquired = permitAcquired;
+        }
+
+        /**
+         * Releases the lease. Subsequent calls do nothing.
+         */
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                host.release(permitAcquired);
+            }
+        }
+    }
+}
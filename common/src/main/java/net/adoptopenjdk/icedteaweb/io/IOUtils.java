@@ -3,15 +3,23 @@ package net.adoptopenjdk.icedteaweb.io;
 import net.adoptopenjdk.icedteaweb.Assert;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static net.adoptopenjdk.icedteaweb.StringUtils.splitIntoMultipleLines;
 
 /**
@@ -19,6 +27,15 @@ import static net.adoptopenjdk.icedteaweb.StringUtils.splitIntoMultipleLines;
  */
 public class IOUtils {
 
+    /**
+     * Size of the buffer used by {@link #transferToFile(InputStream, File)}.
+     */
+    public static final int TRANSFER_BUFFER_SIZE = 256 * 1024;
+
+    private static final long TRANSFER_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(TRANSFER_BUFFER_SIZE));
+
     /**
      * Converts a byte array into a Base64 string.
      *
@@ -140,6 +157,51 @@ public class IOUtils {
         return new String(readContent(inputStream), encoding);
     }
 
+    /**
+     * Writes the content of an input stream to a file. An existing file is overwritten.
+     * <p>
+     * If the stream reads from a file the content is transferred by the operating system without
+     * copying it into the java heap. Otherwise a large buffer is used which is reused by each thread.
+     * The transfer is aborted if the current thread is interrupted. The interrupt is checked between reads,
+     * a read which blocks is not interrupted.
+     *
+     * @param inputStream the stream to read from
+     * @param file        the file to write to
+     * @return the number of bytes written
+     * @throws IOException if reading from the stream or writing to the file failed
+     */
+    public static long transferToFile(final InputStream inputStream, final File file) throws IOException {
+        Assert.requireNonNull(inputStream, "inputStream");
+        Assert.requireNonNull(file, "file");
+
+        try (final FileChannel target = FileChannel.open(file.toPath(), WRITE, CREATE, TRUNCATE_EXISTING)) {
+            if (inputStream instanceof FileInputStream) {
+                final FileChannel source = ((FileInputStream) inputStream).getChannel();
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                    position += transferred;
+                }
+                return position;
+            }
+
+            final ByteBuffer buffer = TRANSFER_BUFFER.get();
+            final byte[] bytes = buffer.array();
+            long position = 0;
+            int len;
+            while ((len = inputStream.read(bytes)) >= 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Transfer to " + file + " was interrupted");
+                }
+                buffer.clear().limit(len);
+                while (buffer.hasRemaining()) {
+                    position += target.write(buffer);
+                }
+            }
+            return position;
+        }
+    }
+
     public static void writeUtf8Content(final OutputStream outputStream, final String content) throws IOException {
         Assert.requireNonNull(outputStream, "outputStream");
         Assert.requireNonNull(content, "content");
@@ -45,10 +45,15 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.util.Map;
 import java.util.WeakHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Process & thread locked access to a file. Creates file if it does not already exist.
+ * <p>
+ * The file can either be locked exclusively for modifications or shared for reading.
+ * Shared locks of several threads and processes can be held at the same time.
+ * Within the same thread a shared lock may be taken while holding the exclusive lock but not vice versa.
+ * Such a shared lock must be released before the exclusive lock.
  */
 public class LockableFile {
 
@@ -82,10 +87,12 @@ public class LockableFile {
 
     // internal modifiable state.
     // these fields are not exposed but are used within this class
-    private final ReentrantLock threadLock = new ReentrantLock();
+    private final ReentrantReadWriteLock threadLock = new ReentrantReadWriteLock();
     private RandomAccessFile randomAccessFile;
     private FileChannel fileChannel;
     private FileLock processLock;
+    // number of shared locks held by threads which do not hold the exclusive lock, guarded by this
+    private int sharedProcessLockCount;
 
 
     private LockableFile(final File file) {
@@ -129,7 +136,7 @@ public class LockableFile {
     }
 
     /**
-     * Lock access to the file.Lock is reentrant.
+     * Lock exclusive access to the file.Lock is reentrant.
      * @throws java.io.IOException if an I/O error occurs.
      */
     public void lock() throws IOException {
@@ -138,12 +145,12 @@ public class LockableFile {
             this.file.createNewFile();
         }
 
-        this.threadLock.lock();
+        this.threadLock.writeLock().lock();
         lockProcess();
     }
 
     public boolean tryLock() throws IOException {
-        if (this.threadLock.tryLock()) {
+        if (this.threadLock.writeLock().tryLock()) {
             lockProcess();
             return true;
         } else {
@@ -151,7 +158,37 @@ public class LockableFile {
         }
     }
 
+    /**
+     * Lock shared access to the file for reading. Lock is reentrant.
+     * Other threads and processes can hold a shared lock at the same time but not the exclusive lock.
+     * @throws java.io.IOException if an I/O error occurs.
+     */
+    public void lockShared() throws IOException {
+        this.threadLock.readLock().lock();
+        if (this.threadLock.isWriteLockedByCurrentThread()) {
+            // the exclusive process lock is already held
+            return;
+        }
+        try {
+            synchronized (this) {
+                if (this.sharedProcessLockCount == 0) {
+                    lockProcess(true);
+                }
+                this.sharedProcessLockCount++;
+            }
+        } catch (final IOException | RuntimeException e) {
+            this.threadLock.readLock().unlock();
+            throw e;
+        }
+    }
+
     private void lockProcess() throws IOException {
+        if (this.threadLock.getWriteHoldCount() == 1) {
+            lockProcess(false);
+        }
+    }
+
+    private void lockProcess(final boolean shared) throws IOException {
         if (OsUtil.isWindows()) {
             return;
         }
@@ -161,26 +198,49 @@ public class LockableFile {
         }
 
         if (this.file.exists()) {
-            this.randomAccessFile = new RandomAccessFile(this.file, isReadOnly() ? "r" : "rws");
+            this.randomAccessFile = new RandomAccessFile(this.file, shared || isReadOnly() ? "r" : "rws");
             this.fileChannel = randomAccessFile.getChannel();
-            if (!isReadOnly()){
+            if (shared) {
+                this.processLock = this.fileChannel.lock(0L, Long.MAX_VALUE, true);
+            } else if (!isReadOnly()) {
                 this.processLock = this.fileChannel.lock();
             }
         }
     }
 
     /**
-     * Unlock access to the file.Lock is reentrant. Does not do anything if not holding the lock.
+     * Unlock exclusive access to the file.Lock is reentrant. Does not do anything if not holding the lock.
      * @throws java.io.IOException if an I/O error occurs.
      */
     public void unlock() throws IOException {
-        if (this.threadLock.isHeldByCurrentThread()) {
+        if (this.threadLock.isWriteLockedByCurrentThread()) {
             try {
-                if (this.threadLock.getHoldCount() == 1) {
+                if (this.threadLock.getWriteHoldCount() == 1) {
                     unlockProcess();
                 }
             } finally {
-                this.threadLock.unlock();
+                this.threadLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Unlock shared access to the file. Lock is reentrant. Does not do anything if not holding the shared lock.
+     * @throws java.io.IOException if an I/O error occurs.
+     */
+    public void unlockShared() throws IOException {
+        if (this.threadLock.getReadHoldCount() > 0) {
+            try {
+                if (!this.threadLock.isWriteLockedByCurrentThread()) {
+                    synchronized (this) {
+                        this.sharedProcessLockCount--;
+                        if (this.sharedProcessLockCount == 0) {
+                            unlockProcess();
+                        }
+                    }
+                }
+            } finally {
+                this.threadLock.readLock().unlock();
             }
         }
     }
@@ -202,9 +262,21 @@ public class LockableFile {
         if (this.fileChannel != null) {
             this.fileChannel.close();
         }
+        this.randomAccessFile = null;
+        this.fileChannel = null;
     }
 
+    /**
+     * @return true if the current thread holds the exclusive lock.
+     */
     public boolean isHeldByCurrentThread() {
-        return this.threadLock.isHeldByCurrentThread();
+        return this.threadLock.isWriteLockedByCurrentThread();
+    }
+
+    /**
+     * @return true if the current thread holds the exclusive or a shared lock.
+     */
+    public boolean isReadableByCurrentThread() {
+        return this.threadLock.isWriteLockedByCurrentThread() || this.threadLock.getReadHoldCount() > 0;
     }
 }
@@ -101,6 +101,29 @@ public abstract class LockingReaderWriter {
         }
     }
 
+    /**
+     * Lock the underlying storage for reading. Lock is reentrant.
+     * Other threads and processes may read at the same time.
+     */
+    public void lockShared() {
+        try {
+            lockableFile.lockShared();
+        } catch (final IOException e) {
+            throw new StorageIoException(e);
+        }
+    }
+
+    /**
+     * Unlock the underlying storage after reading. Lock is reentrant.
+     */
+    public void unlockShared() {
+        try {
+            lockableFile.unlockShared();
+        } catch (final IOException e) {
+            throw new StorageIoException(e);
+        }
+    }
+
     /**
      * Writes stored contents to file. Assumes lock is held.
      *
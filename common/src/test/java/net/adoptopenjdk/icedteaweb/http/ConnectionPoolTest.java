@@ -0,0 +1,116 @@
+package net.adoptopenjdk.icedteaweb.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectionPoolTest {
+
+    private HttpServer server;
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            final byte[] body = new byte[10_000];
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionIsReusedIfResponseWasNotRead() throws IOException {
+        final URL url = new URL("http", "localhost", server.getAddress().getPort(), "/resource");
+
+        try (final CloseableConnection connection = ConnectionFactory.openConnection(url, HttpMethod.GET, Collections.emptyMap())) {
+            assertEquals(200, connection.getResponseCode());
+        }
+        try (final CloseableConnection connection = ConnectionFactory.openConnection(url, HttpMethod.GET, Collections.emptyMap())) {
+            assertEquals(200, connection.getResponseCode());
+        }
+
+        assertEquals(2, clientPorts.size());
+        assertEquals(clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testConnectionsPerHostAreLimited() throws Exception {
+        final ConnectionPool pool = new ConnectionPool();
+        final URL url = new URL("http://example.com/some.jar");
+
+        final ConnectionPool.Lease first = pool.acquire(url);
+        final ConnectionPool.Lease[] others = new ConnectionPool.Lease[ConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_HOST - 1];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = pool.acquire(url);
+        }
+
+        final CompletableFuture<ConnectionPool.Lease> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire(url);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try {
+            waiting.get(200, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException expected) {
+            // the limit is reached
+        }
+        assertFalse(waiting.isDone());
+
+        // another host is not affected
+        pool.acquire(new URL("http://example.org/some.jar")).release();
+
+        first.release();
+        waiting.get(5, TimeUnit.SECONDS).release();
+
+        final ConnectionMetrics metrics = pool.getMetrics().stream()
+                .filter(m -> m.getHost().equals("http://example.com"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals(ConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_HOST + 1, metrics.getRequests());
+        assertEquals(ConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_HOST, metrics.getPeakConnections());
+        assertEquals(ConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_HOST - 1, metrics.getOpenConnections());
+        assertEquals(1, metrics.getWaits());
+    }
+
+    @Test
+    public void testReleaseIsIdempotent() throws Exception {
+        final ConnectionPool pool = new ConnectionPool();
+        final ConnectionPool.Lease lease = pool.acquire(new URL("https://example.com/some.jar"));
+        lease.release();
+        lease.release();
+
+        final ConnectionMetrics metrics = pool.getMetrics().get(0);
+        assertEquals(0, metrics.getOpenConnections());
+        assertTrue(Double.isNaN(new ConnectionMetrics("http://example.com", false, 1, 0, 0, 1, 0).getReuseRatio()));
+        assertEquals(1.0, metrics.getReuseRatio(), 0.001);
+    }
+}
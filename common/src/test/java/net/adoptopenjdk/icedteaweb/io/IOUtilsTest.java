@@ -0,0 +1,69 @@
+package net.adoptopenjdk.icedteaweb.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class IOUtilsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testTransferStreamToFile() throws IOException {
+        final byte[] content = randomContent(3 * IOUtils.TRANSFER_BUFFER_SIZE + 17);
+        final File target = temporaryFolder.newFile();
+
+        final long transferred = IOUtils.transferToFile(new ByteArrayInputStream(content), target);
+
+        assertEquals(content.length, transferred);
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void testTransferFileToFile() throws IOException {
+        final byte[] content = randomContent(3 * IOUtils.TRANSFER_BUFFER_SIZE + 17);
+        final File source = temporaryFolder.newFile();
+        Files.write(source.toPath(), content);
+        final File target = temporaryFolder.newFile();
+        Files.write(target.toPath(), randomContent(5 * IOUtils.TRANSFER_BUFFER_SIZE));
+
+        final long transferred;
+        try (final InputStream in = new FileInputStream(source)) {
+            transferred = IOUtils.transferToFile(in, target);
+        }
+
+        assertEquals(content.length, transferred);
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test(expected = InterruptedIOException.class)
+    public void testTransferIsAbortedOnInterrupt() throws IOException {
+        final File target = temporaryFolder.newFile();
+        Thread.currentThread().interrupt();
+        try {
+            IOUtils.transferToFile(new ByteArrayInputStream(randomContent(1024)), target);
+        } finally {
+            // clear the interrupted flag
+            Thread.interrupted();
+        }
+    }
+
+    private static byte[] randomContent(final int size) {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
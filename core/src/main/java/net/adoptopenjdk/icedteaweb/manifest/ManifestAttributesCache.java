@@ -0,0 +1,103 @@
+package net.adoptopenjdk.icedteaweb.manifest;
+
+import net.sourceforge.jnlp.util.JarFile;
+import net.sourceforge.jnlp.util.JarFilePool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.Attributes.Name;
+import java.util.jar.Manifest;
+
+/**
+ * Cache of the main attributes of the manifests of the jars in the cache.
+ * <p>
+ * The manifest of a jar is parsed once per version of the jar and shared by all attribute lookups.
+ * A jar is identified by its path, last modification time and length, so a jar which is replaced in
+ * the cache is read again. The number of cached manifests is bounded.
+ */
+final class ManifestAttributesCache {
+
+    static final int MAX_ENTRIES = 512;
+
+    private static final ManifestAttributesCache INSTANCE = new ManifestAttributesCache();
+
+    /**
+     * Main attributes of jars without manifest.
+     */
+    private static final Attributes NO_ATTRIBUTES = new Attributes(0);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    static ManifestAttributesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param jar  the jar file
+     * @param name the name of the main attribute
+     * @return the value of the attribute or {@code null} if the jar has no manifest or the manifest has no such attribute
+     * @throws IOException if the jar cannot be read
+     */
+    String getAttribute(final File jar, final Name name) throws IOException {
+        return getMainAttributes(jar).getValue(name);
+    }
+
+    private Attributes getMainAttributes(final File jar) throws IOException {
+        final String path = jar.getAbsolutePath();
+        final long lastModified = jar.lastModified();
+        final long length = jar.length();
+        synchronized (entries) {
+            final Entry entry = entries.get(path);
+            if (entry != null && entry.lastModified == lastModified && entry.length == length) {
+                return entry.attributes;
+            }
+        }
+
+        // read without holding the lock, opening a jar must not block the lookups in other jars
+        final Attributes attributes = readMainAttributes(jar);
+        synchronized (entries) {
+            entries.put(path, new Entry(lastModified, length, attributes));
+        }
+        return attributes;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static Attributes readMainAttributes(final File jar) throws IOException {
+        try (JarFile jarFile = JarFilePool.getInstance().open(jar)) {
+            final Manifest manifest = jarFile.getManifest();
+            if (manifest == null || manifest.getMainAttributes() == null) {
+                //yes, jars without manifest exists
+                return NO_ATTRIBUTES;
+            }
+            // copy as the attributes of the manifest are mutable and only the values are handed out
+            return new Attributes(manifest.getMainAttributes());
+        }
+    }
+
+    private static class Entry {
+        private final long lastModified;
+        private final long length;
+        private final Attributes attributes;
+
+        Entry(final long lastModified, final long length, final Attributes attributes) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.attributes = attributes;
+        }
+    }
+}
@@ -25,7 +25,6 @@ import net.adoptopenjdk.icedteaweb.resources.ResourceTracker;
 import net.sourceforge.jnlp.JNLPFile;
 import net.sourceforge.jnlp.runtime.classloader.JNLPClassLoader;
 import net.sourceforge.jnlp.util.ClasspathMatcher;
-import net.sourceforge.jnlp.util.JarFile;
 
 import java.io.File;
 import java.io.IOException;
@@ -33,7 +32,9 @@ import java.net.URL;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Attributes.Name;
 import java.util.jar.Manifest;
 
@@ -49,6 +50,9 @@ public class ManifestAttributesReader {
     private final JNLPFile jnlpFile;
     private JNLPClassLoader loader;
 
+    /** the compiled code base matchers by attribute name */
+    private final Map<String, CompiledMatchers> compiledMatchers = new ConcurrentHashMap<>();
+
     public ManifestAttributesReader(final JNLPFile jnlpFile) {
         this.jnlpFile = jnlpFile;
     }
@@ -154,7 +158,13 @@ public class ManifestAttributesReader {
         if (value == null) {
             return null;
         }
-        return ClasspathMatcher.ClasspathMatchers.compile(value, includePath);
+        final CompiledMatchers compiled = compiledMatchers.get(name);
+        if (compiled != null && compiled.value.equals(value)) {
+            return compiled.matchers;
+        }
+        final ClasspathMatcher.ClasspathMatchers matchers = ClasspathMatcher.ClasspathMatchers.compile(value, includePath);
+        compiledMatchers.put(name, new CompiledMatchers(value, matchers));
+        return matchers;
     }
 
     /**
@@ -291,13 +301,8 @@ public class ManifestAttributesReader {
         final File file = tracker.getCacheFile(location);
 
         if (file != null) {
-            try (JarFile mainJar = new JarFile(file)) {
-                final Manifest manifest = mainJar.getManifest();
-                if (manifest == null || manifest.getMainAttributes() == null) {
-                    //yes, jars without manifest exists
-                    return null;
-                }
-                return manifest.getMainAttributes().getValue(name);
+            try {
+                return ManifestAttributesCache.getInstance().getAttribute(file, name);
             } catch (IOException ioe) {
                 return null;
             }
@@ -352,4 +357,14 @@ public class ManifestAttributesReader {
         }
         return result;
     }
+
+    private static class CompiledMatchers {
+        private final String value;
+        private final ClasspathMatcher.ClasspathMatchers matchers;
+
+        CompiledMatchers(final String value, final ClasspathMatcher.ClasspathMatchers matchers) {
+            this.value = value;
+            this.matchers = matchers;
+        }
+    }
 }
@@ -1,11 +1,12 @@
 package net.adoptopenjdk.icedteaweb.resources;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -32,7 +33,8 @@ public class PrioritizedParallelExecutor {
 
 
     /**
-     * Executes the passed callables in parallel
+     * Executes the passed callables in parallel.
+     * All callables are submitted to the executor at once.
      * The callables must be sorted by priority with the highest priority as the first in list.
      * Executions of lower priority are canceled as soon as a higher priority result has successfully been calculated.
      * The returned {@link Future} will complete as soon as the first callable completed successfully and all other
@@ -47,27 +49,99 @@ public class PrioritizedParallelExecutor {
         }
 
         final CompletableFuture<V> futureResult = new CompletableFuture<>();
-        final List<Exception> exceptions = new ArrayList<>();
-        for (Callable<V> next : callables) {
+        final PrioritizedResults<V> results = new PrioritizedResults<>(callables.size(), futureResult);
+
+        for (int i = 0; i < callables.size(); i++) {
+            final int priority = i;
+            final Callable<V> callable = callables.get(i);
             try {
-                futureResult.complete(executor.submit(next).get());
-                return futureResult;
-            } catch (Exception e) {
-                exceptions.add(e);
-                // continue with next callable
+                results.setFuture(priority, executor.submit(() -> {
+                    try {
+                        results.onCompletion(priority, callable.call(), null);
+                    } catch (Throwable t) {
+                        // errors must complete the result as well, otherwise the caller would wait forever
+                        results.onCompletion(priority, null, t);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                results.onCompletion(priority, null, e);
             }
         }
 
-        futureResult.completeExceptionally(getFailureReason(exceptions));
         return futureResult;
     }
 
-    private Exception getFailureReason(List<Exception> exceptions) {
+    /**
+     * Keeps track of the outcome of all callables ordered by their priority.
+     * Completes the final future as soon as the result of the highest priority is known.
+     */
+    private static class PrioritizedResults<V> {
+
+        private final CompletableFuture<V> futureResult;
+        private final Future<?>[] futures;
+        private final boolean[] done;
+        private final Object[] values;
+        private final Throwable[] exceptions;
+
+        PrioritizedResults(final int size, final CompletableFuture<V> futureResult) {
+            this.futureResult = futureResult;
+            this.futures = new Future<?>[size];
+            this.done = new boolean[size];
+            this.values = new Object[size];
+            this.exceptions = new Throwable[size];
+        }
+
+        synchronized void setFuture(final int priority, final Future<?> future) {
+            if (futureResult.isDone() && !done[priority]) {
+                future.cancel(true);
+            }
+            futures[priority] = future;
+        }
+
+        synchronized void onCompletion(final int priority, final V value, final Throwable error) {
+            if (futureResult.isDone()) {
+                return;
+            }
+
+            done[priority] = true;
+            values[priority] = value;
+            exceptions[priority] = error;
+
+            for (int i = 0; i < done.length; i++) {
+                if (!done[i]) {
+                    // a callable with higher priority is still running
+                    return;
+                }
+                if (exceptions[i] == null) {
+                    futureResult.complete(getValue(i));
+                    cancelAllAfter(i);
+                    return;
+                }
+            }
+
+            futureResult.completeExceptionally(getFailureReason(Arrays.asList(exceptions)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private V getValue(final int priority) {
+            return (V) values[priority];
+        }
+
+        private void cancelAllAfter(final int priority) {
+            for (int i = priority + 1; i < futures.length; i++) {
+                if (futures[i] != null && !done[i]) {
+                    futures[i].cancel(true);
+                }
+            }
+        }
+    }
+
+    private static Throwable getFailureReason(final List<Throwable> exceptions) {
         if (exceptions.size() == 1) {
             return exceptions.get(0);
         } else {
             return new RuntimeException("All callables completed exceptionally:" + LIST_PREFIX +
-                    exceptions.stream().map(Exception::getMessage).collect(Collectors.joining(LIST_PREFIX)));
+                    exceptions.stream().map(Throwable::getMessage).collect(Collectors.joining(LIST_PREFIX)));
         }
     }
 
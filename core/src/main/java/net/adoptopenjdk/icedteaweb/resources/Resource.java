@@ -23,7 +23,9 @@ import net.sourceforge.jnlp.util.WeakList;
 
 import java.io.File;
 import java.net.URL;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 
 /**
@@ -83,6 +85,9 @@ public class Resource {
     /** the status of the resource */
     private volatile Status status = Status.INCOMPLETE;
 
+    /** listeners notified about the download progress */
+    private final List<ResourceProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Create a resource.
      */
@@ -169,7 +174,10 @@ public class Resource {
      * @param transferred set the whole transferred amount to this value
      */
     public void setTransferred(long transferred) {
-        this.transferred = transferred;
+        if (this.transferred != transferred) {
+            this.transferred = transferred;
+            fireProgress();
+        }
     }
 
     /**
@@ -187,7 +195,10 @@ public class Resource {
      * @param size desired size of resource
      */
     public void setSize(long size) {
-        this.size = size;
+        if (this.size != size) {
+            this.size = size;
+            fireProgress();
+        }
     }
 
     boolean isBeingProcessed() {
@@ -233,7 +244,36 @@ public class Resource {
      * @param status a collection of status flags to set
      */
     public void setStatus(Status status) {
-        this.status = status;
+        if (this.status != status) {
+            this.status = status;
+            fireProgress();
+        }
+    }
+
+    /**
+     * Adds a listener which is notified whenever the transferred amount, the size or the status changes.
+     *
+     * @param listener the listener to add
+     */
+    void addProgressListener(ResourceProgressListener listener) {
+        progressListeners.add(listener);
+    }
+
+    /**
+     * @param listener the listener to remove
+     */
+    void removeProgressListener(ResourceProgressListener listener) {
+        progressListeners.remove(listener);
+    }
+
+    private void fireProgress() {
+        if (progressListeners.isEmpty()) {
+            return;
+        }
+        final boolean complete = isComplete();
+        for (ResourceProgressListener listener : progressListeners) {
+            listener.progress(location, transferred, size, complete);
+        }
     }
 
     public DownloadOptions getDownloadOptions() {
@@ -109,7 +109,7 @@ class ResourceHandler {
         final ResourceInitializer initializer = ResourceInitializer.of(resource);
         final InitializationResult initResult = initializer.init();
         if (initResult.needsDownload()) {
-            final ResourceDownloader downloader = ResourceDownloader.of(resource, initResult.getDownloadUrls());
+            final ResourceDownloader downloader = ResourceDownloader.of(resource, initResult.getDownloadUrls(), initResult.getFallbackUrls());
             downloader.download();
         }
         return resource;
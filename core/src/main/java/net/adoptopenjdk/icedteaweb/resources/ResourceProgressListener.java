@@ -0,0 +1,23 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import java.net.URL;
+
+/**
+ * Listener which is notified about the download progress of a {@link Resource}.
+ * <p>
+ * Notifications are sent by the thread which downloads the resource. Implementations must be thread safe
+ * and must return quickly as they delay the download.
+ */
+@FunctionalInterface
+public interface ResourceProgressListener {
+
+    /**
+     * Called whenever the number of bytes transferred, the size or the status of a resource changed.
+     *
+     * @param location    the location of the resource
+     * @param transferred the number of bytes transferred so far
+     * @param size        the size of the resource or -1 if unknown
+     * @param complete    {@code true} once the resource was downloaded or failed to download
+     */
+    void progress(URL location, long transferred, long size, boolean complete);
+}
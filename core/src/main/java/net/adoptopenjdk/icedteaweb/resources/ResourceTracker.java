@@ -315,6 +315,35 @@ public class ResourceTracker {
         return true;
     }
 
+    /**
+     * Registers a listener which is notified about the download progress of a group of resources.
+     * The listener is called by the downloading threads until it is removed with
+     * {@link #removeProgressListener(URL[], ResourceProgressListener)}.
+     *
+     * @param urls     the resources to observe
+     * @param listener the listener to notify
+     * @throws IllegalResourceDescriptorException if a resource is not being tracked
+     */
+    public void addProgressListener(URL[] urls, ResourceProgressListener listener) {
+        Assert.requireNonNull(listener, "listener");
+        for (Resource resource : getResources(urls)) {
+            resource.addProgressListener(listener);
+        }
+    }
+
+    /**
+     * Removes a listener added with {@link #addProgressListener(URL[], ResourceProgressListener)}.
+     *
+     * @param urls     the observed resources
+     * @param listener the listener to remove
+     * @throws IllegalResourceDescriptorException if a resource is not being tracked
+     */
+    public void removeProgressListener(URL[] urls, ResourceProgressListener listener) {
+        for (Resource resource : getResources(urls)) {
+            resource.removeProgressListener(listener);
+        }
+    }
+
     /**
      * Returns the number of bytes downloaded for a resource.
      *
@@ -390,8 +419,7 @@ public class ResourceTracker {
     private void wait(Resource... resources) throws InterruptedException {
         // save futures in list to allow parallel start of all resources
         final List<Future<Resource>> futures = Stream.of(resources)
-                .map(ResourceHandler::new)
-                .map(ResourceHandler::putIntoCache)
+                .map(ResourceTracker::getDownloadFuture)
                 .collect(Collectors.toList());
 
         for (Future<Resource> future : futures) {
@@ -420,8 +448,7 @@ public class ResourceTracker {
 
         // save futures in list to allow parallel start of all resources
         final List<Future<Resource>> futures = Stream.of(resources)
-                .map(ResourceHandler::new)
-                .map(ResourceHandler::putIntoCache)
+                .map(ResourceTracker::getDownloadFuture)
                 .collect(Collectors.toList());
 
         for (Future<Resource> future : futures) {
@@ -441,4 +468,12 @@ public class ResourceTracker {
         }
         return true;
     }
+
+    /**
+     * Returns the future of a resource which is already being processed or starts processing it.
+     */
+    private static Future<Resource> getDownloadFuture(final Resource resource) {
+        final Future<Resource> future = resource.getFutureForDownloaded();
+        return future != null ? future : new ResourceHandler(resource).putIntoCache();
+    }
 }
@@ -3,12 +3,14 @@ package net.adoptopenjdk.icedteaweb.resources.cache;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.sourceforge.jnlp.cache.CacheUtil;
+import net.sourceforge.jnlp.util.JarFilePool;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +27,7 @@ public class Cache {
      * @return true if the cache could and was cleared
      */
     public static boolean clearCache() {
+        JarFilePool.getInstance().closeIdleHandles();
         return LeastRecentlyUsedCache.getInstance().clearCache();
     }
 
@@ -32,9 +35,66 @@ public class Cache {
      * This will remove all old cache items.
      */
     public static void cleanCache() {
+        JarFilePool.getInstance().closeIdleHandles();
         LeastRecentlyUsedCache.getInstance().cleanCache();
     }
 
+    /**
+     * Removes files and directories which do not belong to any cache entry.
+     * This is done by a low priority background thread while the application is running.
+     */
+    public static void sweepInBackground() {
+        LeastRecentlyUsedCache.getInstance().sweepInBackground();
+    }
+
+    /**
+     * Writes the collected last access timestamps of the cached resources to the cache index.
+     * Depending on the configured write back policy this is required before the JVM exits.
+     */
+    public static void writePendingAccesses() {
+        LeastRecentlyUsedCache.getInstance().writePendingAccesses();
+    }
+
+    /**
+     * Returns the file in which the result of the signature verification of a cached file can be stored.
+     *
+     * @param cacheFile a file in the cache
+     * @return the verification file or empty if the given file is not located in the cache
+     */
+    public static Optional<File> getVerificationFile(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getVerificationFile(cacheFile);
+    }
+
+    /**
+     * Returns the file in which the names of the entries of a cached jar can be stored.
+     *
+     * @param cacheFile a file in the cache
+     * @return the entry list file or empty if the given file is not located in the cache
+     */
+    public static Optional<File> getEntryListFile(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getEntryListFile(cacheFile);
+    }
+
+    /**
+     * Returns the directory in which the native libraries of a cached jar can be extracted.
+     *
+     * @param cacheFile a jar in the cache
+     * @return the native library directory or empty if the given file is not located in the cache
+     */
+    public static Optional<File> getNativeLibraryDirectory(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getNativeLibraryDirectory(cacheFile);
+    }
+
+    /**
+     * Records the size of the native libraries extracted from a cached jar as part of the size of its cache entry.
+     *
+     * @param cacheFile         a jar in the cache
+     * @param nativeLibrarySize the total size of the extracted native libraries
+     */
+    public static void recordNativeLibrarySize(final File cacheFile, final long nativeLibrarySize) {
+        LeastRecentlyUsedCache.getInstance().recordNativeLibrarySize(cacheFile, nativeLibrarySize);
+    }
+
     /**
      * Returns the file for the locally cached contents of the
      * resource.  This method returns the file location only and does
@@ -60,6 +120,39 @@ public class Cache {
         return LeastRecentlyUsedCache.getInstance().addToCache(infoFromRemote, unpackedStream);
     }
 
+    /**
+     * Moves a completely downloaded file into the cache.
+     * The file must have been created by {@link #createDownloadFile(URL)}.
+     *
+     * @param infoFromRemote information about the downloaded resource
+     * @param downloadedFile the file holding the unpacked content of the resource
+     * @return the file location in the cache
+     * @throws IOException if the file cannot be moved into the cache
+     * @throws IllegalArgumentException if the resource is not cacheable
+     */
+    public static File addToCache(DownloadInfo infoFromRemote, File downloadedFile) throws IOException {
+        if (!CacheUtil.isCacheable(infoFromRemote.getResourceHref())) {
+            throw new IllegalArgumentException(infoFromRemote.getResourceHref() + " is not a cacheable resource");
+        }
+        return LeastRecentlyUsedCache.getInstance().addToCache(infoFromRemote, downloadedFile);
+    }
+
+    /**
+     * Creates a new empty file inside the cache directory which can be used to download a resource.
+     * Once the download is complete the file can be moved into the cache by {@link #addToCache(DownloadInfo, File)}.
+     *
+     * @param resource the resource {@link URL}
+     * @return a new empty file
+     * @throws IOException if the file cannot be created
+     * @throws IllegalArgumentException if the resource is not cacheable
+     */
+    public static File createDownloadFile(final URL resource) throws IOException {
+        if (!CacheUtil.isCacheable(resource)) {
+            throw new IllegalArgumentException(resource + " is not a cacheable resource");
+        }
+        return LeastRecentlyUsedCache.getInstance().createDownloadFile(resource);
+    }
+
     /**
      * Invalidate the entry and make it eligible for removal.
      *
@@ -25,6 +25,7 @@ import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.PropertiesFile;
 
 import java.io.File;
+import java.net.MalformedURLException;
 import java.net.URL;
 
 import static net.adoptopenjdk.icedteaweb.i18n.Translator.R;
@@ -40,10 +41,15 @@ class CacheEntry implements ResourceInfo {
     private static final Logger LOG = LoggerFactory.getLogger(CacheEntry.class);
 
     static final String INFO_SUFFIX = ".info";
+    static final String VERIFICATION_FILE_NAME = ".verification";
+    static final String ENTRY_LIST_FILE_NAME = ".entries";
+    static final String NATIVE_LIBRARY_DIR_NAME = ".natives";
 
     private static final String KEY_SIZE = "content-length";
     private static final String KEY_LAST_MODIFIED = "last-modified";
     private static final String KEY_DOWNLOADED_AT = "last-updated";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_DOWNLOAD_URL = "download-url";
     static final String KEY_JNLP_PATH = "jnlp-path";
 
     /** the remote resource location */
@@ -103,6 +109,25 @@ class CacheEntry implements ResourceInfo {
         return getLongKey(KEY_LAST_MODIFIED);
     }
 
+    @Override
+    public String getETag() {
+        return properties.getProperty(KEY_ETAG);
+    }
+
+    @Override
+    public URL getDownloadUrl() {
+        final String downloadUrl = properties.getProperty(KEY_DOWNLOAD_URL);
+        if (StringUtils.isBlank(downloadUrl)) {
+            return null;
+        }
+        try {
+            return new URL(downloadUrl);
+        } catch (MalformedURLException e) {
+            LOG.debug("Invalid download url {} for {}", downloadUrl, location);
+            return null;
+        }
+    }
+
     String getJnlpPath() {
         return properties.getProperty(KEY_JNLP_PATH);
     }
@@ -182,12 +207,32 @@ class CacheEntry implements ResourceInfo {
     }
 
     void storeInfo(long downloadedAt, long lastModified, long size) {
+        storeInfo(downloadedAt, lastModified, null, size);
+    }
+
+    void storeInfo(long downloadedAt, long lastModified, String eTag, long size) {
+        storeInfo(downloadedAt, lastModified, eTag, null, size);
+    }
+
+    void storeInfo(long downloadedAt, long lastModified, String eTag, URL downloadUrl, long size) {
         properties.lock();
         try {
             setLongKey(KEY_SIZE, size);
             setLongKey(KEY_LAST_MODIFIED, lastModified);
             setLongKey(KEY_DOWNLOADED_AT, downloadedAt);
 
+            if (StringUtils.isBlank(eTag)) {
+                properties.remove(KEY_ETAG);
+            } else {
+                properties.setProperty(KEY_ETAG, eTag);
+            }
+
+            if (downloadUrl == null) {
+                properties.remove(KEY_DOWNLOAD_URL);
+            } else {
+                properties.setProperty(KEY_DOWNLOAD_URL, downloadUrl.toString());
+            }
+
             final String jnlpPath = JNLPRuntime.getJnlpPath();
             if (StringUtils.isBlank(jnlpPath)) {
                 LOG.info("Not-setting jnlp-path for missing main/jnlp argument");
@@ -9,12 +9,24 @@ public class DownloadInfo {
     private final URL resourceHref;
     private final VersionId version;
     private final long lastModified;
+    private final String eTag;
+    private final URL downloadUrl;
     private final long downloadedAt;
 
     public DownloadInfo(URL resourceHref, VersionId version, long lastModified) {
+        this(resourceHref, version, lastModified, null);
+    }
+
+    public DownloadInfo(URL resourceHref, VersionId version, long lastModified, String eTag) {
+        this(resourceHref, version, lastModified, eTag, null);
+    }
+
+    public DownloadInfo(URL resourceHref, VersionId version, long lastModified, String eTag, URL downloadUrl) {
         this.resourceHref = resourceHref;
         this.version = version;
         this.lastModified = lastModified;
+        this.eTag = eTag;
+        this.downloadUrl = downloadUrl;
         this.downloadedAt = System.currentTimeMillis();
     }
 
@@ -30,6 +42,14 @@ public class DownloadInfo {
         return lastModified;
     }
 
+    String getETag() {
+        return eTag;
+    }
+
+    URL getDownloadUrl() {
+        return downloadUrl;
+    }
+
     long getDownloadedAt() {
         return downloadedAt;
     }
@@ -36,7 +36,6 @@ exception statement from your version.
  */
 package net.adoptopenjdk.icedteaweb.resources.cache;
 
-import net.adoptopenjdk.icedteaweb.StringUtils;
 import net.adoptopenjdk.icedteaweb.io.FileUtils;
 import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
@@ -45,6 +44,7 @@ import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.os.OsUtil;
+import net.adoptopenjdk.icedteaweb.resources.cache.LeastRecentlyUsedCacheIndexHolder.WriteBackPolicy;
 import net.sourceforge.jnlp.config.ConfigurationConstants;
 import net.sourceforge.jnlp.config.InfrastructureFileDescriptor;
 import net.sourceforge.jnlp.config.PathsAndFiles;
@@ -56,10 +56,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URL;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -73,6 +74,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Comparator.comparing;
 import static net.adoptopenjdk.icedteaweb.CollectionUtils.isNullOrEmpty;
 import static net.adoptopenjdk.icedteaweb.StringUtils.isBlank;
@@ -87,6 +90,19 @@ class LeastRecentlyUsedCache {
 
     private static final Logger LOG = LoggerFactory.getLogger(LeastRecentlyUsedCache.class);
 
+    private static final String DOWNLOAD_DIR_NAME = "download";
+
+    private static final int CACHE_DIRS_PER_LEVEL = 250;
+    private static final int NUM_CACHE_DIRS = CACHE_DIRS_PER_LEVEL * CACHE_DIRS_PER_LEVEL;
+
+    private static final long SWEEP_DELAY_MILLIS = 30_000;
+
+    /**
+     * Files and directories younger than this are never swept as they may be in use by another process,
+     * e.g. a temporary file which is about to be renamed or an entry whose info file is not yet written.
+     */
+    private static final long SWEEP_MIN_AGE_MILLIS = 10 * 60 * 1000;
+
     static LeastRecentlyUsedCache getInstance() {
         return CacheHolder.INSTANCE;
     }
@@ -99,10 +115,17 @@ class LeastRecentlyUsedCache {
      * @param cacheDir     dir with cache
      */
     private LeastRecentlyUsedCache(final InfrastructureFileDescriptor recentlyUsed, final InfrastructureFileDescriptor cacheDir) {
-        this.cacheIndex = new LeastRecentlyUsedCacheIndexHolder(recentlyUsed);
+        this.cacheIndex = new LeastRecentlyUsedCacheIndexHolder(recentlyUsed, getWriteBackPolicy(), getWriteBackIntervalInSeconds());
         this.rootCacheDir = cacheDir;
     }
 
+    /**
+     * Writes the collected last access timestamps to the cache index.
+     */
+    void writePendingAccesses() {
+        cacheIndex.writePendingAccesses();
+    }
+
     File getOrCreateCacheFile(URL resourceHref, VersionId version) {
         final LeastRecentlyUsedCacheEntry entry = cacheIndex.getSynchronized(idx ->
                 getOrCreateCacheEntry(idx, resourceHref, version)
@@ -125,29 +148,51 @@ class LeastRecentlyUsedCache {
     }
 
     private LeastRecentlyUsedCacheEntry createNewInfoFileAndIndexEntry(LeastRecentlyUsedCacheIndex idx, URL resourceHref, VersionId version) {
-        final File dir = makeNewCacheDir();
+        final File dir = makeNewCacheDir(idx);
         final String entryId = entryIdFromCacheDir(dir);
         createInfoFile(dir);
         return idx.createEntry(resourceHref, version, entryId);
     }
 
-    private File makeNewCacheDir() {
+    /**
+     * Allocates a new cache directory.
+     * <p>
+     * The search for a free directory starts at the allocation cursor stored in the index.
+     * Usually the first directory tried is free, so allocating a directory costs a single mkdir.
+     * Directories which exist although the cursor did not yet pass them (e.g. created right before
+     * a crash or by an older version) are skipped.
+     */
+    private File makeNewCacheDir(LeastRecentlyUsedCacheIndex idx) {
         final String cacheDirPath = rootCacheDir.getFullPath();
-        for (int i = 0; i < 250; i++) {
-            for (int j = 0; j < 250; j++) {
-                String path = cacheDirPath + File.separator + i + File.separator + j;
-                File cDir = new File(path);
-                if (!cDir.exists()) {
-                    if (cDir.mkdirs()) {
-                        return cDir;
-                    }
-                    throw new RuntimeException("Cannot create directory " + cDir);
-                }
+        final int start = idx.getAllocationCursor() % NUM_CACHE_DIRS;
+        for (int n = 0; n < NUM_CACHE_DIRS; n++) {
+            final int slot = (start + n) % NUM_CACHE_DIRS;
+            final File cDir = new File(cacheDirPath + File.separator + slot / CACHE_DIRS_PER_LEVEL + File.separator + slot % CACHE_DIRS_PER_LEVEL);
+            if (createCacheDir(cDir)) {
+                idx.setAllocationCursor((slot + 1) % NUM_CACHE_DIRS);
+                return cDir;
             }
         }
         throw new RuntimeException("Out of directories :-)");
     }
 
+    /**
+     * @return true if the directory was created, false if it already existed
+     */
+    private boolean createCacheDir(File dir) {
+        if (dir.mkdir()) {
+            return true;
+        }
+        if (dir.exists()) {
+            return false;
+        }
+        // the parent directory is missing
+        if (dir.mkdirs()) {
+            return true;
+        }
+        throw new RuntimeException("Cannot create directory " + dir);
+    }
+
     private void createInfoFile(File dir) {
         try {
             final File infoFile = new File(dir, CacheEntry.INFO_SUFFIX);
@@ -177,10 +222,9 @@ class LeastRecentlyUsedCache {
         final File cacheFile = infoFile.getCacheFile();
         try {
             LOG.debug("Downloading file: {} into: {}", info.getResourceHref(), cacheFile.getCanonicalPath());
-            try (final OutputStream out = new FileOutputStream(cacheFile)) {
-                IOUtils.copy(inputStream, out);
-            }
-            infoFile.storeInfo(info.getDownloadedAt(), info.getLastModified(), cacheFile.length());
+            final long size = IOUtils.transferToFile(inputStream, cacheFile);
+            infoFile.storeInfo(info.getDownloadedAt(), info.getLastModified(), info.getETag(), info.getDownloadUrl(), size);
+            recordSize(entry, size);
         } catch (IOException e) {
             ex.add(e);
         }
@@ -192,8 +236,54 @@ class LeastRecentlyUsedCache {
         return cacheFile;
     }
 
+    /**
+     * Creates a new empty file in the download directory of the cache.
+     * A resource can be written to this file and later be moved into the cache using {@link #addToCache(DownloadInfo, File)}.
+     * Left over files of aborted downloads are removed by {@link #cleanCache()}.
+     */
+    File createDownloadFile(URL resourceHref) throws IOException {
+        final File downloadDir = new File(rootCacheDir.getFullPath(), DOWNLOAD_DIR_NAME);
+        if (!downloadDir.isDirectory() && !downloadDir.mkdirs()) {
+            throw new IOException("Cannot create directory " + downloadDir);
+        }
+        return Files.createTempFile(downloadDir.toPath(), getCacheFileName(resourceHref) + "-", ".part").toFile();
+    }
+
+    File addToCache(DownloadInfo info, File downloadedFile) throws IOException {
+        final LeastRecentlyUsedCacheEntry entry = cacheIndex.getSynchronized(idx ->
+                getOrCreateCacheEntry(idx, info.getResourceHref(), info.getVersion())
+        );
+
+        final CacheEntry infoFile = getInfoFile(entry);
+        final File cacheFile = infoFile.getCacheFile();
+        LOG.debug("Moving downloaded file: {} into: {}", info.getResourceHref(), cacheFile.getCanonicalPath());
+        final long size = downloadedFile.length();
+        moveFile(downloadedFile, cacheFile);
+        infoFile.storeInfo(info.getDownloadedAt(), info.getLastModified(), info.getETag(), info.getDownloadUrl(), size);
+        recordSize(entry, size);
+
+        return cacheFile;
+    }
+
+    /**
+     * Records the size of the content of an entry in the index.
+     * Only entries with a recorded size are considered to have content by {@link #cleanCache()}.
+     */
+    private void recordSize(LeastRecentlyUsedCacheEntry entry, long size) {
+        cacheIndex.runSynchronized(idx -> idx.setSize(entry.getId(), size));
+    }
+
+    private void moveFile(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            LOG.debug("Atomic move not supported for {} - falling back to regular move", target);
+            Files.move(source.toPath(), target.toPath(), REPLACE_EXISTING);
+        }
+    }
+
     Optional<CacheEntry> getResourceInfo(URL resourceHref, VersionId version) {
-        return cacheIndex.getSynchronized(idx -> idx.find(resourceHref, version))
+        return cacheIndex.getSynchronizedForReading(idx -> idx.find(resourceHref, version))
                 .map(this::getInfoFile);
     }
 
@@ -233,7 +323,7 @@ class LeastRecentlyUsedCache {
     Optional<LeastRecentlyUsedCacheEntry> getBestMatchingEntryInCache(final URL resourceHref, final VersionString version) {
         final Comparator<VersionId> versionIdComparator = version != null ? new VersionIdComparator(version) : VersionId::compareTo;
         final Comparator<LeastRecentlyUsedCacheEntry> versionComparator = comparing(LeastRecentlyUsedCacheEntry::getVersion, versionIdComparator);
-        return cacheIndex.getSynchronized(idx -> {
+        return cacheIndex.getSynchronizedForReading(idx -> {
             final Set<LeastRecentlyUsedCacheEntry> allSet = idx.findAll(resourceHref, version);
             final List<LeastRecentlyUsedCacheEntry> all = new ArrayList<>(allSet);
             all.sort(versionComparator);
@@ -250,7 +340,7 @@ class LeastRecentlyUsedCache {
 
     List<LeastRecentlyUsedCacheEntry> getAllEntriesInCache(final URL resourceHref) {
         final Comparator<LeastRecentlyUsedCacheEntry> versionComparator = comparing(LeastRecentlyUsedCacheEntry::getVersion);
-        return cacheIndex.getSynchronized(idx -> {
+        return cacheIndex.getSynchronizedForReading(idx -> {
             final Set<LeastRecentlyUsedCacheEntry> allSet = idx.findAll(resourceHref);
 
             return allSet.stream()
@@ -265,7 +355,7 @@ class LeastRecentlyUsedCache {
             return Collections.emptyList();
         }
 
-        final List<LeastRecentlyUsedCacheEntry> entries = cacheIndex.getSynchronized(LeastRecentlyUsedCacheIndex::getAllUnDeletedEntries);
+        final List<LeastRecentlyUsedCacheEntry> entries = cacheIndex.getSynchronizedForReading(LeastRecentlyUsedCacheIndex::getAllUnDeletedEntries);
 
         final Map<String, CacheId> result = new LinkedHashMap<>();
         entries.forEach(entry -> {
@@ -385,82 +475,217 @@ class LeastRecentlyUsedCache {
 
     /**
      * This will remove all old cache items.
+     * <p>
+     * Entries marked for deletion, entries without content and the least recently used entries exceeding
+     * the maximum cache size are removed. The sizes recorded in the index are used, so only entries whose size
+     * is unknown (e.g. created by an older version) are checked on the file system.
+     * Directories which do not belong to any entry are removed by {@link #sweep()}.
      */
     void cleanCache() {
         if (cannotClearCache()) {
             return;
         }
 
+        // remove left overs of aborted downloads
+        deleteAll(new File(rootCacheDir.getFile(), DOWNLOAD_DIR_NAME));
+
         final File[] levelOneDirs = rootCacheDir.getFile().listFiles(File::isDirectory);
         if (isNullOrEmpty(levelOneDirs)) {
             cacheIndex.runSynchronized(LeastRecentlyUsedCacheIndex::clear);
         } else {
-            final Set<String> entryIds = collectAllEntryIdsFromFileSystem(levelOneDirs);
             cacheIndex.runSynchronized(idx -> {
+                final List<LeastRecentlyUsedCacheEntry> toDelete = new ArrayList<>(idx.getEntriesMarkedForDeletion());
 
-                final long maxSize = getMaxSizeInBytes();
-                long curSize = 0;
+                for (LeastRecentlyUsedCacheEntry entry : idx.getEntriesWithUnknownSize()) {
+                    final File cacheFile = getCacheFile(entry);
+                    if (cacheFile.isFile()) {
+                        idx.setSize(entry.getId(), cacheFile.length());
+                    } else {
+                        toDelete.add(entry);
+                    }
+                }
+                toDelete.forEach(entry -> deleteFromCacheDir(idx, entry));
 
-                final List<LeastRecentlyUsedCacheEntry> toDelete = new ArrayList<>();
-                for (LeastRecentlyUsedCacheEntry entry : idx.getAllEntries()) {
-                    entryIds.remove(entry.getId());
+                final List<LeastRecentlyUsedCacheEntry> toEvict = idx.getEntriesToEvict(getMaxSizeInBytes());
+                toEvict.forEach(entry -> deleteFromCacheDir(idx, entry));
+            });
+        }
+    }
 
-                    final CacheEntry infoFile = getInfoFile(entry);
-                    final File cacheFile = infoFile.getCacheFile();
-                    final File directory = cacheFile.getParentFile();
+    private void deleteFromCacheDir(LeastRecentlyUsedCacheIndex idx, LeastRecentlyUsedCacheEntry entry) {
+        deleteAll(cacheDirFromEntryId(entry.getId()));
+        idx.removeEntry(entry);
+    }
 
-                    if (!infoFile.exists()) {
-                        toDelete.add(entry);
-                        deleteAll(directory);
-                        continue;
-                    }
+    /**
+     * Starts a low priority background thread executing {@link #sweep()}.
+     */
+    void sweepInBackground() {
+        final Thread sweeper = new Thread(() -> {
+            try {
+                Thread.sleep(SWEEP_DELAY_MILLIS);
+                sweep();
+            } catch (InterruptedException ignored) {
+                // stop sweeping
+            } catch (Exception e) {
+                LOG.debug("Failed to sweep the cache - {}", e.getMessage());
+            }
+        }, "itw-cache-sweeper");
+        sweeper.setDaemon(true);
+        sweeper.setPriority(Thread.MIN_PRIORITY);
+        sweeper.start();
+    }
 
-                    final long size = cacheFile.length();
-                    if (entry.isMarkedForDeletion() || !cacheFile.isFile() || (maxSize >= 0 && curSize + size > maxSize)) {
-                        toDelete.add(entry);
-                        deleteAll(directory);
-                        continue;
-                    }
+    /**
+     * Removes everything from the cache directory which does not belong to a valid entry in the index.
+     * <ul>
+     *     <li>directories which do not belong to an entry</li>
+     *     <li>entries which do not have an info file</li>
+     *     <li>files in the directory of an entry which are neither the cache file nor the info file</li>
+     *     <li>empty directories</li>
+     * </ul>
+     * The file system is scanned without holding the lock on the index.
+     * As a new entry and its directory are created while holding the lock, a directory which exists
+     * before the index is read but has no entry in the index does not belong to any entry.
+     * <p>
+     * Other processes may use the cache while it is swept. Files and directories modified recently are
+     * therefore left alone as well as the download directory.
+     */
+    void sweep() {
+        sweep(System.currentTimeMillis() - SWEEP_MIN_AGE_MILLIS);
+    }
 
-                    final File[] cacheDirFiles = directory.listFiles();
-                    if (!isNullOrEmpty(cacheDirFiles)) {
-                        for (File file : cacheDirFiles) {
-                            if (!file.equals(cacheFile) && !file.getName().equals(CacheEntry.INFO_SUFFIX)) {
-                                deleteAll(file);
-                            }
-                        }
-                    }
+    private void sweep(final long modifiedBefore) {
+        final File[] levelOneDirs = rootCacheDir.getFile().listFiles(File::isDirectory);
+        if (isNullOrEmpty(levelOneDirs)) {
+            return;
+        }
+        final Set<String> entryIdsOnFileSystem = collectAllEntryIdsFromFileSystem(levelOneDirs);
+        final List<LeastRecentlyUsedCacheEntry> entries = cacheIndex.getSynchronizedForReading(LeastRecentlyUsedCacheIndex::getAllEntries);
+
+        final List<LeastRecentlyUsedCacheEntry> withoutInfoFile = new ArrayList<>();
+        for (LeastRecentlyUsedCacheEntry entry : entries) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            entryIdsOnFileSystem.remove(entry.getId());
+
+            final CacheEntry infoFile = getInfoFile(entry);
+            if (!infoFile.exists()) {
+                withoutInfoFile.add(entry);
+                continue;
+            }
 
-                    curSize += size;
+            final File cacheFile = infoFile.getCacheFile();
+            final File[] cacheDirFiles = cacheFile.getParentFile().listFiles();
+            if (!isNullOrEmpty(cacheDirFiles)) {
+                for (File file : cacheDirFiles) {
+                    if (!file.equals(cacheFile) && !isEntryMetadataFile(file) && file.lastModified() < modifiedBefore) {
+                        deleteAll(file);
+                    }
                 }
+            }
+        }
 
-                toDelete.forEach(idx::removeEntry);
-            });
+        if (!withoutInfoFile.isEmpty()) {
+            cacheIndex.runSynchronized(idx -> withoutInfoFile.stream()
+                    .filter(entry -> !getInfoFile(entry).exists())
+                    .filter(entry -> cacheDirFromEntryId(entry.getId()).lastModified() < modifiedBefore)
+                    .forEach(entry -> deleteFromCacheDir(idx, entry)));
+        }
 
-            // delete dirs with no entry in the least recently used index
-            final List<File> dirsWithNoEntryInTheIndex = entryIds.stream()
-                    .map(this::cacheDirFromEntryId)
-                    .collect(Collectors.toList());
+        // delete dirs with no entry in the least recently used index
+        final List<File> dirsWithNoEntryInTheIndex = entryIdsOnFileSystem.stream()
+                .map(this::cacheDirFromEntryId)
+                .filter(dir -> dir.lastModified() < modifiedBefore)
+                .collect(Collectors.toList());
+        if (!dirsWithNoEntryInTheIndex.isEmpty()) {
+            LOG.debug("Removing {} cache directories without entry in the index", dirsWithNoEntryInTheIndex.size());
             deleteAll(dirsWithNoEntryInTheIndex);
+        }
 
-            // delete empty level one dirs
-            final List<File> emptyDirs = Arrays.stream(levelOneDirs)
-                    .filter(dir -> isNullOrEmpty(dir.list()))
-                    .collect(Collectors.toList());
-            deleteAll(emptyDirs);
+        // delete empty level one dirs - deleting a directory which is not empty anymore fails
+        Arrays.stream(levelOneDirs)
+                .filter(dir -> !DOWNLOAD_DIR_NAME.equals(dir.getName()))
+                .filter(dir -> dir.lastModified() < modifiedBefore)
+                .filter(dir -> isNullOrEmpty(dir.list()))
+                .forEach(File::delete);
+    }
+
+    private boolean isEntryMetadataFile(File file) {
+        return file.getName().equals(CacheEntry.INFO_SUFFIX)
+                || file.getName().equals(CacheEntry.VERIFICATION_FILE_NAME)
+                || file.getName().equals(CacheEntry.ENTRY_LIST_FILE_NAME)
+                || file.getName().equals(CacheEntry.NATIVE_LIBRARY_DIR_NAME);
+    }
+
+    /**
+     * Returns the file in which the result of the signature verification of a cached file can be stored.
+     * The file is deleted together with the cache entry.
+     *
+     * @return the verification file or empty if the given file is not a file in the cache
+     */
+    Optional<File> getVerificationFile(File cacheFile) {
+        return getEntryMetadataFile(cacheFile, CacheEntry.VERIFICATION_FILE_NAME);
+    }
+
+    /**
+     * Returns the file in which the names of the entries of a cached jar can be stored.
+     * The file is deleted together with the cache entry.
+     *
+     * @return the entry list file or empty if the given file is not a file in the cache
+     */
+    Optional<File> getEntryListFile(File cacheFile) {
+        return getEntryMetadataFile(cacheFile, CacheEntry.ENTRY_LIST_FILE_NAME);
+    }
+
+    /**
+     * Returns the directory in which the native libraries of a cached jar can be extracted.
+     * The directory is deleted together with the cache entry.
+     *
+     * @return the native library directory or empty if the given file is not a file in the cache
+     */
+    Optional<File> getNativeLibraryDirectory(File cacheFile) {
+        return getEntryMetadataFile(cacheFile, CacheEntry.NATIVE_LIBRARY_DIR_NAME);
+    }
+
+    /**
+     * Records the size of a cache entry including the native libraries extracted from its cached jar,
+     * so the extracted libraries are taken into account when {@link #cleanCache()} evicts entries.
+     */
+    void recordNativeLibrarySize(File cacheFile, long nativeLibrarySize) {
+        final Optional<File> nativeLibraryDir = getNativeLibraryDirectory(cacheFile);
+        if (nativeLibraryDir.isPresent() && cacheFile.isFile()) {
+            final String entryId = entryIdFromCacheDir(nativeLibraryDir.get().getParentFile());
+            final long size = cacheFile.length() + nativeLibrarySize;
+            cacheIndex.runSynchronized(idx -> idx.setSize(entryId, size));
         }
     }
 
+    private Optional<File> getEntryMetadataFile(File cacheFile, String fileName) {
+        try {
+            final File entryDir = cacheFile.getCanonicalFile().getParentFile();
+            final File levelOneDir = entryDir != null ? entryDir.getParentFile() : null;
+            final File root = levelOneDir != null ? levelOneDir.getParentFile() : null;
+            if (root != null && root.equals(rootCacheDir.getFile().getCanonicalFile())) {
+                return Optional.of(new File(entryDir, fileName));
+            }
+        } catch (IOException e) {
+            LOG.debug("Cannot determine location of {} - {}", cacheFile, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
     private Set<String> collectAllEntryIdsFromFileSystem(File[] levelOneDirs) {
         final Set<String> entryIds = new HashSet<>();
         for (File levelOneDir : levelOneDirs) {
+            if (DOWNLOAD_DIR_NAME.equals(levelOneDir.getName())) {
+                continue;
+            }
             final File[] levelTwoDirs = levelOneDir.listFiles(File::isDirectory);
             if (levelTwoDirs != null) {
                 for (File levelTwoDir : levelTwoDirs) {
-                    final String entryId = entryIdFromCacheDir(levelTwoDir);
-                    if (new File(levelTwoDir, CacheEntry.INFO_SUFFIX).isFile()) {
-                        entryIds.add(entryId);
-                    }
+                    entryIds.add(entryIdFromCacheDir(levelTwoDir));
                 }
             }
         }
@@ -478,6 +703,25 @@ class LeastRecentlyUsedCache {
         }
     }
 
+    private static WriteBackPolicy getWriteBackPolicy() {
+        final String value = JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_CACHE_LAST_ACCESS_WRITE_BACK);
+        try {
+            return value != null ? WriteBackPolicy.valueOf(value) : WriteBackPolicy.PERIODIC;
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid value '{}' for {} - using {}", value, ConfigurationConstants.KEY_CACHE_LAST_ACCESS_WRITE_BACK, WriteBackPolicy.PERIODIC);
+            return WriteBackPolicy.PERIODIC;
+        }
+    }
+
+    private static long getWriteBackIntervalInSeconds() {
+        try {
+            final String value = JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_CACHE_LAST_ACCESS_WRITE_BACK_INTERVAL);
+            return Math.max(1, Long.parseLong(value));
+        } catch (NumberFormatException ignored) {
+            return 30;
+        }
+    }
+
     // Helpers
 
     private File getCacheFile(LeastRecentlyUsedCacheEntry entry) {
@@ -11,8 +11,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,6 +27,13 @@ import static java.lang.Boolean.TRUE;
  * <p>
  * This implementation uses a least recently accessed approach
  * to evict resources when the total size of the cache exceeds the limit.
+ * <p>
+ * Lookups are answered from an in memory map keyed by the resource href.
+ * All changes are applied to the properties file and are recorded as journal records
+ * which are written back to the file system by the {@link LeastRecentlyUsedCacheIndexHolder}.
+ * <p>
+ * If access updates are deferred, marking an entry as accessed only reorders the entries in memory.
+ * The new access timestamps are collected and written back by {@link #flushPendingAccesses()}.
  */
 class LeastRecentlyUsedCacheIndex {
 
@@ -33,15 +43,53 @@ class LeastRecentlyUsedCacheIndex {
     private static final String KEY_DELETE = "delete";
     static final String KEY_HREF = "href";
     private static final String KEY_VERSION = "version";
+    private static final String KEY_SIZE = "size";
+
+    /**
+     * Key of the property holding the next cache directory slot to try when allocating a new entry.
+     * Not an entry property even though it contains a dot.
+     */
+    static final String KEY_ALLOCATION_CURSOR = "allocation.cursor";
 
     private final PropertiesFile propertiesFile;
-    private final List<LeastRecentlyUsedCacheEntry> entries;
+    private final boolean deferAccessUpdates;
+
+    /**
+     * All entries in the order they were last touched - the most recently touched entry is last.
+     */
+    private final Map<String, LeastRecentlyUsedCacheEntry> entriesById = new LinkedHashMap<>();
+    private final Map<String, List<LeastRecentlyUsedCacheEntry>> entriesByHref = new HashMap<>();
+    private final Map<String, Long> pendingAccesses = new LinkedHashMap<>();
+    /**
+     * Size of the cached content of all entries which are not marked for deletion and whose size is known.
+     */
+    private final Map<String, Long> sizesById = new HashMap<>();
+    private final List<String> journalRecords = new ArrayList<>();
 
+    private long totalSize = 0;
     private boolean dirty = false;
+    private boolean compactionRequired = false;
 
     LeastRecentlyUsedCacheIndex(PropertiesFile propertiesFile, List<LeastRecentlyUsedCacheEntry> entries) {
+        this(propertiesFile, entries, false);
+    }
+
+    /**
+     * @param entries            the entries sorted from most recently used to least recently used
+     * @param deferAccessUpdates if true, accessing an entry does not modify the properties file
+     */
+    LeastRecentlyUsedCacheIndex(PropertiesFile propertiesFile, List<LeastRecentlyUsedCacheEntry> entries, boolean deferAccessUpdates) {
         this.propertiesFile = propertiesFile;
-        this.entries = entries;
+        this.deferAccessUpdates = deferAccessUpdates;
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            final LeastRecentlyUsedCacheEntry entry = entries.get(i);
+            entriesById.put(entry.getId(), entry);
+            addToLookup(entry);
+            if (!entry.isMarkedForDeletion()) {
+                parseSize(propertiesFile.getProperty(entry.getId() + '.' + KEY_SIZE))
+                        .ifPresent(size -> addSize(entry.getId(), size));
+            }
+        }
     }
 
     /**
@@ -50,9 +98,8 @@ class LeastRecentlyUsedCacheIndex {
      * @return the entry found or {@code empty}, never {@code null}.
      */
     Optional<LeastRecentlyUsedCacheEntry> find(URL resourceHref, VersionId version) {
-        return entries.stream()
-                .filter(e -> !e.isMarkedForDeletion())
-                .filter(e -> e.matches(resourceHref, version))
+        return lookup(resourceHref).stream()
+                .filter(e -> Objects.equals(version, e.getVersion()))
                 .findFirst();
     }
 
@@ -75,10 +122,7 @@ class LeastRecentlyUsedCacheIndex {
      * @return a set of all matching entries, never {@code null}.
      */
     Set<LeastRecentlyUsedCacheEntry> findAll(URL resourceHref) {
-        return entries.stream()
-                .filter(e -> !e.isMarkedForDeletion())
-                .filter(e -> e.matches(resourceHref))
-                .collect(Collectors.toSet());
+        return new HashSet<>(lookup(resourceHref));
     }
 
     /**
@@ -87,8 +131,7 @@ class LeastRecentlyUsedCacheIndex {
      * @return a set of all matching entries, never {@code null}.
      */
     Set<LeastRecentlyUsedCacheEntry> findAll(URL resourceHref, VersionString versionString) {
-        return entries.stream()
-                .filter(e -> !e.isMarkedForDeletion())
+        return lookup(resourceHref).stream()
                 .filter(e -> e.matches(resourceHref, versionString))
                 .collect(Collectors.toSet());
     }
@@ -97,16 +140,20 @@ class LeastRecentlyUsedCacheIndex {
      * @return all entries which are not marked for deletion
      */
     List<LeastRecentlyUsedCacheEntry> getAllUnDeletedEntries() {
-        return entries.stream()
+        return getAllEntries().stream()
                 .filter(e -> !e.isMarkedForDeletion())
                 .collect(Collectors.toList());
     }
 
     /**
-     * @return all entries
+     * @return all entries sorted from most recently used to least recently used
      */
     List<LeastRecentlyUsedCacheEntry> getAllEntries() {
-        return entries;
+        final List<LeastRecentlyUsedCacheEntry> result = new ArrayList<>(entriesById.values());
+        Collections.reverse(result);
+        // stable sort keeps the most recently touched entry first if the timestamps are equal
+        Collections.sort(result);
+        return result;
     }
 
     /**
@@ -117,14 +164,15 @@ class LeastRecentlyUsedCacheIndex {
     LeastRecentlyUsedCacheEntry createEntry(URL resourceHref, VersionId version, String entryId) {
         final long now = System.currentTimeMillis();
         final LeastRecentlyUsedCacheEntry newEntry = new LeastRecentlyUsedCacheEntry(entryId, now, resourceHref, version);
-        entries.add(0, newEntry);
-        propertiesFile.setProperty(entryId + '.' + KEY_HREF, resourceHref.toString());
+        entriesById.remove(entryId);
+        entriesById.put(entryId, newEntry);
+        addToLookup(newEntry);
+        setProperty(entryId + '.' + KEY_HREF, resourceHref.toString());
         if (version != null) {
-            propertiesFile.setProperty(entryId + '.' + KEY_VERSION, version.toString());
+            setProperty(entryId + '.' + KEY_VERSION, version.toString());
         }
-        propertiesFile.setProperty(entryId + '.' + KEY_LAST_ACCESSED, Long.toString(now));
+        setProperty(entryId + '.' + KEY_LAST_ACCESSED, Long.toString(now));
 
-        dirty = true;
         return newEntry;
     }
 
@@ -133,10 +181,11 @@ class LeastRecentlyUsedCacheIndex {
      */
     void markEntryForDeletion(URL resourceHref, VersionId version) {
         find(resourceHref, version).ifPresent(entry -> {
-            entries.remove(entry);
-            entries.add(new LeastRecentlyUsedCacheEntry(entry.getId(), entry.getResourceHref(), entry.getVersion()));
-            propertiesFile.setProperty(entry.getId() + '.' + KEY_DELETE, TRUE.toString());
-            dirty = true;
+            removeFromLookup(entry);
+            pendingAccesses.remove(entry.getId());
+            removeSize(entry.getId());
+            entriesById.put(entry.getId(), new LeastRecentlyUsedCacheEntry(entry.getId(), entry.getResourceHref(), entry.getVersion()));
+            setProperty(entry.getId() + '.' + KEY_DELETE, TRUE.toString());
         });
     }
 
@@ -151,35 +200,255 @@ class LeastRecentlyUsedCacheIndex {
      * Removes an entry from the index.
      */
     void removeEntry(LeastRecentlyUsedCacheEntry entry) {
-        entries.remove(entry);
-        propertiesFile.remove(entry.getId() + '.' + KEY_HREF);
-        propertiesFile.remove(entry.getId() + '.' + KEY_VERSION);
-        propertiesFile.remove(entry.getId() + '.' + KEY_DELETE);
-        propertiesFile.remove(entry.getId() + '.' + KEY_LAST_ACCESSED);
-        dirty = true;
+        entriesById.remove(entry.getId());
+        removeFromLookup(entry);
+        pendingAccesses.remove(entry.getId());
+        removeSize(entry.getId());
+        removeProperty(entry.getId() + '.' + KEY_HREF);
+        removeProperty(entry.getId() + '.' + KEY_VERSION);
+        removeProperty(entry.getId() + '.' + KEY_DELETE);
+        removeProperty(entry.getId() + '.' + KEY_LAST_ACCESSED);
+        removeProperty(entry.getId() + '.' + KEY_SIZE);
     }
 
     /**
      * Removes all entries.
      */
     void clear() {
-        entries.clear();
+        entriesById.clear();
+        entriesByHref.clear();
+        pendingAccesses.clear();
+        sizesById.clear();
+        totalSize = 0;
         propertiesFile.clear();
+        journalRecords.clear();
+        compactionRequired = true;
         dirty = true;
     }
 
+    /**
+     * Records the size of the cached content of an entry.
+     * Does nothing if the entry does not exist or is marked for deletion.
+     */
+    void setSize(String entryId, long size) {
+        final LeastRecentlyUsedCacheEntry entry = entriesById.get(entryId);
+        if (entry != null && !entry.isMarkedForDeletion()) {
+            removeSize(entryId);
+            addSize(entryId, size);
+            setProperty(entryId + '.' + KEY_SIZE, Long.toString(size));
+        }
+    }
+
+    /**
+     * @return the total size of the cached content of all entries which are not marked for deletion.
+     * Entries with unknown size are not included.
+     */
+    long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return all entries which are not marked for deletion and for which no size has been recorded
+     */
+    List<LeastRecentlyUsedCacheEntry> getEntriesWithUnknownSize() {
+        return entriesById.values().stream()
+                .filter(e -> !e.isMarkedForDeletion())
+                .filter(e -> !sizesById.containsKey(e.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return all entries which are marked for deletion
+     */
+    List<LeastRecentlyUsedCacheEntry> getEntriesMarkedForDeletion() {
+        return entriesById.values().stream()
+                .filter(LeastRecentlyUsedCacheEntry::isMarkedForDeletion)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the least recently used entries which have to be removed so the total size does not exceed the limit.
+     * Only as many entries as necessary are visited.
+     *
+     * @param maxSize the maximum total size, a negative value means unlimited
+     * @return the entries to evict, least recently used first
+     */
+    List<LeastRecentlyUsedCacheEntry> getEntriesToEvict(long maxSize) {
+        final List<LeastRecentlyUsedCacheEntry> result = new ArrayList<>();
+        if (maxSize < 0) {
+            return result;
+        }
+        long remainingSize = totalSize;
+        final Iterator<LeastRecentlyUsedCacheEntry> leastRecentlyUsedFirst = entriesById.values().iterator();
+        while (remainingSize > maxSize && leastRecentlyUsedFirst.hasNext()) {
+            final LeastRecentlyUsedCacheEntry entry = leastRecentlyUsedFirst.next();
+            if (!entry.isMarkedForDeletion()) {
+                result.add(entry);
+                remainingSize -= sizesById.getOrDefault(entry.getId(), 0L);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the slot from which the search for a free cache directory should start
+     */
+    int getAllocationCursor() {
+        try {
+            return Math.max(0, Integer.parseInt(propertiesFile.getProperty(KEY_ALLOCATION_CURSOR, "0")));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Stores the slot from which the search for the next free cache directory should start.
+     */
+    void setAllocationCursor(int slot) {
+        setProperty(KEY_ALLOCATION_CURSOR, Integer.toString(slot));
+    }
+
     boolean isDirty() {
         return dirty;
     }
 
+    /**
+     * @return true if the changes cannot be expressed as journal records and the whole index must be stored.
+     */
+    boolean isCompactionRequired() {
+        return compactionRequired;
+    }
+
+    /**
+     * @return the journal records of all changes since the index was last stored.
+     */
+    List<String> getJournalRecords() {
+        return Collections.unmodifiableList(journalRecords);
+    }
+
+    /**
+     * Called after the index has been written back to the file system.
+     */
+    void markStored() {
+        journalRecords.clear();
+        compactionRequired = false;
+        dirty = false;
+    }
+
+    /**
+     * @return true if there are accesses which have not yet been written to the properties file.
+     */
+    boolean hasPendingAccesses() {
+        return !pendingAccesses.isEmpty();
+    }
+
+    /**
+     * @return the access timestamps by entry id which have not yet been written to the properties file.
+     */
+    Map<String, Long> getPendingAccesses() {
+        return new LinkedHashMap<>(pendingAccesses);
+    }
+
+    /**
+     * Re-applies accesses which have been collected by a previous instance of the index.
+     * Accesses to entries which do not exist anymore or which have been accessed later on are ignored.
+     */
+    void restorePendingAccesses(Map<String, Long> accesses) {
+        accesses.forEach((id, timestamp) -> {
+            final LeastRecentlyUsedCacheEntry entry = entriesById.get(id);
+            if (entry != null && !entry.isMarkedForDeletion() && entry.getLastAccessed() < timestamp) {
+                markAccessed(entry, timestamp);
+            }
+        });
+    }
+
+    /**
+     * Writes the timestamps of all pending accesses to the properties file.
+     */
+    void flushPendingAccesses() {
+        pendingAccesses.forEach((id, timestamp) -> setProperty(id + '.' + KEY_LAST_ACCESSED, Long.toString(timestamp)));
+        pendingAccesses.clear();
+    }
+
     private void markAccessed(LeastRecentlyUsedCacheEntry entry) {
-        final long now = System.currentTimeMillis();
-        entries.remove(entry);
-        entries.add(0, new LeastRecentlyUsedCacheEntry(entry.getId(), now, entry.getResourceHref(), entry.getVersion()));
-        propertiesFile.setProperty(entry.getId() + '.' + KEY_LAST_ACCESSED, Long.toString(now));
+        markAccessed(entry, System.currentTimeMillis());
+    }
+
+    private void markAccessed(LeastRecentlyUsedCacheEntry entry, long timestamp) {
+        final LeastRecentlyUsedCacheEntry accessedEntry = new LeastRecentlyUsedCacheEntry(entry.getId(), timestamp, entry.getResourceHref(), entry.getVersion());
+        entriesById.remove(entry.getId());
+        entriesById.put(entry.getId(), accessedEntry);
+        removeFromLookup(entry);
+        addToLookup(accessedEntry);
+        if (deferAccessUpdates) {
+            pendingAccesses.put(entry.getId(), timestamp);
+        } else {
+            setProperty(entry.getId() + '.' + KEY_LAST_ACCESSED, Long.toString(timestamp));
+        }
+    }
+
+    private void addSize(String entryId, long size) {
+        sizesById.put(entryId, size);
+        totalSize += size;
+    }
+
+    private void removeSize(String entryId) {
+        final Long size = sizesById.remove(entryId);
+        if (size != null) {
+            totalSize -= size;
+        }
+    }
+
+    private static Optional<Long> parseSize(String value) {
+        try {
+            return value != null ? Optional.of(Long.parseLong(value)) : Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void setProperty(String key, String value) {
+        propertiesFile.setProperty(key, value);
+        journalRecords.add(LeastRecentlyUsedCacheJournal.setRecord(key, value));
         dirty = true;
     }
 
+    private void removeProperty(String key) {
+        if (propertiesFile.containsPropertyKey(key)) {
+            propertiesFile.remove(key);
+            journalRecords.add(LeastRecentlyUsedCacheJournal.removeRecord(key));
+            dirty = true;
+        }
+    }
+
+    private List<LeastRecentlyUsedCacheEntry> lookup(URL resourceHref) {
+        return entriesByHref.getOrDefault(hrefKey(resourceHref), Collections.emptyList());
+    }
+
+    private void addToLookup(LeastRecentlyUsedCacheEntry entry) {
+        if (!entry.isMarkedForDeletion()) {
+            entriesByHref.computeIfAbsent(hrefKey(entry.getResourceHref()), k -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    private void removeFromLookup(LeastRecentlyUsedCacheEntry entry) {
+        final String key = hrefKey(entry.getResourceHref());
+        final List<LeastRecentlyUsedCacheEntry> bucket = entriesByHref.get(key);
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                entriesByHref.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The string representation is used as key as {@link URL#hashCode()} may resolve the host.
+     */
+    private static String hrefKey(URL resourceHref) {
+        return resourceHref.toExternalForm();
+    }
+
     /**
      * check content of recentlyUsedPropertiesFile and remove invalid/corrupt entries
      *
@@ -194,6 +463,9 @@ class LeastRecentlyUsedCacheIndex {
         final Map<String, Map<String, String>> id2ValueMap = new HashMap<>();
         for (Map.Entry<String, String> propEntry : new HashSet<>(props.entrySet())) {
             final String key = propEntry.getKey();
+            if (KEY_ALLOCATION_CURSOR.equals(key)) {
+                continue;
+            }
             if (key != null) {
                 final String[] keyParts = splitKey(key);
                 if (keyParts.length == 2) {
@@ -237,6 +509,7 @@ class LeastRecentlyUsedCacheIndex {
                 props.remove(id + '.' + KEY_DELETE);
                 props.remove(id + '.' + KEY_HREF);
                 props.remove(id + '.' + KEY_VERSION);
+                props.remove(id + '.' + KEY_SIZE);
                 modified = true;
             }
         }
@@ -3,34 +3,72 @@ package net.adoptopenjdk.icedteaweb.resources.cache;
 import net.adoptopenjdk.icedteaweb.io.FileUtils;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.LeastRecentlyUsedCacheJournal.FileState;
+import net.adoptopenjdk.icedteaweb.resources.cache.LeastRecentlyUsedCacheJournal.JournalState;
 import net.sourceforge.jnlp.config.InfrastructureFileDescriptor;
 import net.sourceforge.jnlp.util.PropertiesFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 /**
  * Holder of the cached LeastRecentlyUsedCacheIndex data.
  * The responsibility of this class is to make sure that access to the content of the
  * LeastRecentlyUsedCacheIndex is synchronized and any changes are written back to the file system.
+ * <p>
+ * The index is kept in memory and is only reloaded if the index file or its journal have been changed
+ * by another process. Changes are appended to the {@link LeastRecentlyUsedCacheJournal} and the
+ * index file is only rewritten when the journal is compacted.
+ * <p>
+ * Depending on the {@link WriteBackPolicy} the last access timestamps of the entries are not written
+ * on every access but are collected in memory and written back together with the next change,
+ * periodically or when {@link #writePendingAccesses()} is called on exit.
  */
 class LeastRecentlyUsedCacheIndexHolder {
 
     private static final Logger LOG = LoggerFactory.getLogger(LeastRecentlyUsedCacheIndexHolder.class);
 
+    /**
+     * Number of journal records after which the journal is compacted into the index file.
+     */
+    private static final int MAX_JOURNAL_RECORDS = 1000;
+
     private static ReentrantLock lock = new ReentrantLock();
 
+    private static ScheduledExecutorService writeBackScheduler;
+
     private final InfrastructureFileDescriptor recentlyUsed;
+    private final WriteBackPolicy writeBackPolicy;
+    private final long writeBackIntervalInSeconds;
 
     private PropertiesFile cachedIndexPropertiesFile;
-    private List<LeastRecentlyUsedCacheEntry> cachedEntries;
+    private LeastRecentlyUsedCacheIndex cachedIndex;
+    private LeastRecentlyUsedCacheJournal journal;
+    private FileState loadedIndexState;
+    private JournalState loadedJournalState;
+    private int journalRecordCount;
+    private boolean journalOutdated;
+    private boolean reloadRequired;
+    private boolean writeBackScheduled;
 
     LeastRecentlyUsedCacheIndexHolder(InfrastructureFileDescriptor recentlyUsed) {
+        this(recentlyUsed, WriteBackPolicy.IMMEDIATE, 0);
+    }
+
+    LeastRecentlyUsedCacheIndexHolder(InfrastructureFileDescriptor recentlyUsed, WriteBackPolicy writeBackPolicy, long writeBackIntervalInSeconds) {
         this.recentlyUsed = recentlyUsed;
+        this.writeBackPolicy = writeBackPolicy;
+        this.writeBackIntervalInSeconds = writeBackIntervalInSeconds;
     }
 
     /**
@@ -56,9 +94,17 @@ class LeastRecentlyUsedCacheIndexHolder {
                 final LeastRecentlyUsedCacheIndex index = load(propertiesFile);
                 final T result = action.apply(index);
                 if (index.isDirty()) {
-                    store(propertiesFile);
+                    // piggyback the collected accesses on the write which is required anyway
+                    index.flushPendingAccesses();
+                    store(propertiesFile, index);
+                } else if (index.hasPendingAccesses()) {
+                    scheduleWriteBack();
                 }
                 return result;
+            } catch (RuntimeException e) {
+                // the in memory index may be inconsistent - force a reload on next access
+                reloadRequired = true;
+                throw e;
             } finally {
                 unlockPropertiesFile(propertiesFile);
             }
@@ -67,6 +113,70 @@ class LeastRecentlyUsedCacheIndexHolder {
         }
     }
 
+    /**
+     * Executes the function passed in action in a synchronized fashion to allow read access to the index.
+     * The index file is only locked shared, so other processes can read the index at the same time.
+     * The function must not modify the index.
+     *
+     * @return the result of the passed function.
+     */
+    <T> T getSynchronizedForReading(Function<LeastRecentlyUsedCacheIndex, T> action) {
+        lock.lock();
+        try {
+            final PropertiesFile propertiesFile = getCacheProperties();
+            propertiesFile.lockShared();
+            try {
+                final LeastRecentlyUsedCacheIndex index = load(propertiesFile);
+                final T result = action.apply(index);
+                if (index.isDirty()) {
+                    throw new IllegalStateException("The index must not be modified while holding the shared lock");
+                }
+                return result;
+            } catch (RuntimeException e) {
+                // the in memory index may be inconsistent - force a reload on next access
+                reloadRequired = true;
+                throw e;
+            } finally {
+                propertiesFile.unlockShared();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the collected last access timestamps to the file system.
+     */
+    void writePendingAccesses() {
+        lock.lock();
+        try {
+            writeBackScheduled = false;
+            if (cachedIndex != null && cachedIndex.hasPendingAccesses()) {
+                runSynchronized(LeastRecentlyUsedCacheIndex::flushPendingAccesses);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleWriteBack() {
+        if (writeBackPolicy == WriteBackPolicy.PERIODIC && !writeBackScheduled) {
+            writeBackScheduled = true;
+            getWriteBackScheduler().schedule(this::writePendingAccesses, writeBackIntervalInSeconds, SECONDS);
+        }
+    }
+
+    private static ScheduledExecutorService getWriteBackScheduler() {
+        if (writeBackScheduler == null) {
+            writeBackScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "itw-cache-index-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writeBackScheduler;
+    }
+
     /**
      * Lock the properties file to have exclusive access.
      */
@@ -84,28 +194,73 @@ class LeastRecentlyUsedCacheIndexHolder {
     }
 
     /**
-     * Loads the data from the properties file into an index.
+     * Returns the index held in memory.
+     * The data is reloaded from the properties file and the journal if any of them was changed since the last load.
      */
     private LeastRecentlyUsedCacheIndex load(PropertiesFile propertiesFile) {
-        if (propertiesFile.load()) {
-            final LeastRecentlyUsedCacheIndex.ConversionResult result = LeastRecentlyUsedCacheIndex.convertPropertiesToEntries(propertiesFile);
-            if (result.propertiesNeedToBeStored) {
-                LOG.warn("Cache is corrupt. Fixing...");
-                store(propertiesFile);
-                LOG.warn("Cache was corrupt and has been fixed. It is strongly recommended that you run ''javaws -Xclearcache'' and rerun your application as soon as possible. You can also use via itw-settings Cache -> View files -> Purge");
+        final FileState indexState = FileState.of(propertiesFile.getStoreFile());
+        final JournalState journalState = journal.getState();
+        if (cachedIndex != null && !reloadRequired && indexState.equals(loadedIndexState) && journalState.equals(loadedJournalState)) {
+            return cachedIndex;
+        }
+        final Map<String, Long> pendingAccesses = cachedIndex != null ? cachedIndex.getPendingAccesses() : Collections.emptyMap();
+
+        propertiesFile.forceLoad();
+        final int replayedRecords = journal.replay(propertiesFile, indexState);
+        journalOutdated = replayedRecords < 0;
+        journalRecordCount = Math.max(replayedRecords, 0);
+
+        final LeastRecentlyUsedCacheIndex.ConversionResult result = LeastRecentlyUsedCacheIndex.convertPropertiesToEntries(propertiesFile);
+        cachedIndex = new LeastRecentlyUsedCacheIndex(propertiesFile, result.entries, writeBackPolicy != WriteBackPolicy.IMMEDIATE);
+        cachedIndex.restorePendingAccesses(pendingAccesses);
+        loadedIndexState = indexState;
+        loadedJournalState = journalState;
+        reloadRequired = false;
+
+        if (result.propertiesNeedToBeStored) {
+            if (!propertiesFile.isHeldByCurrentThread()) {
+                // only the shared lock is held - fix it on the next exclusive access
+                reloadRequired = true;
+                return cachedIndex;
             }
+            LOG.warn("Cache is corrupt. Fixing...");
+            compact(propertiesFile);
+            LOG.warn("Cache was corrupt and has been fixed. It is strongly recommended that you run ''javaws -Xclearcache'' and rerun your application as soon as possible. You can also use via itw-settings Cache -> View files -> Purge");
+        }
+
+        return cachedIndex;
+    }
+
+    /**
+     * Write the changes to disk.
+     */
+    private void store(PropertiesFile propertiesFile, LeastRecentlyUsedCacheIndex index) {
+        if (!propertiesFile.isHeldByCurrentThread()) {
+            return;
+        }
 
-            cachedEntries = result.entries;
+        final List<String> records = index.getJournalRecords();
+        if (journalOutdated || index.isCompactionRequired() || journalRecordCount + records.size() > MAX_JOURNAL_RECORDS) {
+            compact(propertiesFile);
+        } else {
+            journal.append(records);
+            journalRecordCount += records.size();
+            loadedJournalState = journal.getState();
         }
-        return new LeastRecentlyUsedCacheIndex(propertiesFile, cachedEntries);
+        index.markStored();
     }
 
     /**
-     * Write file to disk.
+     * Write the complete index file to disk and reset the journal.
      */
-    private void store(PropertiesFile propertiesFile) {
+    private void compact(PropertiesFile propertiesFile) {
         if (propertiesFile.isHeldByCurrentThread()) {
             propertiesFile.store();
+            loadedIndexState = FileState.of(propertiesFile.getStoreFile());
+            journal.reset(loadedIndexState);
+            loadedJournalState = journal.getState();
+            journalRecordCount = 0;
+            journalOutdated = false;
         }
     }
 
@@ -126,6 +281,7 @@ class LeastRecentlyUsedCacheIndexHolder {
         if (cachedIndexPropertiesFile == null) {
             // no properties file yet, create it
             cachedIndexPropertiesFile = new PropertiesFile(recentlyUsedFile);
+            journal = new LeastRecentlyUsedCacheJournal(recentlyUsedFile);
             return cachedIndexPropertiesFile;
         }
 
@@ -139,8 +295,29 @@ class LeastRecentlyUsedCacheIndexHolder {
                 cachedIndexPropertiesFile.unlock();
             }
             cachedIndexPropertiesFile = new PropertiesFile(recentlyUsedFile);
+            journal = new LeastRecentlyUsedCacheJournal(recentlyUsedFile);
+            cachedIndex = null;
+            reloadRequired = false;
             return cachedIndexPropertiesFile;
         }
     }
 
+    /**
+     * Policy for writing the last access timestamps of the entries back to the file system.
+     * The names match the values of {@link net.sourceforge.jnlp.config.ConfigurationConstants#KEY_CACHE_LAST_ACCESS_WRITE_BACK}.
+     */
+    enum WriteBackPolicy {
+        /**
+         * every access is written immediately.
+         */
+        IMMEDIATE,
+        /**
+         * accesses are written together with the next change, after a configurable interval and on exit.
+         */
+        PERIODIC,
+        /**
+         * accesses are written together with the next change and on exit.
+         */
+        ON_EXIT
+    }
 }
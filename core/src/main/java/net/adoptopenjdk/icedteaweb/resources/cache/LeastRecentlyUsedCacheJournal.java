@@ -0,0 +1,278 @@
+package net.adoptopenjdk.icedteaweb.resources.cache;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.sourceforge.jnlp.util.PropertiesFile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Append only journal of the changes made to the least recently used cache index.
+ * <p>
+ * Instead of rewriting the whole index file on every change, the changes are appended to this journal.
+ * The journal is compacted by storing the whole index file and resetting the journal.
+ * <p>
+ * The first line of the journal holds the state of the index file the journal is based on and a unique token.
+ * If the index file does not have this state anymore the journal is considered outdated and is ignored.
+ * The token allows to detect a reset of the journal by another process.
+ * A record which was only partially written (e.g. because of a crash) is ignored as well.
+ * <p>
+ * This class is not thread safe. Access must be guarded by the lock on the index file.
+ */
+class LeastRecentlyUsedCacheJournal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeastRecentlyUsedCacheJournal.class);
+
+    static final String JOURNAL_SUFFIX = ".journal";
+
+    private static final String HEADER_PREFIX = "# base ";
+    private static final String SET = "S";
+    private static final String REMOVE = "R";
+    private static final char SEPARATOR = '\t';
+    private static final char NEW_LINE = '\n';
+
+    private final File file;
+
+    LeastRecentlyUsedCacheJournal(File indexFile) {
+        this.file = new File(indexFile.getParentFile(), indexFile.getName() + JOURNAL_SUFFIX);
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the current state of the journal. Cheap as only the header of the journal is read.
+     */
+    JournalState getState() {
+        return new JournalState(file.length(), readHeader());
+    }
+
+    /**
+     * Applies all records of the journal to the passed properties.
+     *
+     * @param indexState the state of the index file from which the properties have been loaded
+     * @return the number of applied records or {@code -1} if the journal is missing or outdated
+     */
+    int replay(PropertiesFile properties, FileState indexState) {
+        final List<String> lines = readCompleteLines();
+        if (lines.isEmpty() || !lines.get(0).startsWith(basePrefix(indexState))) {
+            if (!lines.isEmpty()) {
+                LOG.debug("Ignoring outdated cache index journal {}", file);
+            }
+            return -1;
+        }
+
+        int applied = 0;
+        for (String line : lines.subList(1, lines.size())) {
+            if (apply(properties, line)) {
+                applied++;
+            } else {
+                LOG.debug("found broken journal record: {}", line);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Appends the records to the journal.
+     */
+    void append(List<String> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        final StringBuilder content = new StringBuilder();
+        records.forEach(record -> content.append(record).append(NEW_LINE));
+        write(content.toString(), true);
+    }
+
+    /**
+     * Discards all records and bases the journal on the passed state of the index file.
+     */
+    void reset(FileState indexState) {
+        write(basePrefix(indexState) + UUID.randomUUID() + NEW_LINE, false);
+    }
+
+    static String setRecord(String key, String value) {
+        return SET + SEPARATOR + escape(key) + SEPARATOR + escape(value);
+    }
+
+    static String removeRecord(String key) {
+        return REMOVE + SEPARATOR + escape(key);
+    }
+
+    private boolean apply(PropertiesFile properties, String record) {
+        final String[] parts = record.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length == 3 && SET.equals(parts[0])) {
+            properties.setProperty(unescape(parts[1]), unescape(parts[2]));
+            return true;
+        }
+        if (parts.length == 2 && REMOVE.equals(parts[0])) {
+            properties.remove(unescape(parts[1]));
+            return true;
+        }
+        return false;
+    }
+
+    private List<String> readCompleteLines() {
+        if (!file.isFile()) {
+            return Collections.emptyList();
+        }
+        try {
+            final String content = new String(Files.readAllBytes(file.toPath()), UTF_8);
+            final int endOfLastCompleteLine = content.lastIndexOf(NEW_LINE);
+            if (endOfLastCompleteLine < 0) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(Arrays.asList(content.substring(0, endOfLastCompleteLine).split(String.valueOf(NEW_LINE))));
+        } catch (IOException e) {
+            LOG.error("Failed to read cache index journal " + file, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private void write(String content, boolean append) {
+        try (final FileOutputStream out = new FileOutputStream(file, append)) {
+            out.write(content.getBytes(UTF_8));
+            // fsync()
+            out.getChannel().force(true);
+        } catch (IOException e) {
+            LOG.error("Failed to write cache index journal " + file, e);
+        }
+    }
+
+    private String readHeader() {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (final BufferedReader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+            return reader.readLine();
+        } catch (IOException e) {
+            LOG.debug("Failed to read header of cache index journal {} - {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String basePrefix(FileState indexState) {
+        return HEADER_PREFIX + indexState.length + " " + indexState.lastModified + " ";
+    }
+
+    private static String escape(String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case SEPARATOR:
+                    result.append("\\t");
+                    break;
+                case NEW_LINE:
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                default:
+                    result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String unescape(String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                final char next = value.charAt(++i);
+                switch (next) {
+                    case 't':
+                        result.append(SEPARATOR);
+                        break;
+                    case 'n':
+                        result.append(NEW_LINE);
+                        break;
+                    case 'r':
+                        result.append('\r');
+                        break;
+                    default:
+                        result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Length and modification timestamp of a file.
+     * Used to detect changes made to a file by other processes.
+     */
+    static class FileState {
+        private final long length;
+        private final long lastModified;
+
+        private FileState(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        static FileState of(File file) {
+            return new FileState(file.length(), file.lastModified());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FileState fileState = (FileState) o;
+            return length == fileState.length && lastModified == fileState.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(length, lastModified);
+        }
+    }
+
+    /**
+     * Length and header of the journal.
+     * As the journal is append only any change by another process changes its length or its header.
+     */
+    static class JournalState {
+        private final long length;
+        private final String header;
+
+        private JournalState(long length, String header) {
+            this.length = length;
+            this.header = header;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            JournalState that = (JournalState) o;
+            return length == that.length && Objects.equals(header, that.header);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(length, header);
+        }
+    }
+}
@@ -28,6 +28,16 @@ public interface ResourceInfo {
      */
     long getLastModified();
 
+    /**
+     * @return the entity tag sent by the server along with the resource or {@code null} if there was none
+     */
+    String getETag();
+
+    /**
+     * @return the URL the cached content was downloaded from or {@code null} if it is not known
+     */
+    URL getDownloadUrl();
+
     /**
      * @return the last time the resource was downloaded (in Java millis)
      */
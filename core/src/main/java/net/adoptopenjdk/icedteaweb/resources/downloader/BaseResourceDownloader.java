@@ -4,10 +4,12 @@ import net.adoptopenjdk.icedteaweb.StreamUtils;
 import net.adoptopenjdk.icedteaweb.http.CloseableConnection;
 import net.adoptopenjdk.icedteaweb.http.ConnectionFactory;
 import net.adoptopenjdk.icedteaweb.http.HttpMethod;
+import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider;
+import net.adoptopenjdk.icedteaweb.resources.PrioritizedParallelExecutor;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
 import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
@@ -15,16 +17,24 @@ import net.sourceforge.jnlp.util.UrlUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,6 +42,7 @@ import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstant
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.CONTENT_ENCODING_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.CONTENT_TYPE_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.ERROR_MIME_TYPE;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.ETAG_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.INVALID_HTTP_RESPONSE;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.LAST_MODIFIED_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.PACK_200_OR_GZIP;
@@ -45,48 +56,78 @@ import static net.adoptopenjdk.icedteaweb.resources.Resource.Status.ERROR;
 abstract class BaseResourceDownloader implements ResourceDownloader {
     private static final Logger LOG = LoggerFactory.getLogger(BaseResourceDownloader.class);
 
+    private static final ExecutorService remoteExecutor = CachedDaemonThreadPoolProvider.getThreadPool();
+
     protected final Resource resource;
     private final List<URL> downloadUrls;
+    private final List<URL> fallbackUrls;
 
-    BaseResourceDownloader(final Resource resource, final List<URL> downloadUrls) {
+    BaseResourceDownloader(final Resource resource, final List<URL> downloadUrls, final List<URL> fallbackUrls) {
         this.resource = resource;
         this.downloadUrls = downloadUrls;
+        this.fallbackUrls = fallbackUrls;
     }
 
+    /**
+     * Downloads the resource from all candidate urls in parallel.
+     * Each candidate streams into its own temporary file.
+     * The candidates are prioritized by their order: the first candidate which completes successfully
+     * after all candidates before it have failed is moved into the cache. All other downloads are aborted.
+     * If none of the candidates succeeds the fallback urls are tried the same way.
+     * <p>
+     * If the resource is already cached the requests are conditional. A candidate answering with
+     * "304 Not Modified" completes the download with the cached file.
+     */
     @Override
     public Resource download() {
-        // TODO:
-        // would be nice if we could run the different urls in parallel.
-        // this would require to write content to temporary file and only on success move the file into the cache.
-        return downloadUrls.stream()
-                .map(this::downloadFrom)
-                .map(this::futureToOptional)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .findFirst()
-                .orElseGet(() -> {
-                    LOG.error("could not download resource {} from any of theses urls {}", resource, downloadUrls);
-                    resource.setStatus(ERROR);
-                    return resource;
-                });
-    }
-
-    private CompletableFuture<Resource> downloadFrom(final URL url) {
-        final CompletableFuture<Resource> result = new CompletableFuture<>();
-        CachedDaemonThreadPoolProvider.getThreadPool().execute(() -> {
-            try {
-                result.complete(tryDownloading(url));
-            } catch (Exception e) {
-                result.completeExceptionally(e);
+        final Map<String, String> conditionalRequestProperties = getConditionalRequestProperties();
+
+        Optional<Resource> downloaded = download(downloadUrls, conditionalRequestProperties);
+        if (!downloaded.isPresent() && !fallbackUrls.isEmpty()) {
+            LOG.debug("Could not download {} from {} - falling back to {}", resource, downloadUrls, fallbackUrls);
+            downloaded = download(fallbackUrls, conditionalRequestProperties);
+        }
+        if (downloaded.isPresent()) {
+            return downloaded.get();
+        }
+
+        final List<URL> allUrls = new ArrayList<>(downloadUrls);
+        allUrls.addAll(fallbackUrls);
+        LOG.error("could not download resource {} from any of theses urls {}", resource, allUrls);
+        resource.setStatus(ERROR);
+        return resource;
+    }
+
+    private Optional<Resource> download(final List<URL> candidateUrls, final Map<String, String> conditionalRequestProperties) {
+        if (candidateUrls.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final DownloadFiles downloadFiles = new DownloadFiles();
+        final List<Callable<DownloadedCandidate>> callables = candidateUrls.stream()
+                .map(url -> (Callable<DownloadedCandidate>) () -> tryDownloading(url, conditionalRequestProperties, downloadFiles))
+                .collect(Collectors.toList());
+
+        try {
+            final Future<DownloadedCandidate> best = new PrioritizedParallelExecutor(remoteExecutor).getSuccessfulResultWithHighestPriority(callables);
+            final Optional<DownloadedCandidate> downloaded = futureToOptional(best);
+            // no progress of aborted candidates must be published from now on
+            downloadFiles.close();
+            if (downloaded.isPresent()) {
+                return Optional.of(complete(downloaded.get()));
             }
-        });
-        return result;
+        } catch (IOException ex) {
+            LOG.debug("Exception while moving download of {} into the cache - {}", resource, ex.getMessage());
+        } finally {
+            downloadFiles.deleteAll();
+        }
+        return Optional.empty();
     }
 
-    private Resource tryDownloading(final URL downloadFrom) throws IOException {
+    private DownloadedCandidate tryDownloading(final URL downloadFrom, final Map<String, String> conditionalRequestProperties, final DownloadFiles downloadFiles) throws IOException {
         LOG.debug("Downloading {} from {}", resource, downloadFrom);
 
-        try (final CloseableConnection connection = getDownloadConnection(downloadFrom)) {
+        try (final CloseableConnection connection = getDownloadConnection(downloadFrom, conditionalRequestProperties)) {
             final DownloadDetails downloadDetails = getDownloadDetails(connection);
 
             if (downloadDetails.contentType != null && downloadDetails.contentType.startsWith(ERROR_MIME_TYPE)) {
@@ -94,46 +135,154 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
                 throw new RuntimeException("Server error: " + serverResponse);
             }
 
-            final long bytesTransferred = tryDownloading(downloadDetails);
-
-            resource.setStatus(DOWNLOADED);
-            resource.setTransferred(bytesTransferred);
-            return resource;
+            return tryDownloading(downloadFrom, downloadDetails, downloadFiles);
         } catch (Exception ex) {
             LOG.debug("Exception while downloading resource {} from {} - {}", resource, downloadFrom, ex.getMessage());
             throw ex;
         }
     }
 
-    private CloseableConnection getDownloadConnection(final URL location) throws IOException {
-        final Map<String, String> requestProperties = new HashMap<>();
+    private CloseableConnection getDownloadConnection(final URL location, final Map<String, String> conditionalRequestProperties) throws IOException {
+        final Map<String, String> requestProperties = new HashMap<>(conditionalRequestProperties);
         requestProperties.put(ACCEPT_ENCODING_HEADER, PACK_200_OR_GZIP);
         return ConnectionFactory.openConnection(location, HttpMethod.GET, requestProperties);
     }
 
-    private long tryDownloading(final DownloadDetails downloadDetails) throws IOException {
+    /**
+     * Returns the request properties which make the download conditional on the cached content.
+     * By default downloads are unconditional.
+     */
+    protected Map<String, String> getConditionalRequestProperties() {
+        return Collections.emptyMap();
+    }
+
+    private DownloadedCandidate tryDownloading(final URL candidateUrl, final DownloadDetails downloadDetails, final DownloadFiles downloadFiles) throws IOException {
         final URL resourceHref = resource.getLocation();
         final VersionId version = getVersion(downloadDetails.downloadFrom, downloadDetails.version);
 
+        if (downloadDetails.notModified) {
+            LOG.debug("{} was not modified on {}", resource, downloadDetails.downloadFrom);
+            if (!Cache.isCached(resourceHref, version)) {
+                throw new IOException("Cached content of " + resource + " is no longer available");
+            }
+            return DownloadedCandidate.fromCache(version);
+        }
+
         if (isUpToDate(resourceHref, version, downloadDetails.lastModified)) {
-            final File cacheFile = Cache.getCacheFile(resourceHref, version);
-            resource.setLocalFile(cacheFile);
-            return cacheFile.length();
-        } else {
-            final CountingInputStream countingInputStream = new CountingInputStream(downloadDetails.inputStream);
+            return DownloadedCandidate.fromCache(version);
+        }
+
+        final File downloadFile = Cache.createDownloadFile(resourceHref);
+        boolean registered = false;
+        try {
+            // unpackers buffer their output next to the download file, not on the heap
+            final File workDir = downloadFile.getParentFile();
+            final StreamUnpacker compressionUpacker = StreamUnpacker.getCompressionUnpacker(downloadDetails, workDir);
+            final StreamUnpacker contentUnpacker = StreamUnpacker.getContentUnpacker(downloadDetails, resourceHref, workDir);
+
+            final LongConsumer progressListener = read -> publishProgress(downloadFiles, downloadFile, read);
+            final long bytesTransferred;
+            if (compressionUpacker instanceof NotUnpacker && contentUnpacker instanceof NotUnpacker) {
+                // nothing to unpack - transfer the content directly into the file
+                try (final InputStream content = withProgress(getRawContent(downloadDetails), progressListener)) {
+                    bytesTransferred = IOUtils.transferToFile(content, downloadFile);
+                }
+            } else {
+                final CountingInputStream countingInputStream = new CountingInputStream(downloadDetails.inputStream, progressListener);
+                try (final InputStream unpackedStream = compressionUpacker.unpack(countingInputStream);
+                     final InputStream unpackedContent = contentUnpacker.unpack(unpackedStream)) {
+                    IOUtils.transferToFile(unpackedContent, downloadFile);
+                }
+                bytesTransferred = countingInputStream.numBytesRead();
+            }
+
+            registered = downloadFiles.register(downloadFile);
+            if (!registered) {
+                throw new InterruptedIOException("Download of " + resource + " from " + downloadDetails.downloadFrom + " is no longer needed");
+            }
+            final DownloadInfo downloadInfo = new DownloadInfo(resourceHref, version, downloadDetails.lastModified, downloadDetails.eTag, candidateUrl);
+            return DownloadedCandidate.fromDownload(version, downloadInfo, downloadFile, bytesTransferred);
+        } finally {
+            if (!registered) {
+                downloadFiles.releaseProgress(downloadFile);
+                if (downloadFile.exists() && !downloadFile.delete()) {
+                    LOG.debug("Could not delete temporary download file {}", downloadFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the bytes read as the transferred amount of the resource as long as no candidate
+     * has been chosen. Only the candidate which started streaming first publishes its progress,
+     * the counts of racing candidates would otherwise be mixed up.
+     */
+    private void publishProgress(final DownloadFiles downloadFiles, final File downloadFile, final long bytesRead) {
+        if (downloadFiles.isProgressPublishedBy(downloadFile)) {
+            resource.setTransferred(bytesRead);
+        }
+    }
 
-            final StreamUnpacker compressionUpacker = StreamUnpacker.getCompressionUnpacker(downloadDetails);
-            final InputStream unpackedStream = compressionUpacker.unpack(countingInputStream);
+    /**
+     * Local files are not wrapped so they keep being transferred through their channel.
+     * They are read fast enough to not need any progress updates.
+     */
+    private static InputStream withProgress(final InputStream content, final LongConsumer progressListener) {
+        if (content instanceof FileInputStream) {
+            return content;
+        }
+        return new CountingInputStream(content, progressListener);
+    }
 
-            final StreamUnpacker contentUnpacker = StreamUnpacker.getContentUnpacker(downloadDetails, resourceHref);
-            final InputStream unpackedContent = contentUnpacker.unpack(unpackedStream);
+    /**
+     * Moves the downloaded file into the cache.
+     */
+    protected File addToCache(final DownloadInfo downloadInfo, final File downloadFile) throws IOException {
+        return Cache.addToCache(downloadInfo, downloadFile);
+    }
 
-            final DownloadInfo downloadInfo = new DownloadInfo(resourceHref, version, downloadDetails.lastModified);
-            final File cacheFile = Cache.addToCache(downloadInfo, unpackedContent);
+    /**
+     * Completes the download with the chosen candidate.
+     * A downloaded file is moved into the cache, otherwise the cached file is used.
+     */
+    private Resource complete(final DownloadedCandidate candidate) throws IOException {
+        final File cacheFile;
+        final long bytesTransferred;
+        if (candidate.downloadFile != null) {
+            cacheFile = addToCache(candidate.downloadInfo, candidate.downloadFile);
+            bytesTransferred = candidate.bytesTransferred;
+        } else {
+            cacheFile = Cache.getCacheFile(resource.getLocation(), candidate.version);
+            bytesTransferred = cacheFile.length();
+            resource.setSize(bytesTransferred);
+        }
+        resource.setLocalFile(cacheFile);
+        resource.setStatus(DOWNLOADED);
+        resource.setTransferred(bytesTransferred);
+        return resource;
+    }
 
-            resource.setLocalFile(cacheFile);
-            return countingInputStream.numBytesRead();
+    /**
+     * Returns the content of the download.
+     * Resources from the local file system are read directly from the file so they can be transferred
+     * without copying them through the java heap.
+     * <p>
+     * The transfer of the content is aborted once the current thread is interrupted as this indicates
+     * that another download has already won the race. The interrupt is only noticed between reads,
+     * so a candidate waiting for a stalled server keeps its thread and connection until the read times out.
+     */
+    private InputStream getRawContent(final DownloadDetails downloadDetails) throws IOException {
+        if (UrlUtils.FILE_PROTOCOL.equals(downloadDetails.downloadFrom.getProtocol())) {
+            try {
+                final File file = new File(downloadDetails.downloadFrom.toURI());
+                if (file.isFile()) {
+                    return new FileInputStream(file);
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                LOG.debug("Cannot access {} as file - {}", downloadDetails.downloadFrom, e.getMessage());
+            }
         }
+        return downloadDetails.inputStream;
     }
 
     protected abstract VersionId getVersion(URL downloadFrom, final String versionHeaderValue);
@@ -149,13 +298,16 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
             final String version = connection.getHeaderField(VERSION_ID_HEADER);
             final String contentType = connection.getHeaderField(CONTENT_TYPE_HEADER);
             final String contentEncoding = connection.getHeaderField(CONTENT_ENCODING_HEADER);
+            final String eTag = connection.getHeaderField(ETAG_HEADER);
             final InputStream inputStream = connection.getInputStream();
 
-            if (! String.valueOf(connection.getResponseCode()).startsWith("2")) {
-                throw new IllegalStateException("Request returned " + connection.getResponseCode() + " for URL " + connection.getURL());
+            final int responseCode = connection.getResponseCode();
+            final boolean notModified = responseCode == HttpURLConnection.HTTP_NOT_MODIFIED;
+            if (!notModified && !String.valueOf(responseCode).startsWith("2")) {
+                throw new IllegalStateException("Request returned " + responseCode + " for URL " + connection.getURL());
             }
 
-            return new DownloadDetails(downloadFrom, inputStream, contentType, contentEncoding, version, lastModified);
+            return new DownloadDetails(downloadFrom, inputStream, contentType, contentEncoding, version, lastModified, eTag, notModified);
         } catch (IOException ex) {
             if (INVALID_HTTP_RESPONSE.equals(ex.getMessage())) {
                 LOG.warn(INVALID_HTTP_RESPONSE + " message detected. Attempting direct socket");
@@ -210,4 +362,86 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
         Cache.replaceExistingCacheFile(location, version);
     }
 
+    /**
+     * The outcome of a successful download from one of the candidate urls.
+     * Either the content has been downloaded into a temporary file or the cached file is still valid.
+     */
+    private static class DownloadedCandidate {
+        private final VersionId version;
+        private final DownloadInfo downloadInfo;
+        private final File downloadFile;
+        private final long bytesTransferred;
+
+        private DownloadedCandidate(final VersionId version, final DownloadInfo downloadInfo, final File downloadFile, final long bytesTransferred) {
+            this.version = version;
+            this.downloadInfo = downloadInfo;
+            this.downloadFile = downloadFile;
+            this.bytesTransferred = bytesTransferred;
+        }
+
+        static DownloadedCandidate fromCache(final VersionId version) {
+            return new DownloadedCandidate(version, null, null, 0);
+        }
+
+        static DownloadedCandidate fromDownload(final VersionId version, final DownloadInfo downloadInfo, final File downloadFile, final long bytesTransferred) {
+            return new DownloadedCandidate(version, downloadInfo, downloadFile, bytesTransferred);
+        }
+    }
+
+    /**
+     * Keeps track of the temporary files of all completed candidates and of the candidate publishing the progress.
+     * Once the download is finished no more files are accepted and all files which have not been moved into
+     * the cache are deleted.
+     */
+    private static class DownloadFiles {
+        private final List<File> files = new ArrayList<>();
+        private File progressPublisher;
+        private boolean closed;
+
+        synchronized boolean register(final File file) {
+            if (closed) {
+                return false;
+            }
+            files.add(file);
+            return true;
+        }
+
+        synchronized void close() {
+            closed = true;
+        }
+
+        /**
+         * @return whether the candidate downloading into the given file publishes the progress,
+         * the first candidate asking becomes the publisher
+         */
+        synchronized boolean isProgressPublishedBy(final File downloadFile) {
+            if (closed) {
+                return false;
+            }
+            if (progressPublisher == null) {
+                progressPublisher = downloadFile;
+            }
+            return progressPublisher == downloadFile;
+        }
+
+        /**
+         * Lets another candidate publish the progress if the given one failed.
+         */
+        synchronized void releaseProgress(final File downloadFile) {
+            if (progressPublisher == downloadFile) {
+                progressPublisher = null;
+            }
+        }
+
+        synchronized void deleteAll() {
+            closed = true;
+            for (final File file : files) {
+                if (file.exists() && !file.delete()) {
+                    LOG.debug("Could not delete temporary download file {}", file);
+                }
+            }
+            files.clear();
+        }
+    }
+
 }
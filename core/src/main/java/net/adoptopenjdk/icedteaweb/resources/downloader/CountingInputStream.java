@@ -5,16 +5,49 @@ import net.adoptopenjdk.icedteaweb.Assert;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
 
 /**
  * InputStream decorator which reads the number of bytes read.
+ * <p>
+ * The number of bytes read can be published to a listener while reading. To keep the overhead low the
+ * listener is called at most once per publish interval and once more when the end of the stream is reached.
  */
 class CountingInputStream extends FilterInputStream {
 
+    static final long PUBLISH_INTERVAL_MILLIS = 100;
+
+    private static final LongConsumer NO_LISTENER = count -> {
+    };
+
+    private final LongConsumer progressListener;
+    private final LongSupplier clock;
+    private final long publishIntervalNanos;
+
     private long count;
+    private long published;
+    private long lastPublishTime;
 
     CountingInputStream(InputStream delegate) {
+        this(delegate, NO_LISTENER);
+    }
+
+    /**
+     * @param delegate         the stream to read from
+     * @param progressListener called with the number of bytes read so far
+     */
+    CountingInputStream(InputStream delegate, LongConsumer progressListener) {
+        this(delegate, progressListener, PUBLISH_INTERVAL_MILLIS, System::nanoTime);
+    }
+
+    CountingInputStream(InputStream delegate, LongConsumer progressListener, long publishIntervalMillis, LongSupplier clock) {
         super(Assert.requireNonNull(delegate, "delegate"));
+        this.progressListener = Assert.requireNonNull(progressListener, "progressListener");
+        this.clock = clock;
+        this.publishIntervalNanos = TimeUnit.MILLISECONDS.toNanos(publishIntervalMillis);
+        this.lastPublishTime = clock.getAsLong();
     }
 
     /**
@@ -29,6 +62,9 @@ class CountingInputStream extends FilterInputStream {
         int result = in.read();
         if (result != -1) {
             count++;
+            publishThrottled();
+        } else {
+            publish();
         }
         return result;
     }
@@ -38,6 +74,9 @@ class CountingInputStream extends FilterInputStream {
         int result = in.read(b, off, len);
         if (result != -1) {
             count += result;
+            publishThrottled();
+        } else {
+            publish();
         }
         return result;
     }
@@ -46,6 +85,7 @@ class CountingInputStream extends FilterInputStream {
     public long skip(long n) throws IOException {
         long result = in.skip(n);
         count += result;
+        publishThrottled();
         return result;
     }
 
@@ -58,4 +98,22 @@ class CountingInputStream extends FilterInputStream {
     public synchronized void reset() throws IOException {
         throw new IOException("mark/reset not supported");
     }
+
+    private void publishThrottled() {
+        if (progressListener == NO_LISTENER) {
+            return;
+        }
+        final long now = clock.getAsLong();
+        if (now - lastPublishTime >= publishIntervalNanos) {
+            lastPublishTime = now;
+            publish();
+        }
+    }
+
+    private void publish() {
+        if (count != published) {
+            published = count;
+            progressListener.accept(count);
+        }
+    }
 }
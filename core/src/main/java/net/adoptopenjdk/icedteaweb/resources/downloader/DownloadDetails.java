@@ -13,13 +13,21 @@ class DownloadDetails {
     final String contentEncoding;
     final String version;
     final long lastModified;
+    final String eTag;
+    final boolean notModified;
 
     DownloadDetails(URL downloadFrom, InputStream inputStream, String contentType, String contentEncoding, String version, long lastModified) {
+        this(downloadFrom, inputStream, contentType, contentEncoding, version, lastModified, null, false);
+    }
+
+    DownloadDetails(URL downloadFrom, InputStream inputStream, String contentType, String contentEncoding, String version, long lastModified, String eTag, boolean notModified) {
         this.downloadFrom = downloadFrom;
         this.inputStream = inputStream;
         this.contentType = contentType;
         this.contentEncoding = contentEncoding;
         this.version = version;
         this.lastModified = lastModified;
+        this.eTag = eTag;
+        this.notModified = notModified;
     }
 }
@@ -20,8 +20,8 @@ class ExactVersionedResourceDownloader extends BaseResourceDownloader {
 
     private final VersionId versionId;
 
-    ExactVersionedResourceDownloader(Resource resource, List<URL> downloadUrls) {
-        super(resource, downloadUrls);
+    ExactVersionedResourceDownloader(Resource resource, List<URL> downloadUrls, List<URL> fallbackUrls) {
+        super(resource, downloadUrls, fallbackUrls);
         versionId = VersionString.fromString(resource.getRequestVersion().toString()).getExactVersion();
     }
 
@@ -16,20 +16,16 @@
 
 package net.adoptopenjdk.icedteaweb.resources.downloader;
 
-import net.adoptopenjdk.icedteaweb.io.IOUtils;
-
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.GZIPInputStream;
 
 /**
- * Unpacker for Gzip streams.
+ * Unpacker for Gzip streams. The content is inflated while it is read from the returned stream.
  */
 public class GzipUnpacker implements StreamUnpacker {
     @Override
     public InputStream unpack(InputStream input) throws IOException {
-        final byte[] content = IOUtils.readContent(new GZIPInputStream(input));
-        return new ByteArrayInputStream(content);
+        return new GZIPInputStream(input, INFLATER_BUFFER_SIZE);
     }
 }
@@ -6,31 +6,33 @@ import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.resources.jardiff.JarDiffMerger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.UUID;
-import java.util.jar.JarFile;
-import java.util.jar.JarOutputStream;
-
-import static net.sourceforge.jnlp.config.PathsAndFiles.TMP_DIR;
 
 /**
- * ...
+ * Merges a JarDiff with the cached version of the jar.
+ * The JarDiff and the merged jar are written into temporary files, the merged jar is deleted once the
+ * returned stream is closed.
  */
 class JarDiffUnpacker implements StreamUnpacker {
 
     private static final Logger LOG = LoggerFactory.getLogger(JarDiffUnpacker.class);
 
     private static final String JARDIFF_EXTENSION = ".jardiff";
+    private static final String MERGED_EXTENSION = ".merged";
 
     private final File cacheFile;
+    private final File workDir;
 
-    JarDiffUnpacker(final File cacheFile) {
+    /**
+     * @param cacheFile the cached version of the jar the JarDiff applies to
+     * @param workDir   the directory for the temporary files
+     */
+    JarDiffUnpacker(final File cacheFile, final File workDir) {
         this.cacheFile = Assert.requireNonNull(cacheFile, "cacheFile");
+        this.workDir = Assert.requireNonNull(workDir, "workDir");
     }
 
     @Override
@@ -39,21 +41,22 @@ class JarDiffUnpacker implements StreamUnpacker {
 
         LOG.info("Trying to merge JarDiff for '{}'", cacheFile.getName());
 
-        final JarFile originalJar = new JarFile(cacheFile);
-        final File diffJarFile = new File(TMP_DIR.getFile(), UUID.randomUUID().toString() + JARDIFF_EXTENSION);
-        try(final FileOutputStream outputStream = new FileOutputStream(diffJarFile)) {
-            IOUtils.copy(input, outputStream);
-            final JarFile diffJar = new JarFile(diffJarFile);
-            final ByteArrayOutputStream mergedJarContent = new ByteArrayOutputStream();
-            try(final JarOutputStream resultJarOutputStream = new JarOutputStream(mergedJarContent)) {
-                JarDiffMerger.merge(originalJar, diffJar, resultJarOutputStream);
+        final File diffJarFile = TempFileInputStream.createTempFile(workDir, "jardiff-", JARDIFF_EXTENSION);
+        final File mergedJarFile;
+        try {
+            try (final FileOutputStream outputStream = new FileOutputStream(diffJarFile)) {
+                IOUtils.copy(input, outputStream);
             }
-            return new ByteArrayInputStream(mergedJarContent.toByteArray());
-        } finally {
-            if(diffJarFile.exists() && !diffJarFile.delete()) {
-                LOG.debug("Temp file '{}' for JarDiff merge can not be deleted. Will try to delete it on exit", diffJarFile.getName());
-                diffJarFile.deleteOnExit();
+            mergedJarFile = TempFileInputStream.createTempFile(workDir, "jardiff-", MERGED_EXTENSION);
+            try {
+                JarDiffMerger.merge(cacheFile, diffJarFile, mergedJarFile);
+            } catch (IOException | RuntimeException e) {
+                TempFileInputStream.delete(mergedJarFile);
+                throw e;
             }
+        } finally {
+            TempFileInputStream.delete(diffJarFile);
         }
+        return TempFileInputStream.open(mergedJarFile);
     }
 }
@@ -16,8 +16,11 @@
 
 package net.adoptopenjdk.icedteaweb.resources.downloader;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import net.adoptopenjdk.icedteaweb.Assert;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.jar.JarOutputStream;
@@ -26,14 +29,33 @@ import java.util.zip.GZIPInputStream;
 
 /**
  * Unpacker for PACK200 and Gzip streams.
+ * The resulting jar is written into a temporary file which is deleted once the returned stream is closed,
+ * so unpacking needs the same amount of memory regardless of the size of the jar.
  */
 public class PackGzipUnpacker implements StreamUnpacker {
+
+    private static final String UNPACKED_EXTENSION = ".unpacked";
+
+    private final File workDir;
+
+    /**
+     * @param workDir the directory for the temporary file
+     */
+    public PackGzipUnpacker(final File workDir) {
+        this.workDir = Assert.requireNonNull(workDir, "workDir");
+    }
+
     @Override
     public InputStream unpack(InputStream input) throws IOException {
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        try (final JarOutputStream outputStream = new JarOutputStream(buffer)) {
-            Pack200.newUnpacker().unpack(new GZIPInputStream(input), outputStream);
+        final File unpackedJar = TempFileInputStream.createTempFile(workDir, "pack200-", UNPACKED_EXTENSION);
+        try {
+            try (final JarOutputStream outputStream = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(unpackedJar), INFLATER_BUFFER_SIZE))) {
+                Pack200.newUnpacker().unpack(new GZIPInputStream(input, INFLATER_BUFFER_SIZE), outputStream);
+            }
+        } catch (IOException | RuntimeException e) {
+            TempFileInputStream.delete(unpackedJar);
+            throw e;
         }
-        return new ByteArrayInputStream(buffer.toByteArray());
+        return TempFileInputStream.open(unpackedJar);
     }
 }
@@ -12,8 +12,8 @@ import java.util.List;
  */
 class RangeVersionedResourceDownloader extends BaseResourceDownloader {
 
-    RangeVersionedResourceDownloader(Resource resource, List<URL> downloadUrls) {
-        super(resource, downloadUrls);
+    RangeVersionedResourceDownloader(Resource resource, List<URL> downloadUrls, List<URL> fallbackUrls) {
+        super(resource, downloadUrls, fallbackUrls);
     }
 
     @Override
@@ -4,19 +4,27 @@ import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 
 import java.net.URL;
+import java.util.Collections;
 import java.util.List;
 
 public interface ResourceDownloader {
 
     static ResourceDownloader of(Resource resource, List<URL> downloadUrls) {
+        return of(resource, downloadUrls, Collections.emptyList());
+    }
+
+    /**
+     * @param fallbackUrls the urls to download from if the download from all of the download urls failed
+     */
+    static ResourceDownloader of(Resource resource, List<URL> downloadUrls, List<URL> fallbackUrls) {
         final VersionString version = resource.getRequestVersion();
         if (version == null) {
-            return new UnversionedResourceDownloader(resource, downloadUrls);
+            return new UnversionedResourceDownloader(resource, downloadUrls, fallbackUrls);
         }
         if (version.isExactVersion()) {
-            return new ExactVersionedResourceDownloader(resource, downloadUrls);
+            return new ExactVersionedResourceDownloader(resource, downloadUrls, fallbackUrls);
         } else {
-            return new RangeVersionedResourceDownloader(resource, downloadUrls);
+            return new RangeVersionedResourceDownloader(resource, downloadUrls, fallbackUrls);
         }
     }
 
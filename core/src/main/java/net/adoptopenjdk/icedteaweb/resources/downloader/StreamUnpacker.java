@@ -48,7 +48,16 @@ interface StreamUnpacker {
 
     String PACK_GZ_EXTENSION = ".pack.gz";
 
-    static StreamUnpacker getCompressionUnpacker(final DownloadDetails downloadDetails) {
+    /**
+     * Size of the buffers used when inflating compressed content.
+     */
+    int INFLATER_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param downloadDetails the details of the download
+     * @param workDir         the directory for temporary files of the unpacker
+     */
+    static StreamUnpacker getCompressionUnpacker(final DownloadDetails downloadDetails, final File workDir) {
         final URL downloadFrom = downloadDetails.downloadFrom;
         final String contentEncoding = downloadDetails.contentEncoding;
         final boolean packgz = PACK_200_GZIP_ENCODING.equals(contentEncoding) || downloadFrom.getPath().endsWith(PACK_GZ_EXTENSION);
@@ -60,7 +69,7 @@ interface StreamUnpacker {
         // treating a pack200 file as a jar file.
         if (packgz) {
             LOG.debug("Will use Pack200 for '{}'", downloadDetails.downloadFrom);
-            return new PackGzipUnpacker();
+            return new PackGzipUnpacker(workDir);
         } else if (gzip) {
             LOG.debug("Will use GZIP for '{}'", downloadDetails.downloadFrom);
             return new GzipUnpacker();
@@ -70,7 +79,12 @@ interface StreamUnpacker {
         return new NotUnpacker();
     }
 
-    static StreamUnpacker getContentUnpacker(final DownloadDetails downloadDetails, final URL resourceHref) {
+    /**
+     * @param downloadDetails the details of the download
+     * @param resourceHref    the location of the resource
+     * @param workDir         the directory for temporary files of the unpacker
+     */
+    static StreamUnpacker getContentUnpacker(final DownloadDetails downloadDetails, final URL resourceHref, final File workDir) {
         if (downloadDetails.contentType != null && downloadDetails.contentType.startsWith(JAR_DIFF_MIME_TYPE)) {
             final Map<String, String> querryParams = Optional.ofNullable(downloadDetails.downloadFrom.getQuery())
                     .map(query -> Stream.of(query.split(Pattern.quote("&"))))
@@ -83,7 +97,7 @@ interface StreamUnpacker {
 
             final File cacheFile = Cache.getCacheFile(resourceHref, currentVersionId);
             LOG.debug("Will use JarDiff for '{}'", resourceHref);
-            return new JarDiffUnpacker(cacheFile);
+            return new JarDiffUnpacker(cacheFile, workDir);
         }
 
         LOG.debug("Will use no content-unpacker for '{}'", resourceHref);
@@ -93,6 +107,8 @@ interface StreamUnpacker {
     /**
      * Unpacks the content of the input stream.
      * Provides a new input stream with the unpacked content.
+     * The unpacked content may be held in a temporary file which is deleted when the returned stream is closed,
+     * so the caller has to close it.
      *
      * @param input a compressed input stream
      * @return an unpacked input stream
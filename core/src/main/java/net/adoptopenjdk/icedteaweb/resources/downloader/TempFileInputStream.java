@@ -0,0 +1,61 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Reads a temporary file holding unpacked content and deletes the file once the stream is closed.
+ * Being a {@link FileInputStream} the content can be transferred into the cache without copying it
+ * through the java heap.
+ */
+class TempFileInputStream extends FileInputStream {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TempFileInputStream.class);
+
+    private final File file;
+
+    private TempFileInputStream(final File file) throws IOException {
+        super(file);
+        this.file = file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Creates an empty temporary file in the given directory.
+     */
+    static File createTempFile(final File directory, final String prefix, final String suffix) throws IOException {
+        return Files.createTempFile(directory.toPath(), prefix, suffix).toFile();
+    }
+
+    /**
+     * Opens the completely written temporary file. The file is deleted if it cannot be opened.
+     */
+    static TempFileInputStream open(final File file) throws IOException {
+        try {
+            return new TempFileInputStream(file);
+        } catch (IOException e) {
+            delete(file);
+            throw e;
+        }
+    }
+
+    static void delete(final File file) {
+        if (file.exists() && !file.delete()) {
+            LOG.debug("Temp file '{}' can not be deleted. Will try to delete it on exit", file.getName());
+            file.deleteOnExit();
+        }
+    }
+}
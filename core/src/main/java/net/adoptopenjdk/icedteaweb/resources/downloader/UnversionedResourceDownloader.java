@@ -1,18 +1,32 @@
 package net.adoptopenjdk.icedteaweb.resources.downloader;
 
+import net.adoptopenjdk.icedteaweb.http.HttpUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import static net.adoptopenjdk.icedteaweb.StringUtils.isBlank;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.IF_MODIFIED_SINCE_HEADER;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.IF_NONE_MATCH_HEADER;
 
 /**
  * ...
  */
 class UnversionedResourceDownloader extends BaseResourceDownloader {
-    UnversionedResourceDownloader(Resource resource, List<URL> downloadUrls) {
-        super(resource, downloadUrls);
+    UnversionedResourceDownloader(Resource resource, List<URL> downloadUrls, List<URL> fallbackUrls) {
+        super(resource, downloadUrls, fallbackUrls);
     }
 
     @Override
@@ -29,4 +43,40 @@ class UnversionedResourceDownloader extends BaseResourceDownloader {
         }
         return upToDate;
     }
+
+    /**
+     * Revalidates the cached content using the last modified date and the entity tag of the cached resource.
+     */
+    @Override
+    protected Map<String, String> getConditionalRequestProperties() {
+        final URL resourceHref = resource.getLocation();
+        if (resource.forceUpdateRequested() || !Cache.isCached(resourceHref, null)) {
+            return Collections.emptyMap();
+        }
+        final ResourceInfo info = Cache.getInfo(resourceHref, null);
+        if (info == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> requestProperties = new HashMap<>();
+        if (info.getLastModified() > 0) {
+            final Instant lastModified = Instant.ofEpochMilli(info.getLastModified());
+            requestProperties.put(IF_MODIFIED_SINCE_HEADER, HttpUtils.lastModifiedDate(lastModified.atZone(ZoneOffset.UTC)));
+        }
+        if (!isBlank(info.getETag())) {
+            requestProperties.put(IF_NONE_MATCH_HEADER, info.getETag());
+        }
+        return requestProperties;
+    }
+
+    /**
+     * A modified resource does not overwrite the cached file as it may still be in use by another process.
+     */
+    @Override
+    protected File addToCache(DownloadInfo downloadInfo, File downloadFile) throws IOException {
+        if (Cache.isCached(resource.getLocation(), null)) {
+            invalidateExistingEntryInCache(null);
+        }
+        return super.addToCache(downloadInfo, downloadFile);
+    }
 }
@@ -9,13 +9,19 @@ import java.util.List;
 public class InitializationResult {
 
     private final List<URL> urls;
+    private final List<URL> fallbackUrls;
 
     InitializationResult(List<URL> urls) {
-        this.urls = Collections.unmodifiableList(new ArrayList<>(urls));
+        this(urls, Collections.emptyList());
     }
 
     InitializationResult(URL... urls) {
-        this.urls = Collections.unmodifiableList(Arrays.asList(urls));
+        this(Arrays.asList(urls));
+    }
+
+    InitializationResult(List<URL> urls, List<URL> fallbackUrls) {
+        this.urls = Collections.unmodifiableList(new ArrayList<>(urls));
+        this.fallbackUrls = Collections.unmodifiableList(new ArrayList<>(fallbackUrls));
     }
 
     public boolean needsDownload() {
@@ -25,4 +31,11 @@ public class InitializationResult {
     public List<URL> getDownloadUrls() {
         return urls;
     }
+
+    /**
+     * @return the urls to download from if the download from all of the {@link #getDownloadUrls() download urls} failed
+     */
+    public List<URL> getFallbackUrls() {
+        return fallbackUrls;
+    }
 }
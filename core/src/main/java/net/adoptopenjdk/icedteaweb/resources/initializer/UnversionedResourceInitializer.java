@@ -9,7 +9,9 @@ import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import static java.util.Collections.singletonList;
 import static net.adoptopenjdk.icedteaweb.resources.initializer.ResourceUrlCreator.getUrl;
 
 /**
@@ -40,6 +42,15 @@ class UnversionedResourceInitializer extends BaseResourceInitializer {
     private InitializationResult checkForUpdate() {
         final List<URL> candidateUrls = getUrlCandidates();
         LOG.debug("Candidate URLs for {}: {}", resource, candidateUrls);
+        if (isCached && info != null && !resource.forceUpdateRequested()) {
+            // revalidated by a conditional download - no need for a separate HEAD request
+            final URL revalidationUrl = getRevalidationUrl(candidateUrls);
+            final List<URL> fallbackUrls = candidateUrls.stream()
+                    .filter(url -> url != revalidationUrl)
+                    .collect(Collectors.toList());
+            LOG.debug("Revalidating cached {} with conditional request to {}", resource, revalidationUrl);
+            return new InitializationResult(singletonList(revalidationUrl), fallbackUrls);
+        }
         return getBestUrlByPingingWithHeadRequest(candidateUrls)
                 .map(requestResult -> {
                     if (needsUpdate(requestResult)) {
@@ -56,6 +67,25 @@ class UnversionedResourceInitializer extends BaseResourceInitializer {
                 });
     }
 
+    /**
+     * Only a single conditional request is sent to revalidate a cached resource.
+     * The url the cached content was downloaded from is preferred over the best candidate.
+     * Urls are compared by their external form as {@link URL#equals(Object)} may resolve host names,
+     * the returned url is always one of the candidates.
+     */
+    private URL getRevalidationUrl(final List<URL> candidateUrls) {
+        final URL downloadUrl = info.getDownloadUrl();
+        if (downloadUrl != null) {
+            final String downloadLocation = downloadUrl.toExternalForm();
+            for (final URL candidateUrl : candidateUrls) {
+                if (candidateUrl.toExternalForm().equals(downloadLocation)) {
+                    return candidateUrl;
+                }
+            }
+        }
+        return candidateUrls.get(0);
+    }
+
     private List<URL> getUrlCandidates() {
         final List<URL> candidates = new ArrayList<>();
 
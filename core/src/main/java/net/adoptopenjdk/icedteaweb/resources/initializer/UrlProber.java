@@ -39,7 +39,6 @@ package net.adoptopenjdk.icedteaweb.resources.initializer;
 import net.adoptopenjdk.icedteaweb.http.CloseableConnection;
 import net.adoptopenjdk.icedteaweb.http.ConnectionFactory;
 import net.adoptopenjdk.icedteaweb.http.HttpMethod;
-import net.adoptopenjdk.icedteaweb.http.HttpUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
@@ -66,10 +65,6 @@ class UrlProber {
         try (final CloseableConnection connection = ConnectionFactory.openConnection(url, requestMethod, requestProperties)) {
             connection.setConnectTimeout(5000);
 
-            /* Fully consuming current request helps with connection re-use
-             * See http://docs.oracle.com/javase/1.5.0/docs/guide/net/http-keepalive.html */
-            HttpUtils.consumeAndCloseConnectionSilently(connection);
-
             LOG.debug("URL connection '{}' header fields: {}", url, connection.getHeaderFields());
 
             return new UrlRequestResult(
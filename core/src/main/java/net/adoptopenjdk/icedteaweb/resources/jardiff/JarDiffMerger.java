@@ -5,13 +5,17 @@ import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -23,6 +27,13 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 
+/**
+ * Applies a JarDiff to the jar it was created for.
+ * <p>
+ * Entries are looked up by name in hash sets, so building the merged jar is linear in the number of entries.
+ * {@link #merge(File, File, File)} copies the compressed data of all entries without inflating and deflating
+ * them again, see {@link RawZipFile} for the zip files it supports.
+ */
 public class JarDiffMerger {
 
     private static final Logger LOG = LoggerFactory.getLogger(JarDiffMerger.class);
@@ -38,6 +49,76 @@ public class JarDiffMerger {
 
     private static final String MOVE_KEYWORD = "move";
 
+    /**
+     * Merges the JarDiff into a copy of the old jar, copying the compressed data of the entries unchanged.
+     * Falls back to {@link #merge(JarFile, JarFile, JarOutputStream)} if the jars can not be copied raw.
+     *
+     * @param oldJar  the jar the JarDiff was created for
+     * @param jarDiff the JarDiff
+     * @param result  the file to write the merged jar to
+     * @throws IOException if the jars can not be read or the result can not be written
+     */
+    public static void merge(final File oldJar, final File jarDiff, final File result) throws IOException {
+        Assert.requireNonNull(oldJar, "oldJar");
+        Assert.requireNonNull(jarDiff, "jarDiff");
+        Assert.requireNonNull(result, "result");
+
+        try (final RawZipFile rawOldJar = RawZipFile.open(oldJar); final RawZipFile rawJarDiff = RawZipFile.open(jarDiff)) {
+            if (rawOldJar.isRawCopySupported() && rawJarDiff.isRawCopySupported()) {
+                LOG.debug("JarDiff merge for original jar '{}' and diff jar '{}' starts", oldJar, jarDiff);
+                final List<String> indexLines;
+                try (final JarFile jarDiffFile = new JarFile(jarDiff)) {
+                    indexLines = getIndexFileLines(jarDiffFile);
+                }
+                mergeRaw(rawOldJar, rawJarDiff, indexLines, result);
+                return;
+            }
+        }
+
+        LOG.debug("JarDiff: '{}' or '{}' can not be copied raw, entries will be recompressed", oldJar, jarDiff);
+        try (final JarFile oldJarFile = new JarFile(oldJar);
+             final JarFile jarDiffFile = new JarFile(jarDiff);
+             final JarOutputStream outputStream = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(result)))) {
+            merge(oldJarFile, jarDiffFile, outputStream);
+        }
+    }
+
+    private static void mergeRaw(final RawZipFile oldJar, final RawZipFile jarDiff, final List<String> indexLines, final File result)
+            throws IOException {
+        final Set<String> removedContent = getRemovedContent(indexLines);
+        final Set<MovedJar> movedContent = getMovedContent(indexLines);
+        final Set<String> newContent = new LinkedHashSet<>();
+        for (RawZipFile.Entry entry : jarDiff.getEntries()) {
+            if (!Objects.equals(entry.name, INDEX_FILE)) {
+                newContent.add(entry.name);
+            }
+        }
+        final Set<String> movedOldNames = getOldNames(movedContent);
+
+        try (final RawZipWriter writer = new RawZipWriter(result)) {
+            for (String name : newContent) {
+                LOG.debug("JarDiff: Adding new content '{}'", name);
+                writer.copy(jarDiff, jarDiff.getEntry(name), name);
+            }
+
+            for (MovedJar moved : movedContent) {
+                LOG.debug("JarDiff: Adding moved content '{}' -> '{}'", moved.getOldName(), moved.getNewName());
+                final RawZipFile.Entry oldEntry = oldJar.getEntry(moved.getOldName());
+                if (oldEntry == null) {
+                    throw new IllegalStateException("Error in jardiff merge. Moved entry '" + moved.getOldName() + "' can not be found in original jar");
+                }
+                writer.copy(oldJar, oldEntry, moved.getNewName());
+            }
+
+            for (RawZipFile.Entry entry : oldJar.getEntries()) {
+                if (isUnmodified(entry.name, newContent, removedContent, movedOldNames)) {
+                    writer.copy(oldJar, entry, entry.name);
+                }
+            }
+            writer.finish();
+        }
+    }
+
     public static void merge(final JarFile oldJar, final JarFile jarDiff, final JarOutputStream outputStream)
             throws IOException {
         Assert.requireNonNull(oldJar, "oldJar");
@@ -47,14 +128,15 @@ public class JarDiffMerger {
         LOG.debug("JarDiff merge for original jar '{}' and diff jar '{}' starts", oldJar.getName(), jarDiff.getName());
 
         try {
+            final List<String> indexLines = getIndexFileLines(jarDiff);
             final Set<JarEntry> newContent = getNewContent(jarDiff);
-            final Set<String> removedContent = getRemovedContent(jarDiff);
-            final Set<MovedJar> movedContent = getMovedContent(jarDiff);
-            final Set<JarEntry> unmodifiedContent = oldJar.stream()
-                    .filter(e -> !containsEntryWithSameName(newContent, e.getName()))
-                    .filter(e -> !removedContent.contains(e.getName()))
-                    .filter(e -> !containsOldName(movedContent, e.getName()))
-                    .collect(Collectors.toSet());
+            final Set<String> removedContent = getRemovedContent(indexLines);
+            final Set<MovedJar> movedContent = getMovedContent(indexLines);
+            final Set<String> newNames = newContent.stream().map(JarEntry::getName).collect(Collectors.toSet());
+            final Set<String> movedOldNames = getOldNames(movedContent);
+            final List<JarEntry> unmodifiedContent = oldJar.stream()
+                    .filter(e -> isUnmodified(e.getName(), newNames, removedContent, movedOldNames))
+                    .collect(Collectors.toList());
 
             newContent.forEach(e -> {
                 LOG.debug("JarDiff: Adding new content '{}'", e.getName());
@@ -93,25 +175,20 @@ public class JarDiffMerger {
         }
     }
 
-    private static boolean containsEntryWithSameName(final Collection<JarEntry> collection, final String name) {
-        Assert.requireNonNull(collection, "collection");
-        Assert.requireNonBlank(name, "name");
-
-        return collection.stream()
-                .anyMatch(e -> Objects.equals(name, e.getName()));
+    private static boolean isUnmodified(final String name, final Set<String> newNames, final Set<String> removedNames, final Set<String> movedOldNames) {
+        return !newNames.contains(name) && !removedNames.contains(name) && !movedOldNames.contains(name);
     }
 
-    private static boolean containsOldName(final Collection<MovedJar> collection, final String oldName) {
-        Assert.requireNonNull(collection, "collection");
-        Assert.requireNonBlank(oldName, "oldName");
-
-        return collection.stream()
-                .map(MovedJar::getOldName)
-                .anyMatch(n -> Objects.equals(n, oldName));
+    private static Set<String> getOldNames(final Set<MovedJar> movedContent) {
+        final Set<String> result = new HashSet<>();
+        for (MovedJar moved : movedContent) {
+            result.add(moved.getOldName());
+        }
+        return result;
     }
 
     private static Set<JarEntry> getNewContent(final JarFile jarDiff) {
-        return jarDiff.stream().filter(e -> !Objects.equals(e.getName(), INDEX_FILE)).collect(Collectors.toSet());
+        return jarDiff.stream().filter(e -> !Objects.equals(e.getName(), INDEX_FILE)).collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private static List<String> getIndexFileLines(final JarFile jarDiff) throws IOException {
@@ -131,16 +208,16 @@ public class JarDiffMerger {
         }
     }
 
-    private static Set<String> getRemovedContent(final JarFile jarDiff) throws IOException {
-        final Set<String> result = getIndexFileLines(jarDiff).stream()
+    private static Set<String> getRemovedContent(final List<String> indexLines) {
+        final Set<String> result = indexLines.stream()
                 .filter(l -> l.startsWith(REMOVE_KEYWORD))
                 .map(l -> l.substring(REMOVE_KEYWORD.length()).trim())
                 .collect(Collectors.toSet());
         return Collections.unmodifiableSet(result);
     }
 
-    private static Set<MovedJar> getMovedContent(final JarFile jarDiff) throws IOException {
-        final Set<MovedJar> result = getIndexFileLines(jarDiff).stream()
+    private static Set<MovedJar> getMovedContent(final List<String> indexLines) {
+        final Set<MovedJar> result = indexLines.stream()
                 .map(String::trim)
                 .filter(l -> l.startsWith(MOVE_KEYWORD))
                 .map(l -> l.substring(MOVE_KEYWORD.length()).trim())
@@ -156,7 +233,7 @@ public class JarDiffMerger {
 
                     return new MovedJar(first, second);
                 })
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
         return Collections.unmodifiableSet(result);
     }
 
@@ -0,0 +1,211 @@
+package net.adoptopenjdk.icedteaweb.resources.jardiff;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Read access to the compressed data of the entries of a zip file.
+ * <p>
+ * The entries are read from the central directory, their data is copied without inflating it.
+ * Zip64 files, encrypted entries and compression methods other than stored and deflated are not supported,
+ * for those {@link #isRawCopySupported()} returns false and the file has to be read with {@link java.util.zip.ZipFile}.
+ */
+final class RawZipFile implements Closeable {
+
+    static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    static final int LOCAL_HEADER_SIZE = 30;
+    static final int CENTRAL_HEADER_SIZE = 46;
+    static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int ENCRYPTED_FLAG = 0x1;
+
+    private final FileChannel channel;
+    private final Map<String, Entry> entries;
+
+    private RawZipFile(final FileChannel channel, final Map<String, Entry> entries) {
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    static RawZipFile open(final File file) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), READ);
+        try {
+            return new RawZipFile(channel, readCentralDirectory(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return false if the entries of the file can not be copied raw
+     */
+    boolean isRawCopySupported() {
+        return entries != null;
+    }
+
+    /**
+     * @return the entries in the order of the central directory
+     */
+    Collection<Entry> getEntries() {
+        return entries != null ? Collections.unmodifiableCollection(entries.values()) : Collections.emptyList();
+    }
+
+    Entry getEntry(final String name) {
+        return entries != null ? entries.get(name) : null;
+    }
+
+    /**
+     * Copies the compressed data of the entry to the target.
+     */
+    void transferData(final Entry entry, final WritableByteChannel target) throws IOException {
+        final ByteBuffer header = read(entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header of entry '" + entry.name + "'");
+        }
+        long position = entry.localHeaderOffset + LOCAL_HEADER_SIZE + unsignedShort(header, 26) + unsignedShort(header, 28);
+        long remaining = entry.compressedSize;
+        while (remaining > 0) {
+            final long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new ZipException("Unexpected end of data of entry '" + entry.name + "'");
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        return read(channel, position, length);
+    }
+
+    /**
+     * @return the entries by name or {@code null} if the file is not supported
+     */
+    private static Map<String, Entry> readCentralDirectory(final FileChannel channel) throws IOException {
+        final long fileSize = channel.size();
+        final int tailLength = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH);
+        final ByteBuffer tail = read(channel, fileSize - tailLength, tailLength);
+
+        int end = -1;
+        for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("End of central directory not found");
+        }
+        if (end >= ZIP64_LOCATOR_SIZE && tail.getInt(end - ZIP64_LOCATOR_SIZE) == ZIP64_LOCATOR_SIGNATURE) {
+            return null;
+        }
+
+        final int diskNumber = unsignedShort(tail, end + 4);
+        final int entryCount = unsignedShort(tail, end + 10);
+        final long directorySize = unsignedInt(tail, end + 12);
+        final long directoryOffset = unsignedInt(tail, end + 16);
+        if (diskNumber != 0 || directoryOffset + directorySize > fileSize - tailLength + end) {
+            return null;
+        }
+
+        final ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+        final Map<String, Entry> entries = new LinkedHashMap<>(entryCount * 2);
+        int position = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (position + CENTRAL_HEADER_SIZE > directorySize || directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory");
+            }
+            final int flags = unsignedShort(directory, position + 8);
+            final int method = unsignedShort(directory, position + 10);
+            final int nameLength = unsignedShort(directory, position + 28);
+            final int extraLength = unsignedShort(directory, position + 30);
+            final int commentLength = unsignedShort(directory, position + 32);
+            if ((flags & ENCRYPTED_FLAG) != 0 || (method != 0 && method != 8)) {
+                return null;
+            }
+
+            final byte[] name = new byte[nameLength];
+            directory.position(position + CENTRAL_HEADER_SIZE);
+            directory.get(name);
+            final Entry entry = new Entry(new String(name, UTF_8), flags, method,
+                    directory.getInt(position + 12),
+                    directory.getInt(position + 16),
+                    unsignedInt(directory, position + 20),
+                    unsignedInt(directory, position + 24),
+                    unsignedInt(directory, position + 42));
+            entries.put(entry.name, entry);
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private static ByteBuffer read(final FileChannel channel, final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ZipException("Unexpected end of zip file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int unsignedShort(final ByteBuffer buffer, final int index) {
+        return buffer.getShort(index) & 0xFFFF;
+    }
+
+    private static long unsignedInt(final ByteBuffer buffer, final int index) {
+        return buffer.getInt(index) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * An entry as described by the central directory.
+     */
+    static final class Entry {
+        final String name;
+        final int flags;
+        final int method;
+        /** DOS time in the lower and DOS date in the upper 16 bits */
+        final int dosTime;
+        final int crc;
+        final long compressedSize;
+        final long size;
+        final long localHeaderOffset;
+
+        Entry(final String name, final int flags, final int method, final int dosTime, final int crc,
+              final long compressedSize, final long size, final long localHeaderOffset) {
+            this.name = name;
+            this.flags = flags;
+            this.method = method;
+            this.dosTime = dosTime;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
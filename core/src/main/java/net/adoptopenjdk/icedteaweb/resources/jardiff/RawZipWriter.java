@@ -0,0 +1,142 @@
+package net.adoptopenjdk.icedteaweb.resources.jardiff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipFile.CENTRAL_HEADER_SIGNATURE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipFile.CENTRAL_HEADER_SIZE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipFile.END_OF_CENTRAL_DIRECTORY_SIGNATURE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipFile.END_OF_CENTRAL_DIRECTORY_SIZE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipFile.LOCAL_HEADER_SIGNATURE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipFile.LOCAL_HEADER_SIZE;
+
+/**
+ * Writes a zip file from entries of other zip files without inflating and deflating their data.
+ * The compressed data, CRC and sizes of the entries are kept, only the name may change.
+ */
+final class RawZipWriter implements Closeable {
+
+    private static final int VERSION_NEEDED = 20;
+    /** flags kept from the source: the deflate options */
+    private static final int KEPT_FLAGS = 0x6;
+    /** the name is encoded in UTF-8 */
+    private static final int UTF8_FLAG = 0x800;
+    private static final int MAX_ENTRIES = 0xFFFF;
+    private static final long MAX_OFFSET = 0xFFFFFFFFL;
+
+    private final FileChannel channel;
+    private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+    private final Set<String> names = new HashSet<>();
+    private boolean finished;
+
+    RawZipWriter(final File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), WRITE, CREATE, TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Copies an entry of the source under the given name.
+     */
+    void copy(final RawZipFile source, final RawZipFile.Entry entry, final String name) throws IOException {
+        if (!names.add(name)) {
+            throw new ZipException("duplicate entry: " + name);
+        }
+        final long offset = channel.position();
+        if (names.size() > MAX_ENTRIES || offset > MAX_OFFSET) {
+            throw new ZipException("Too many entries or too much data for a zip file without zip64 extensions");
+        }
+
+        final byte[] encodedName = name.getBytes(UTF_8);
+        final int flags = (entry.flags & KEPT_FLAGS) | UTF8_FLAG;
+
+        final ByteBuffer localHeader = newBuffer(LOCAL_HEADER_SIZE + encodedName.length);
+        localHeader.putInt(LOCAL_HEADER_SIGNATURE)
+                .putShort((short) VERSION_NEEDED)
+                .putShort((short) flags)
+                .putShort((short) entry.method)
+                .putInt(entry.dosTime)
+                .putInt(entry.crc)
+                .putInt((int) entry.compressedSize)
+                .putInt((int) entry.size)
+                .putShort((short) encodedName.length)
+                .putShort((short) 0)
+                .put(encodedName);
+        localHeader.flip();
+        write(localHeader);
+        source.transferData(entry, channel);
+        channel.position(offset + LOCAL_HEADER_SIZE + encodedName.length + entry.compressedSize);
+
+        final ByteBuffer centralHeader = newBuffer(CENTRAL_HEADER_SIZE + encodedName.length);
+        centralHeader.putInt(CENTRAL_HEADER_SIGNATURE)
+                .putShort((short) VERSION_NEEDED)
+                .putShort((short) VERSION_NEEDED)
+                .putShort((short) flags)
+                .putShort((short) entry.method)
+                .putInt(entry.dosTime)
+                .putInt(entry.crc)
+                .putInt((int) entry.compressedSize)
+                .putInt((int) entry.size)
+                .putShort((short) encodedName.length)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt((int) offset)
+                .put(encodedName);
+        centralDirectory.write(centralHeader.array(), 0, centralHeader.position());
+    }
+
+    /**
+     * Writes the central directory. No entries can be added afterwards.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        final long offset = channel.position();
+        if (offset > MAX_OFFSET) {
+            throw new ZipException("Too much data for a zip file without zip64 extensions");
+        }
+        write(ByteBuffer.wrap(centralDirectory.toByteArray()));
+
+        final ByteBuffer end = newBuffer(END_OF_CENTRAL_DIRECTORY_SIZE);
+        end.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) names.size())
+                .putShort((short) names.size())
+                .putInt(centralDirectory.size())
+                .putInt((int) offset)
+                .putShort((short) 0);
+        end.flip();
+        write(end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer newBuffer(final int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -26,6 +26,7 @@ import net.adoptopenjdk.icedteaweb.jnlp.element.extension.InstallerDesc;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.ResourceProgressListener;
 import net.adoptopenjdk.icedteaweb.resources.ResourceTracker;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
 import net.adoptopenjdk.icedteaweb.resources.cache.CacheFile;
@@ -260,33 +261,18 @@ public class CacheUtil {
 
             listener = getDownloadServiceListener(jnlpClassLoader, title, undownloaded, indicator);
 
-            do {
-                long read = 0;
-                long total = 0;
-
-                for (URL url : undownloaded) {
-                    // add in any -1's; they're insignificant
-                    total += tracker.getTotalSize(url);
-                    read += tracker.getAmountRead(url);
-                }
-
-                int percent = (int) ((100 * read) / Math.max(1, total));
-
-                for (URL url : undownloaded) {
-                    listener.progress(url, "version",
-                            tracker.getAmountRead(url),
-                            tracker.getTotalSize(url),
-                            percent);
-                }
-            } while (!tracker.waitForResources(resources, indicator.getUpdateRate(), MILLISECONDS));
+            // the downloading threads push their progress, this thread only waits for the downloads to finish
+            final DownloadProgressForwarder forwarder = new DownloadProgressForwarder(tracker, undownloaded, listener, indicator.getUpdateRate());
+            tracker.addProgressListener(undownloaded, forwarder);
+            try {
+                forwarder.update();
+                tracker.waitForResources(resources);
+            } finally {
+                tracker.removeProgressListener(undownloaded, forwarder);
+            }
 
             // make sure they read 100% until indicator closes
-            for (URL url : undownloaded) {
-                listener.progress(url, "version",
-                        tracker.getTotalSize(url),
-                        tracker.getTotalSize(url),
-                        100);
-            }
+            forwarder.complete();
         } catch (InterruptedException ex) {
             LOG.error("Downloading of resources was interrupted", ex);
         } finally {
@@ -322,4 +308,92 @@ public class CacheUtil {
 
         return indicator.getListener(title, undownloaded);
     }
+
+    /**
+     * Forwards the progress of downloading resources to a {@link DownloadServiceListener}.
+     * The listener is updated at most once per update rate and by one thread at a time. It is called without
+     * holding a lock, downloading threads skip their update instead of waiting for a slow listener.
+     */
+    private static final class DownloadProgressForwarder implements ResourceProgressListener {
+
+        private final ResourceTracker tracker;
+        private final URL[] urls;
+        private final DownloadServiceListener listener;
+        private final long updateRateNanos;
+
+        /* guarded by this */
+        private long lastUpdate;
+        private boolean notifying;
+        private boolean completed;
+
+        DownloadProgressForwarder(final ResourceTracker tracker, final URL[] urls, final DownloadServiceListener listener, final int updateRateMillis) {
+            this.tracker = tracker;
+            this.urls = urls;
+            this.listener = listener;
+            this.updateRateNanos = MILLISECONDS.toNanos(updateRateMillis);
+        }
+
+        @Override
+        public void progress(final URL location, final long transferred, final long size, final boolean complete) {
+            update(true);
+        }
+
+        void update() {
+            update(false);
+        }
+
+        private void update(final boolean throttled) {
+            final long now = System.nanoTime();
+            synchronized (this) {
+                if (notifying || completed || (throttled && now - lastUpdate < updateRateNanos)) {
+                    return;
+                }
+                lastUpdate = now;
+                notifying = true;
+            }
+            try {
+                long read = 0;
+                long total = 0;
+                for (URL url : urls) {
+                    // add in any -1's; they're insignificant
+                    total += tracker.getTotalSize(url);
+                    read += tracker.getAmountRead(url);
+                }
+                final int percent = (int) ((100 * read) / Math.max(1, total));
+
+                for (URL url : urls) {
+                    notifyListener(url, tracker.getAmountRead(url), tracker.getTotalSize(url), percent);
+                }
+            } finally {
+                synchronized (this) {
+                    notifying = false;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Reports all resources as complete once a running update has finished. No updates follow.
+         */
+        void complete() throws InterruptedException {
+            synchronized (this) {
+                completed = true;
+                while (notifying) {
+                    wait();
+                }
+            }
+            for (URL url : urls) {
+                notifyListener(url, tracker.getTotalSize(url), tracker.getTotalSize(url), 100);
+            }
+        }
+
+        private void notifyListener(final URL url, final long read, final long total, final int percent) {
+            try {
+                listener.progress(url, "version", read, total, percent);
+            } catch (RuntimeException e) {
+                // the listener may be provided by the application, it must not break the download
+                LOG.debug("Download progress listener failed", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,262 @@
+package net.sourceforge.jnlp.cache;
+
+import net.adoptopenjdk.icedteaweb.io.FileUtils;
+import net.adoptopenjdk.icedteaweb.io.IOUtils;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Persistent store of the native libraries contained in the jars in the cache.
+ * <p>
+ * The libraries of a jar are extracted once into the native library directory of its cache entry and are
+ * deleted together with the entry. They are stored in a sub directory named after the SHA-256 digest of their
+ * names and contents, so all libraries of a jar stay next to each other and a directory is never written again
+ * once it exists. An index in the native library directory records the state of the jar and the libraries
+ * found in it. As long as the jar has not changed, i.e. its size, modification time and file key are the same,
+ * the libraries are resolved from the index without opening the jar. Jars without native libraries are
+ * recorded as well, so they are not scanned again either.
+ */
+final class CachedNativeLibraries {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachedNativeLibraries.class);
+
+    private static final String FORMAT_VERSION = "1";
+    private static final String SEPARATOR = "\t";
+    private static final String INDEX_FILE_NAME = "index";
+    private static final String EXTRACT_DIR_PREFIX = "extract-";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private CachedNativeLibraries() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns the native libraries of a jar in the cache, extracting them if this has not been done before.
+     *
+     * @param jar the local copy of the jar
+     * @return the libraries by their file name or empty if the jar is not located in the cache
+     * or its libraries could not be extracted
+     */
+    static Optional<Map<String, File>> getLibraries(final File jar) {
+        final Optional<File> nativeLibraryDir = Cache.getNativeLibraryDirectory(jar);
+        if (!nativeLibraryDir.isPresent()) {
+            return Optional.empty();
+        }
+
+        final Optional<Map<String, File>> stored = load(jar, nativeLibraryDir.get());
+        if (stored.isPresent()) {
+            LOG.debug("Using {} stored native libraries of {}", stored.get().size(), jar);
+            return stored;
+        }
+
+        try {
+            return Optional.of(extract(jar, nativeLibraryDir.get()));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Could not store native libraries of {} - {}", jar, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Map<String, File>> load(final File jar, final File nativeLibraryDir) {
+        final File indexFile = new File(nativeLibraryDir, INDEX_FILE_NAME);
+        if (!indexFile.isFile()) {
+            return Optional.empty();
+        }
+
+        try (final BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), UTF_8)) {
+            if (!Objects.equals(reader.readLine(), header(jar))) {
+                return Optional.empty();
+            }
+            final String digest = reader.readLine();
+            if (digest == null) {
+                return Optional.empty();
+            }
+
+            final Map<String, File> libraries = new LinkedHashMap<>();
+            final File libraryDir = new File(nativeLibraryDir, digest);
+            String name;
+            while ((name = reader.readLine()) != null) {
+                final File library = new File(libraryDir, name);
+                if (!library.isFile()) {
+                    return Optional.empty();
+                }
+                libraries.put(name, library);
+            }
+            return Optional.of(libraries);
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Ignoring stored native libraries of {} - {}", jar, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Map<String, File> extract(final File jar, final File nativeLibraryDir) throws IOException {
+        if (!nativeLibraryDir.isDirectory()) {
+            try {
+                FileUtils.createRestrictedDirectory(nativeLibraryDir);
+            } catch (IOException e) {
+                // may have been created concurrently
+                if (!nativeLibraryDir.isDirectory()) {
+                    throw e;
+                }
+            }
+        }
+
+        final String header = header(jar);
+        final File extractDir = Files.createTempDirectory(nativeLibraryDir.toPath(), EXTRACT_DIR_PREFIX).toFile();
+        try {
+            final List<String> names = extractTo(jar, extractDir);
+            if (names.isEmpty()) {
+                writeIndex(nativeLibraryDir, header, "", names);
+                return Collections.emptyMap();
+            }
+
+            final String digest = digest(extractDir, names);
+            final File libraryDir = new File(nativeLibraryDir, digest);
+            if (!libraryDir.isDirectory()) {
+                try {
+                    Files.move(extractDir.toPath(), libraryDir.toPath(), ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                    // extracted by another process in the meantime
+                }
+            }
+
+            final Map<String, File> libraries = new LinkedHashMap<>();
+            long size = 0;
+            for (String name : names) {
+                final File library = new File(libraryDir, name);
+                libraries.put(name, library);
+                size += library.length();
+            }
+            writeIndex(nativeLibraryDir, header, digest, names);
+            Cache.recordNativeLibrarySize(jar, size);
+            LOG.debug("Stored {} native libraries of {} in {}", names.size(), jar, libraryDir);
+            return libraries;
+        } finally {
+            if (extractDir.exists()) {
+                FileUtils.recursiveDelete(extractDir, extractDir);
+            }
+        }
+    }
+
+    /**
+     * Extracts the native libraries of the jar into the given directory.
+     * A library which is contained more than once is overwritten, so the last one wins.
+     *
+     * @return the file names of the extracted libraries
+     */
+    private static List<String> extractTo(final File jar, final File directory) throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (final JarFile jarFile = new JarFile(jar, false)) {
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !NativeLibraryStorage.isNativeLibrary(entry.getName())) {
+                    continue;
+                }
+
+                final String name = new File(entry.getName()).getName();
+                final File outFile = new File(directory, name);
+                if (!outFile.isFile()) {
+                    FileUtils.createRestrictedFile(outFile);
+                    names.add(name);
+                }
+                try (final InputStream in = jarFile.getInputStream(entry);
+                     final FileOutputStream out = new FileOutputStream(outFile)) {
+                    IOUtils.copy(in, out, 4096);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String digest(final File directory, final List<String> names) throws IOException {
+        final MessageDigest digest = newDigest();
+        final byte[] buffer = new byte[8192];
+        for (String name : new TreeSet<>(names)) {
+            digest.update(name.getBytes(UTF_8));
+            digest.update((byte) 0);
+            try (final InputStream in = Files.newInputStream(new File(directory, name).toPath())) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void writeIndex(final File nativeLibraryDir, final String header, final String digest, final List<String> names) throws IOException {
+        final Path target = new File(nativeLibraryDir, INDEX_FILE_NAME).toPath();
+        final Path tmp = Files.createTempFile(nativeLibraryDir.toPath(), INDEX_FILE_NAME, ".tmp");
+        try {
+            try (final BufferedWriter writer = Files.newBufferedWriter(tmp, UTF_8)) {
+                writer.write(header);
+                writer.newLine();
+                writer.write(digest);
+                for (String name : names) {
+                    writer.newLine();
+                    writer.write(name);
+                }
+            }
+            try {
+                Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String header(final File jar) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+        return String.join(SEPARATOR, FORMAT_VERSION,
+                Long.toString(attributes.size()),
+                Long.toString(attributes.lastModifiedTime().toMillis()),
+                String.valueOf(attributes.fileKey()));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+}
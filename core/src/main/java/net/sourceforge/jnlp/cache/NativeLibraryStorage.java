@@ -12,15 +12,20 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 /**
  * Handles loading and access of native code loading through a JNLP application or applet.
- * Stores native code in a temporary folder.
+ * Native code of jars in the cache is extracted once into the cache entry of the jar, see {@link CachedNativeLibraries}.
+ * Native code of other jars is stored in a temporary folder.
  * Be sure to call {@link #cleanupTemporaryFolder()}  when finished with the object.
  */
 public class NativeLibraryStorage {
@@ -33,6 +38,11 @@ public class NativeLibraryStorage {
     private final ResourceTracker tracker;
     private final List<File> nativeSearchDirectories = new ArrayList<>();
 
+    /**
+     * Native libraries of jars in the cache by their file name
+     */
+    private final Map<String, File> libraries = new ConcurrentHashMap<>();
+
     /**
      * Temporary directory to store native jar entries, added to our search path
      */
@@ -76,13 +86,34 @@ public class NativeLibraryStorage {
     }
 
     /**
-     * Looks in the search directories for 'fileName',
+     * @return the native libraries of the jars in the cache by their file name
+     */
+    public Map<String, File> getLibraries() {
+        return Collections.unmodifiableMap(libraries);
+    }
+
+    /**
+     * Adds native libraries to this {@link NativeLibraryStorage}.
+     * Libraries already known by their file name are not replaced.
+     *
+     * @param otherLibraries libraries by their file name
+     */
+    public void addLibraries(final Map<String, File> otherLibraries) {
+        otherLibraries.forEach(libraries::putIfAbsent);
+    }
+
+    /**
+     * Looks in the libraries of the jars in the cache and then in the search directories for 'fileName',
      * returning a path to the found file if it exists.
      *
      * @param fileName name of library to be found
      * @return path to library if found, null otherwise.
      */
     public File findLibrary(final String fileName) {
+        final File library = libraries.get(fileName);
+        if (library != null) {
+            return library;
+        }
         for (final File dir : getSearchDirectories()) {
             final File target = new File(dir, fileName);
             if (target.exists()) {
@@ -94,7 +125,8 @@ public class NativeLibraryStorage {
 
     /**
      * Search for and enable any native code contained in a JAR by copying the
-     * native files into the filesystem. Called in the security context of the
+     * native files into the filesystem. The native files of a jar in the cache
+     * are only copied once. Called in the security context of the
      * classloader.
      *
      * @param jarLocation location of jar to be searched
@@ -106,6 +138,12 @@ public class NativeLibraryStorage {
             return;
         }
 
+        final Optional<Map<String, File>> stored = CachedNativeLibraries.getLibraries(localFile);
+        if (stored.isPresent()) {
+            libraries.putAll(stored.get());
+            return;
+        }
+
         try {
             try (JarFile jarFile = new JarFile(localFile, false)) {
                 final Enumeration<JarEntry> entries = jarFile.entries();
@@ -118,16 +156,8 @@ public class NativeLibraryStorage {
                     }
 
                     final String name = new File(e.getName()).getName();
-                    boolean isLibrary = false;
-
-                    for (final String suffix : NATIVE_LIBRARY_EXTENSIONS) {
-                        if (name.endsWith(suffix)) {
-                            isLibrary = true;
-                            break;
-                        }
-                    }
 
-                    if (isLibrary) {
+                    if (isNativeLibrary(name)) {
                         final File outFile = new File(getNativeStoreDirectory(), name);
                         if (!outFile.isFile()) {
                             FileUtils.createRestrictedFile(outFile);
@@ -143,6 +173,18 @@ public class NativeLibraryStorage {
         }
     }
 
+    /**
+     * @return {@code true} if the name has the extension of a native library
+     */
+    static boolean isNativeLibrary(final String name) {
+        for (final String suffix : NATIVE_LIBRARY_EXTENSIONS) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     File getNativeStoreDirectory() {
         if (jarEntryDirectory == null) {
             jarEntryDirectory = createNativeStoreDirectory();
@@ -60,6 +60,34 @@ public interface ConfigurationConstants {
 
     String KEY_CACHE_COMPRESSION_ENABLED = "deployment.cache.jarcompression";
 
+    /**
+     * Policy for writing the last access timestamps of cached resources back to the cache index.
+     */
+    String KEY_CACHE_LAST_ACCESS_WRITE_BACK = "deployment.cache.lastaccess.writeback";
+
+    /**
+     * when set as value of KEY_CACHE_LAST_ACCESS_WRITE_BACK = "deployment.cache.lastaccess.writeback",
+     * then every access is written to the cache index immediately
+     */
+    String CACHE_LAST_ACCESS_WRITE_BACK_IMMEDIATE = "IMMEDIATE";
+
+    /**
+     * when set as value of KEY_CACHE_LAST_ACCESS_WRITE_BACK = "deployment.cache.lastaccess.writeback",
+     * then accesses are collected and written to the cache index periodically and on exit
+     */
+    String CACHE_LAST_ACCESS_WRITE_BACK_PERIODIC = "PERIODIC";
+
+    /**
+     * when set as value of KEY_CACHE_LAST_ACCESS_WRITE_BACK = "deployment.cache.lastaccess.writeback",
+     * then accesses are collected and written to the cache index on exit
+     */
+    String CACHE_LAST_ACCESS_WRITE_BACK_ON_EXIT = "ON_EXIT";
+
+    /**
+     * Interval in seconds in which collected last access timestamps are written to the cache index.
+     */
+    String KEY_CACHE_LAST_ACCESS_WRITE_BACK_INTERVAL = "deployment.cache.lastaccess.writeback.interval";
+
     String KEY_USER_LOG_DIR = "deployment.user.logdir";
 
     String KEY_USER_TMP_DIR = "deployment.user.tmp";
@@ -142,6 +170,17 @@ public interface ConfigurationConstants {
      */
     String KEY_HTTPS_DONT_ENFORCE = "deployment.https.noenforce";
 
+    /**
+     * Integer. Maximum number of connections open to a single host at the same time
+     */
+    String KEY_HTTP_MAX_CONNECTIONS_PER_HOST = "deployment.http.connections.max.per.host";
+
+    /**
+     * Integer. Time in seconds an idle connection is kept alive for reuse.
+     * Requires Java 11 or later, Java 8 keeps idle connections for the time announced by the server or five seconds.
+     */
+    String KEY_HTTP_CONNECTION_IDLE_TIMEOUT = "deployment.http.connections.idle.timeout";
+
     /**
      * the proxy type. possible values are {@code JNLPProxySelector.PROXY_TYPE_*}
      */
@@ -154,10 +193,40 @@ public interface ConfigurationConstants {
 
     String KEY_PROXY_AUTO_CONFIG_URL = "deployment.proxy.auto.config.url";
 
+    /**
+     * Integer. Maximum number of hosts for which the result of the proxy auto config file is cached, 0 disables the cache
+     */
+    String KEY_PROXY_AUTO_CONFIG_CACHE_SIZE = "deployment.proxy.auto.config.cache.size";
+
+    /**
+     * Integer. Time in seconds the cached result of the proxy auto config file is kept after its last use
+     */
+    String KEY_PROXY_AUTO_CONFIG_CACHE_TIMEOUT = "deployment.proxy.auto.config.cache.timeout";
+
+    /**
+     * Integer. Time in seconds a host name resolved by the proxy auto config file is cached, 0 disables the cache
+     */
+    String KEY_PROXY_AUTO_CONFIG_DNS_CACHE_TTL = "deployment.proxy.auto.config.dns.cache.ttl";
+
+    /**
+     * Integer. Time in seconds a host name which the proxy auto config file could not resolve is remembered, 0 disables negative caching
+     */
+    String KEY_PROXY_AUTO_CONFIG_DNS_CACHE_NEGATIVE_TTL = "deployment.proxy.auto.config.dns.cache.negative.ttl";
+
     String KEY_PROXY_BYPASS_LIST = "deployment.proxy.bypass.list";
 
     String KEY_PROXY_BYPASS_LOCAL = "deployment.proxy.bypass.local";
 
+    /**
+     * Integer. Time in seconds the proxies selected for a host are cached, 0 disables the cache
+     */
+    String KEY_PROXY_CACHE_TIMEOUT = "deployment.proxy.cache.timeout";
+
+    /**
+     * Boolean. If true, a proxy which could not be connected to is tried last for a while
+     */
+    String KEY_PROXY_DEMOTE_FAILED = "deployment.proxy.demote.failed";
+
     String KEY_PROXY_HTTP_HOST = "deployment.proxy.http.host";
 
     String KEY_PROXY_HTTP_PORT = "deployment.proxy.http.port";
@@ -193,6 +262,23 @@ public interface ConfigurationConstants {
 
     String KEY_ENABLE_LOGGING_TOSYSTEMLOG = "deployment.log.system";
 
+    /**
+     * What to do with a message if the buffer of messages waiting to be written is full.
+     */
+    String KEY_LOG_BUFFER_OVERFLOW = "deployment.log.buffer.overflow";
+
+    /**
+     * when set as value of KEY_LOG_BUFFER_OVERFLOW = "deployment.log.buffer.overflow",
+     * then the logging thread waits until the message can be buffered
+     */
+    String LOG_BUFFER_OVERFLOW_BLOCK = "BLOCK";
+
+    /**
+     * when set as value of KEY_LOG_BUFFER_OVERFLOW = "deployment.log.buffer.overflow",
+     * then debug messages are dropped and all other messages wait until they can be buffered
+     */
+    String LOG_BUFFER_OVERFLOW_DROP_DEBUG = "DROP_DEBUG";
+
     /*
      * manifest check
      */
@@ -40,9 +40,13 @@ package net.sourceforge.jnlp.config;
 
 import net.adoptopenjdk.icedteaweb.config.ValidatorFactory;
 import net.adoptopenjdk.icedteaweb.config.validators.SecurityValueValidator;
+import net.adoptopenjdk.icedteaweb.http.ConnectionPool;
 import net.adoptopenjdk.icedteaweb.jnlp.element.information.ShortcutDesc;
 import net.adoptopenjdk.icedteaweb.manifest.ManifestAttributesChecker;
+import net.sourceforge.jnlp.proxy.JNLPProxySelector;
 import net.sourceforge.jnlp.proxy.ProxyType;
+import net.sourceforge.jnlp.proxy.pac.PacDnsCache;
+import net.sourceforge.jnlp.proxy.pac.RhinoBasedPacEvaluator;
 
 import java.util.Arrays;
 import java.util.List;
@@ -238,6 +242,16 @@ public class Defaults {
                     String.valueOf(false),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_HTTP_MAX_CONNECTIONS_PER_HOST,
+                    String.valueOf(ConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_HOST),
+                    ValidatorFactory.createRangedIntegerValidator(1, 100)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_HTTP_CONNECTION_IDLE_TIMEOUT,
+                    String.valueOf(ConnectionPool.DEFAULT_IDLE_TIMEOUT_SECONDS),
+                    ValidatorFactory.createRangedIntegerValidator(1, 3600)
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_SECURITY_ITW_IGNORECERTISSUES,
                     String.valueOf(false),
@@ -263,6 +277,26 @@ public class Defaults {
                     null,
                     ValidatorFactory.createUrlValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_CACHE_SIZE,
+                    String.valueOf(RhinoBasedPacEvaluator.DEFAULT_CACHE_SIZE),
+                    ValidatorFactory.createRangedIntegerValidator(0, 100000)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_CACHE_TIMEOUT,
+                    String.valueOf(RhinoBasedPacEvaluator.DEFAULT_CACHE_TIMEOUT_SECONDS),
+                    ValidatorFactory.createRangedIntegerValidator(1, 86400)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_DNS_CACHE_TTL,
+                    String.valueOf(PacDnsCache.DEFAULT_TTL_SECONDS),
+                    ValidatorFactory.createRangedIntegerValidator(0, 86400)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_DNS_CACHE_NEGATIVE_TTL,
+                    String.valueOf(PacDnsCache.DEFAULT_NEGATIVE_TTL_SECONDS),
+                    ValidatorFactory.createRangedIntegerValidator(0, 86400)
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_PROXY_BYPASS_LIST,
                     null,
@@ -273,6 +307,16 @@ public class Defaults {
                     String.valueOf(false),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PROXY_CACHE_TIMEOUT,
+                    String.valueOf(JNLPProxySelector.DEFAULT_CACHE_TIMEOUT_SECONDS),
+                    ValidatorFactory.createRangedIntegerValidator(0, 3600)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PROXY_DEMOTE_FAILED,
+                    String.valueOf(true),
+                    ValidatorFactory.createBooleanValidator()
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_PROXY_HTTP_HOST,
                     null,
@@ -337,6 +381,20 @@ public class Defaults {
                     String.valueOf(false),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CACHE_LAST_ACCESS_WRITE_BACK,
+                    ConfigurationConstants.CACHE_LAST_ACCESS_WRITE_BACK_PERIODIC,
+                    ValidatorFactory.createStringValidator(new String[]{
+                            ConfigurationConstants.CACHE_LAST_ACCESS_WRITE_BACK_IMMEDIATE,
+                            ConfigurationConstants.CACHE_LAST_ACCESS_WRITE_BACK_PERIODIC,
+                            ConfigurationConstants.CACHE_LAST_ACCESS_WRITE_BACK_ON_EXIT
+                    })
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CACHE_LAST_ACCESS_WRITE_BACK_INTERVAL,
+                    String.valueOf(30),
+                    ValidatorFactory.createRangedIntegerValidator(1, Integer.MAX_VALUE)
+            ),
 
             /*
              * java console
@@ -387,6 +445,14 @@ public class Defaults {
                     String.valueOf(true),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_LOG_BUFFER_OVERFLOW,
+                    ConfigurationConstants.LOG_BUFFER_OVERFLOW_BLOCK,
+                    ValidatorFactory.createStringValidator(new String[]{
+                            ConfigurationConstants.LOG_BUFFER_OVERFLOW_BLOCK,
+                            ConfigurationConstants.LOG_BUFFER_OVERFLOW_DROP_DEBUG
+                    })
+            ),
 
             /*
              * JNLP association
@@ -38,7 +38,12 @@ import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static net.sourceforge.jnlp.proxy.ProxyConstants.FTP_SCHEMA;
@@ -50,6 +55,11 @@ import static net.sourceforge.jnlp.util.IpUtil.isLocalhostOrLoopback;
 /**
  * A ProxySelector specific to JNLPs. This proxy uses the deployment
  * configuration to determine what to do.
+ * <p>
+ * The proxies selected for a scheme, host and port are cached for a short time, so the bypass list,
+ * the PAC file or the browser are not consulted again for every connection to the same server.
+ * A failed connection removes the decision from the cache and, unless disabled, moves the failed proxy
+ * to the end of the proxies selected until the cache timeout elapses.
  *
  * @see java.net.ProxySelector
  */
@@ -57,6 +67,10 @@ public abstract class JNLPProxySelector extends ProxySelector {
 
     private final static Logger LOG = LoggerFactory.getLogger(JNLPProxySelector.class);
 
+    public static final int DEFAULT_CACHE_TIMEOUT_SECONDS = 30;
+
+    private static final int MAX_CACHE_ENTRIES = 256;
+
     private PacEvaluator pacEvaluator = null;
 
     /** the URL to the PAC file */
@@ -89,6 +103,25 @@ public abstract class JNLPProxySelector extends ProxySelector {
      */
     private final boolean sameProxy;
 
+    /** time in nanoseconds a selection is cached and a failed proxy is demoted */
+    private final long cacheTimeout;
+
+    /** whether proxies which could not be connected to are tried last */
+    private final boolean demoteFailed;
+
+    /** the selected proxies by scheme, host and port */
+    private final Map<String, CachedSelection> cache = new LinkedHashMap<String, CachedSelection>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedSelection> eldest) {
+            return size() > MAX_CACHE_ENTRIES;
+        }
+    };
+
+    /** the time until which a proxy is demoted, by its address */
+    private final Map<SocketAddress, Long> failedProxies = new ConcurrentHashMap<>();
+
     public JNLPProxySelector(DeploymentConfiguration config) {
         Assert.requireNonNull(config, "config");
         final int proxyTypeConfigValue = Integer.valueOf(config.getProperty(ConfigurationConstants.KEY_PROXY_TYPE));
@@ -127,6 +160,21 @@ public abstract class JNLPProxySelector extends ProxySelector {
 
         proxySocks4Host = getHost(config, ConfigurationConstants.KEY_PROXY_SOCKS4_HOST);
         proxySocks4Port = getPort(config, ConfigurationConstants.KEY_PROXY_SOCKS4_PORT);
+
+        cacheTimeout = TimeUnit.SECONDS.toNanos(getCacheTimeout(config));
+        demoteFailed = !"false".equalsIgnoreCase(config.getProperty(ConfigurationConstants.KEY_PROXY_DEMOTE_FAILED));
+    }
+
+    private static int getCacheTimeout(DeploymentConfiguration config) {
+        final String value = config.getProperty(ConfigurationConstants.KEY_PROXY_CACHE_TIMEOUT);
+        if (value != null) {
+            try {
+                return Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                LOG.error("Invalid proxy cache timeout '{}', using {} seconds", value, DEFAULT_CACHE_TIMEOUT_SECONDS);
+            }
+        }
+        return DEFAULT_CACHE_TIMEOUT_SECONDS;
     }
 
     /**
@@ -163,6 +211,17 @@ public abstract class JNLPProxySelector extends ProxySelector {
     @Override
     public void connectFailed(URI uri, SocketAddress sa, IOException ioe) {
         LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, ioe);
+
+        final String key = getCacheKey(uri);
+        if (key != null) {
+            synchronized (cache) {
+                cache.remove(key);
+            }
+        }
+        if (demoteFailed && sa != null && cacheTimeout > 0) {
+            LOG.debug("Demoting proxy {} after failed connection to {}", sa, uri);
+            failedProxies.put(sa, System.nanoTime() + cacheTimeout);
+        }
     }
 
     /**
@@ -172,11 +231,81 @@ public abstract class JNLPProxySelector extends ProxySelector {
     @Override
     public List<Proxy> select(URI uri) {
         LOG.debug("Selecting proxy for: {}", uri);
-        
+
+        final String key = getCacheKey(uri);
+        final long now = System.nanoTime();
+        List<Proxy> proxies = getCached(key, now);
+        if (proxies == null) {
+            proxies = selectUncached(uri);
+            if (key != null && cacheTimeout > 0) {
+                synchronized (cache) {
+                    cache.put(key, new CachedSelection(Collections.unmodifiableList(new ArrayList<>(proxies)), now + cacheTimeout));
+                }
+            }
+        }
+
+        proxies = demoteFailedProxies(proxies, now);
+        LOG.debug("Selected proxies: {}", Arrays.toString(proxies.toArray()));
+        return proxies;
+    }
+
+    private List<Proxy> getCached(String key, long now) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (cache) {
+            final CachedSelection cached = cache.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (now - cached.expiresAt >= 0) {
+                cache.remove(key);
+                return null;
+            }
+            return cached.proxies;
+        }
+    }
+
+    /**
+     * Returns a copy of the proxies in which the proxies that recently failed come last.
+     */
+    private List<Proxy> demoteFailedProxies(List<Proxy> proxies, long now) {
+        final List<Proxy> result = new ArrayList<>(proxies.size());
+        if (failedProxies.isEmpty()) {
+            result.addAll(proxies);
+            return result;
+        }
+
+        final List<Proxy> demoted = new ArrayList<>();
+        for (Proxy proxy : proxies) {
+            final SocketAddress address = proxy.address();
+            final Long demotedUntil = address != null ? failedProxies.get(address) : null;
+            if (demotedUntil == null) {
+                result.add(proxy);
+            } else if (now - demotedUntil >= 0) {
+                failedProxies.remove(address, demotedUntil);
+                result.add(proxy);
+            } else {
+                demoted.add(proxy);
+            }
+        }
+        result.addAll(demoted);
+        return result;
+    }
+
+    /**
+     * Returns the key under which the selection for the uri is cached or {@code null} if it can not be cached
+     */
+    private static String getCacheKey(URI uri) {
+        if (uri == null || uri.getScheme() == null || uri.getHost() == null) {
+            return null;
+        }
+        return uri.getScheme().toLowerCase() + "://" + uri.getHost().toLowerCase() + ":" + uri.getPort();
+    }
+
+    private List<Proxy> selectUncached(URI uri) {
         if (inBypassList(uri)) {
-            List<Proxy> proxies = Arrays.asList(new Proxy[] { Proxy.NO_PROXY });
-            LOG.debug("Selected proxies: {}", Arrays.toString(proxies.toArray()));
-            return proxies;
+            return Arrays.asList(new Proxy[] { Proxy.NO_PROXY });
         }
 
         List<Proxy> proxies = new ArrayList<>();
@@ -200,7 +329,6 @@ public abstract class JNLPProxySelector extends ProxySelector {
                 break;
         }
 
-        LOG.debug("Selected proxies: {}", Arrays.toString(proxies.toArray()));
         return proxies;
     }
 
@@ -352,4 +480,14 @@ public abstract class JNLPProxySelector extends ProxySelector {
      */
     protected abstract List<Proxy> getFromBrowser(URI uri);
 
+    private static class CachedSelection {
+        private final List<Proxy> proxies;
+        private final long expiresAt;
+
+        CachedSelection(final List<Proxy> proxies, final long expiresAt) {
+            this.proxies = proxies;
+            this.expiresAt = expiresAt;
+        }
+    }
+
 }
@@ -0,0 +1,131 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the host name resolutions done by the helper functions of a PAC file.
+ * <p>
+ * PAC files tend to resolve the same host several times per lookup, e.g. by calling {@code isInNet(host, ...)}
+ * for several networks. Resolved addresses are kept for a time to live, hosts which could not be resolved
+ * for a negative time to live. A time to live of 0 disables caching. The number of cached hosts is bounded.
+ * <p>
+ * The public methods are called by the helper functions in {@code pac-funcs.js}.
+ */
+public final class PacDnsCache {
+
+    public static final int DEFAULT_TTL_SECONDS = 60;
+    public static final int DEFAULT_NEGATIVE_TTL_SECONDS = 10;
+
+    static final int MAX_ENTRIES = 1024;
+
+    /**
+     * Key of the address of the local host.
+     */
+    private static final String LOCAL_HOST = "";
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Lookup lookup;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * @param ttlSeconds         the time in seconds a resolved address is kept
+     * @param negativeTtlSeconds the time in seconds a host which could not be resolved is remembered
+     */
+    public PacDnsCache(final int ttlSeconds, final int negativeTtlSeconds) {
+        this(ttlSeconds, negativeTtlSeconds, PacDnsCache::lookupHost, System::nanoTime);
+    }
+
+    PacDnsCache(final int ttlSeconds, final int negativeTtlSeconds, final Lookup lookup, final LongSupplier clock) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.lookup = lookup;
+        this.clock = clock;
+    }
+
+    /**
+     * @param host the host name or address
+     * @return the IP address of the host or {@code null} if the host can not be resolved
+     */
+    public String resolve(final String host) {
+        if (host == null || host.isEmpty()) {
+            return null;
+        }
+        return cachedLookup(host);
+    }
+
+    /**
+     * @return the IP address of the local host or {@code null} if it can not be determined
+     */
+    public String getLocalAddress() {
+        return cachedLookup(LOCAL_HOST);
+    }
+
+    private String cachedLookup(final String host) {
+        final long now = clock.getAsLong();
+        synchronized (entries) {
+            final Entry entry = entries.get(host);
+            if (entry != null && now - entry.expiresAt < 0) {
+                return entry.address;
+            }
+        }
+
+        // resolve without holding the lock, a slow lookup must not block the lookups of other hosts
+        String address;
+        try {
+            address = lookup.lookup(host);
+        } catch (IOException | SecurityException e) {
+            address = null;
+        }
+
+        final long ttl = address != null ? ttlNanos : negativeTtlNanos;
+        if (ttl > 0) {
+            synchronized (entries) {
+                entries.put(host, new Entry(address, now + ttl));
+            }
+        }
+        return address;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String lookupHost(final String host) throws IOException {
+        final InetAddress address = LOCAL_HOST.equals(host) ? InetAddress.getLocalHost() : InetAddress.getByName(host);
+        return address.getHostAddress();
+    }
+
+    /**
+     * Resolves a host name. The empty string denotes the local host.
+     */
+    interface Lookup {
+        String lookup(String host) throws IOException;
+    }
+
+    private static class Entry {
+        private final String address;
+        private final long expiresAt;
+
+        Entry(final String address, final long expiresAt) {
+            this.address = address;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -40,10 +40,14 @@ package net.sourceforge.jnlp.proxy.pac;
 import net.adoptopenjdk.icedteaweb.IcedTeaWebConstants;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.TimedHashMap;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.Function;
 import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -57,6 +61,7 @@ import java.security.Permissions;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.PropertyPermission;
+import java.util.concurrent.TimeUnit;
 
 import static net.adoptopenjdk.icedteaweb.JavaSystemPropertiesConstants.VM_NAME;
 import static sun.security.util.SecurityConstants.PROPERTY_READ_ACTION;
@@ -64,6 +69,10 @@ import static sun.security.util.SecurityConstants.PROPERTY_READ_ACTION;
 /**
  * Represents a Proxy Auto Config file. This object can be used to evaluate the
  * proxy file to find the proxy for a given url.
+ * <p>
+ * The helper functions and the PAC file are compiled and evaluated once into a sealed scope which is shared
+ * by all lookups. Every lookup runs in its own context and scope, so lookups of different threads do not
+ * interfere and variables assigned by {@code FindProxyForURL} do not leak into other lookups.
  *
  * @see <a href="http://en.wikipedia.org/wiki/Proxy_auto-config#The_PAC_file">The PAC File</a>
  */
@@ -71,22 +80,61 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
 
     private final static Logger LOG = LoggerFactory.getLogger(RhinoBasedPacEvaluator.class);
 
+    public static final int DEFAULT_CACHE_SIZE = 256;
+    public static final int DEFAULT_CACHE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Name under which the {@link PacDnsCache} is available to the helper functions
+     */
+    private static final String DNS_CACHE_NAME = "icedTeaWebDnsCache";
+
     private final String pacHelperFunctionContents;
     private final String pacContents;
     private final URL pacUrl;
     private final TimedHashMap<String, String> cache;
+    private final PacDnsCache dnsCache;
+    private final ContextFactory contextFactory = new PacContextFactory();
+
+    private volatile ScriptableObject sharedScope;
 
     /**
      * Initialize a new object by using the PAC file located at the given URL.
+     * The size of the result cache, the time its entries are kept and the time host name resolutions are cached
+     * are taken from the deployment configuration.
      *
      * @param pacUrl the url of the PAC file to use
      */
     public RhinoBasedPacEvaluator(URL pacUrl) {
+        this(pacUrl,
+                getIntegerProperty(ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_CACHE_SIZE, DEFAULT_CACHE_SIZE),
+                getIntegerProperty(ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_CACHE_TIMEOUT, DEFAULT_CACHE_TIMEOUT_SECONDS),
+                new PacDnsCache(
+                        getIntegerProperty(ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_DNS_CACHE_TTL, PacDnsCache.DEFAULT_TTL_SECONDS),
+                        getIntegerProperty(ConfigurationConstants.KEY_PROXY_AUTO_CONFIG_DNS_CACHE_NEGATIVE_TTL, PacDnsCache.DEFAULT_NEGATIVE_TTL_SECONDS)));
+    }
+
+    /**
+     * @param pacUrl              the url of the PAC file to use
+     * @param cacheSize           the maximum number of cached results, 0 disables the cache
+     * @param cacheTimeoutSeconds the time in seconds a cached result is kept after it has been used the last time
+     */
+    RhinoBasedPacEvaluator(URL pacUrl, int cacheSize, int cacheTimeoutSeconds) {
+        this(pacUrl, cacheSize, cacheTimeoutSeconds, new PacDnsCache(PacDnsCache.DEFAULT_TTL_SECONDS, PacDnsCache.DEFAULT_NEGATIVE_TTL_SECONDS));
+    }
+
+    /**
+     * @param pacUrl              the url of the PAC file to use
+     * @param cacheSize           the maximum number of cached results, 0 disables the cache
+     * @param cacheTimeoutSeconds the time in seconds a cached result is kept after it has been used the last time
+     * @param dnsCache            the cache of the host name resolutions of the helper functions
+     */
+    RhinoBasedPacEvaluator(URL pacUrl, int cacheSize, int cacheTimeoutSeconds, PacDnsCache dnsCache) {
         LOG.debug("Create Rhino-based PAC evaluator for '{}'", pacUrl);
         pacHelperFunctionContents = getHelperFunctionContents();
         this.pacUrl = pacUrl;
         pacContents = getPacContents(pacUrl);
-        cache = new TimedHashMap<String, String>();
+        cache = cacheSize > 0 ? new TimedHashMap<>(cacheTimeoutSeconds, TimeUnit.SECONDS, cacheSize) : null;
+        this.dnsCache = dnsCache;
     }
 
     /**
@@ -122,14 +170,13 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
      *
      * @see #getProxies(URL)
      */
-    private String getProxiesWithoutCaching(URL url) {
+    String getProxiesWithoutCaching(URL url) {
         if (pacHelperFunctionContents == null) {
             LOG.error("Error loading pac functions");
             return PacConstants.DIRECT;
         }
 
-        EvaluatePacAction evaluatePacAction = new EvaluatePacAction(pacContents, pacUrl.toString(),
-                pacHelperFunctionContents, url);
+        EvaluatePacAction evaluatePacAction = new EvaluatePacAction(this, url);
 
         // Purposefully giving only these permissions rather than using java.policy. The "evaluatePacAction"
         // isn't supposed to do very much and so doesn't require all the default permissions given by
@@ -145,6 +192,30 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
         return AccessController.doPrivileged(evaluatePacAction, context);
     }
 
+    /**
+     * Returns the scope holding the helper functions and the functions of the PAC file.
+     * The scripts are compiled and evaluated on first use, i.e. within the sandbox of the first lookup.
+     */
+    private ScriptableObject getSharedScope(Context cx) {
+        ScriptableObject scope = sharedScope;
+        if (scope == null) {
+            synchronized (this) {
+                scope = sharedScope;
+                if (scope == null) {
+                    scope = cx.initStandardObjects(null, true);
+                    // lazily loaded standard objects can not be loaded once the scope is sealed
+                    cx.evaluateString(scope, "RegExp; getClass; java; Packages; JavaAdapter;", "lazyLoad", 0, null);
+                    ScriptableObject.putProperty(scope, DNS_CACHE_NAME, Context.javaToJS(dnsCache, scope));
+                    cx.compileString(pacHelperFunctionContents, "internal", 1, null).exec(cx, scope);
+                    cx.compileString(pacContents, pacUrl.toString(), 1, null).exec(cx, scope);
+                    scope.sealObject();
+                    sharedScope = scope;
+                }
+            }
+        }
+        return scope;
+    }
+
     /**
      * Returns the contents of file at pacUrl as a String.
      */
@@ -204,17 +275,61 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
      * Gets an entry from the cache
      */
     private String getFromCache(URL url) {
-        String lookupString = url.getProtocol() + "://" + url.getHost();
-        String result = cache.get(lookupString);
-        return result;
+        if (cache == null) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(getCacheKey(url));
+        }
     }
 
     /**
      * Adds an entry to the cache
      */
     private void addToCache(URL url, String proxyResult) {
-        String lookupString = url.getAuthority() + "://" + url.getHost();
-        cache.put(lookupString, proxyResult);
+        if (cache == null || proxyResult == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(getCacheKey(url), proxyResult);
+        }
+    }
+
+    private static String getCacheKey(URL url) {
+        return url.getProtocol() + "://" + url.getHost() + ":" + url.getPort();
+    }
+
+    private static int getIntegerProperty(final String key, final int defaultValue) {
+        try {
+            return Integer.parseInt(JNLPRuntime.getConfiguration().getProperty(key));
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Creates the contexts of the PAC evaluation.
+     * <p>
+     * The scripts are run interpreted as any optimization level greater than -1 will trigger code generation
+     * which would need classloader permissions. Functions use dynamic scope, so names which are not declared
+     * by the shared scope are resolved in and assigned to the scope of the lookup instead of the sealed shared scope.
+     */
+    private static class PacContextFactory extends ContextFactory {
+
+        @Override
+        protected boolean hasFeature(Context cx, int featureIndex) {
+            if (featureIndex == Context.FEATURE_DYNAMIC_SCOPE) {
+                return true;
+            }
+            return super.hasFeature(cx, featureIndex);
+        }
+
+        @Override
+        protected Context makeContext() {
+            Context cx = super.makeContext();
+            cx.setOptimizationLevel(-1);
+            return cx;
+        }
     }
 
     /**
@@ -223,20 +338,16 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
      */
     private static class EvaluatePacAction implements PrivilegedAction<String> {
 
-        private String pacContents;
-        private String pacUrl;
-        private String pacFuncsContents;
-        private URL url;
+        private final RhinoBasedPacEvaluator evaluator;
+        private final URL url;
 
-        public EvaluatePacAction(String pacContents, String pacUrl, String pacFuncsContents, URL url) {
-            this.pacContents = pacContents;
-            this.pacUrl = pacUrl;
-            this.pacFuncsContents = pacFuncsContents;
+        public EvaluatePacAction(RhinoBasedPacEvaluator evaluator, URL url) {
+            this.evaluator = evaluator;
             this.url = url;
         }
 
         public String run() {
-            Context cx = Context.enter();
+            Context cx = evaluator.contextFactory.enterContext();
             try {
                 /*
                  * TODO defense in depth.
@@ -244,23 +355,21 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
                  * This is already running within a sandbox, but we can (and we
                  * should) lock it down further. Look into ClassShutter.
                  */
-                Scriptable scope = cx.initStandardObjects();
-                // any optimization level greater than -1 will trigger code generation
-                // and this block will then need classloader permissions
-                cx.setOptimizationLevel(-1);
-                Object result = null;
-                result = cx.evaluateString(scope, pacFuncsContents, "internal", 1, null);
-                result = cx.evaluateString(scope, pacContents, pacUrl, 1, null);
-
-                Object functionObj = scope.get("FindProxyForURL", scope);
+                Scriptable sharedScope = evaluator.getSharedScope(cx);
+
+                Object functionObj = sharedScope.get("FindProxyForURL", sharedScope);
                 if (!(functionObj instanceof Function)) {
                     LOG.error("FindProxyForURL not found");
                     return null;
                 } else {
                     Function findProxyFunction = (Function) functionObj;
 
+                    Scriptable scope = cx.newObject(sharedScope);
+                    scope.setPrototype(sharedScope);
+                    scope.setParentScope(null);
+
                     Object[] args = { url.toString(), url.getHost() };
-                    result = findProxyFunction.call(cx, scope, scope, args);
+                    Object result = findProxyFunction.call(cx, scope, scope, args);
                     return (String) result;
                 }
             } catch (Exception e) {
@@ -42,7 +42,7 @@ import net.adoptopenjdk.icedteaweb.http.CloseableConnection;
 import net.adoptopenjdk.icedteaweb.http.ConnectionFactory;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
-import net.sourceforge.jnlp.util.JarFile;
+import net.sourceforge.jnlp.util.JarFilePool;
 import net.sourceforge.jnlp.util.UrlUtils;
 import sun.net.www.protocol.jar.URLJarFile;
 import sun.net.www.protocol.jar.URLJarFileCallBack;
@@ -58,7 +58,6 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.jar.Attributes;
 
 /**
  * Invoked by URLJarFile to get a JarFile corresponding to a URL.
@@ -105,24 +104,11 @@ public final class CachedJarFileCallback implements URLJarFileCallBack {
         }
 
         if (UrlUtils.isLocalFile(localUrl)) {
-            // if it is known to us, just return the cached file
-            JarFile returnFile = new JarFile(UrlUtils.decodeUrlQuietly(localUrl).getPath());
-            
-            try {
-                
-                // Blank out the class-path because:
-                // 1) Web Start does not support it
-                // 2) For the plug-in, we want to cache files from class-path so we do it manually
-                returnFile.getManifest().getMainAttributes().putValue(Attributes.Name.CLASS_PATH.toString(), "");
-
-                LOG.debug("Class-Path attribute cleared for {}", returnFile.getName());
-                
-
-            } catch (NullPointerException npe) {
-                // Discard NPE here. Maybe there was no manifest, maybe there were no attributes, etc.
-            }
-
-            return returnFile;
+            // if it is known to us, just return the shared handle of the cached file
+            // The class-path is hidden because:
+            // 1) Web Start does not support it
+            // 2) For the plug-in, we want to cache files from class-path so we do it manually
+            return JarFilePool.getInstance().openWithoutClassPath(new File(UrlUtils.decodeUrlQuietly(localUrl).getPath()));
         } else {
             // throw new IllegalStateException("a non-local file in cache");
             return null;
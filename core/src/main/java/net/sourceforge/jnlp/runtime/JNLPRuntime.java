@@ -25,6 +25,7 @@ import net.adoptopenjdk.icedteaweb.client.parts.dialogs.security.SecurityDialogM
 import net.adoptopenjdk.icedteaweb.client.parts.downloadindicator.DefaultDownloadIndicator;
 import net.adoptopenjdk.icedteaweb.client.parts.downloadindicator.DownloadIndicator;
 import net.adoptopenjdk.icedteaweb.extensionpoint.ExtensionPoint;
+import net.adoptopenjdk.icedteaweb.http.ConnectionPool;
 import net.adoptopenjdk.icedteaweb.io.FileUtils;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
@@ -39,6 +40,7 @@ import net.sourceforge.jnlp.security.JNLPAuthenticator;
 import net.sourceforge.jnlp.security.KeyStores;
 import net.sourceforge.jnlp.security.SecurityUtil;
 import net.sourceforge.jnlp.services.XServiceManagerStub;
+import net.sourceforge.jnlp.util.JarFilePool;
 import net.sourceforge.jnlp.util.logging.LogConfig;
 import net.sourceforge.jnlp.util.logging.OutputController;
 import sun.net.www.protocol.jar.URLJarFile;
@@ -279,6 +281,10 @@ public class JNLPRuntime {
 
         securityDialogMessageHandler = startSecurityThreads();
 
+        ConnectionPool.getInstance().configure(
+                getIntegerProperty(ConfigurationConstants.KEY_HTTP_MAX_CONNECTIONS_PER_HOST, ConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_HOST),
+                getIntegerProperty(ConfigurationConstants.KEY_HTTP_CONNECTION_IDLE_TIMEOUT, ConnectionPool.DEFAULT_IDLE_TIMEOUT_SECONDS));
+
         // wire in custom authenticator for SSL connections
         try {
             SSLSocketFactory sslSocketFactory;
@@ -310,6 +316,14 @@ public class JNLPRuntime {
 
     }
 
+    private static int getIntegerProperty(final String key, final int defaultValue) {
+        try {
+            return Integer.parseInt(getConfiguration().getProperty(key));
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+
     public static void reloadPolicy() {
         policy.refresh();
     }
@@ -838,10 +852,15 @@ public class JNLPRuntime {
         Runtime.getRuntime().addShutdownHook(new Thread("JNLPRuntimeShutdownHookThread") {
             @Override
             public void run() {
+                Cache.writePendingAccesses();
+                ConnectionPool.getInstance().getMetrics().forEach(metrics -> LOG.debug("Connections to {}", metrics));
+                LOG.debug("Jar file handles: {}", JarFilePool.getInstance().getMetrics());
                 markNetxStopped();
                 Cache.cleanCache();
             }
         });
+
+        Cache.sweepInBackground();
     }
 
     /**
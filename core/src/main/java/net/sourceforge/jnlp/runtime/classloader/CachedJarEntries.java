@@ -0,0 +1,143 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Persistent list of the entry names of jars in the cache.
+ * <p>
+ * The list is stored in the entry list file of the cache entry and is only used if the jar has not changed since,
+ * i.e. if its size, modification time and file key (inode) are the same. A new version of a jar is stored in a new
+ * cache entry and therefore never uses the list of an old version.
+ * <p>
+ * The file starts with a header line holding the format version, size, modification time and file key of the jar.
+ * Every following line holds the name of one entry.
+ * <p>
+ * No list is kept for jars with nested jars or a {@code META-INF/INDEX.LIST}. The classloader also serves resources
+ * from such nested or indexed jars, so the entries of the outer jar do not tell whether it provides a resource.
+ */
+final class CachedJarEntries {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachedJarEntries.class);
+
+    private static final String FORMAT_VERSION = "1";
+    private static final String SEPARATOR = "\t";
+    private static final String JAR_INDEX_NAME = "META-INF/INDEX.LIST";
+
+    private CachedJarEntries() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns the stored entry names of the jar if the jar has not changed since they have been stored.
+     */
+    static Optional<Set<String>> load(final File jar) {
+        final Optional<File> entryListFile = Cache.getEntryListFile(jar);
+        if (!entryListFile.isPresent() || !entryListFile.get().isFile()) {
+            return Optional.empty();
+        }
+
+        try (final BufferedReader reader = Files.newBufferedReader(entryListFile.get().toPath(), UTF_8)) {
+            if (!Objects.equals(reader.readLine(), header(jar))) {
+                return Optional.empty();
+            }
+            final Set<String> entryNames = new HashSet<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                entryNames.add(line);
+            }
+            return isConclusive(entryNames) ? Optional.of(entryNames) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Ignoring stored entries of {} - {}", jar, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return {@code true} if an entry list is stored for the current state of the jar
+     */
+    static boolean isStored(final File jar) {
+        final Optional<File> entryListFile = Cache.getEntryListFile(jar);
+        if (!entryListFile.isPresent() || !entryListFile.get().isFile()) {
+            return false;
+        }
+
+        try (final BufferedReader reader = Files.newBufferedReader(entryListFile.get().toPath(), UTF_8)) {
+            return Objects.equals(reader.readLine(), header(jar));
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stores the entry names of the jar if the jar is located in the cache and the names tell which resources
+     * the jar provides. Failures are ignored as the entries are simply read from the jar again.
+     */
+    static void store(final File jar, final Collection<String> entryNames) {
+        final Optional<File> entryListFile = Cache.getEntryListFile(jar);
+        if (!entryListFile.isPresent() || !isConclusive(entryNames)) {
+            return;
+        }
+        if (entryNames.stream().anyMatch(name -> name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0)) {
+            // such names can not be stored line by line
+            return;
+        }
+
+        try {
+            final Path target = entryListFile.get().toPath();
+            final Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                try (final BufferedWriter writer = Files.newBufferedWriter(tmp, UTF_8)) {
+                    writer.write(header(jar));
+                    for (String entryName : entryNames) {
+                        writer.newLine();
+                        writer.write(entryName);
+                    }
+                }
+                try {
+                    Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, target, REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Could not store entries of {} - {}", jar, e.getMessage());
+        }
+    }
+
+    /**
+     * @return {@code false} if the jar contains nested jars or a jar index whose contents are not listed
+     */
+    private static boolean isConclusive(final Collection<String> entryNames) {
+        return entryNames.stream().noneMatch(name -> name.endsWith(".jar") || name.equals(JAR_INDEX_NAME));
+    }
+
+    private static String header(final File jar) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+        return String.join(SEPARATOR, FORMAT_VERSION,
+                Long.toString(attributes.size()),
+                Long.toString(attributes.lastModifiedTime().toMillis()),
+                String.valueOf(attributes.fileKey()));
+    }
+}
@@ -52,6 +52,7 @@ import net.sourceforge.jnlp.security.AppVerifier;
 import net.sourceforge.jnlp.security.JNLPAppVerifier;
 import net.sourceforge.jnlp.tools.JarCertVerifier;
 import net.sourceforge.jnlp.util.JarFile;
+import net.sourceforge.jnlp.util.JarFilePool;
 import net.sourceforge.jnlp.util.UrlUtils;
 
 import java.io.File;
@@ -87,8 +88,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.Attributes;
@@ -123,6 +124,11 @@ public class JNLPClassLoader extends URLClassLoader {
     private static final String TEMPLATE = "JNLP-INF/APPLICATION_TEMPLATE.JNLP";
     private static final String APPLICATION = "JNLP-INF/APPLICATION.JNLP";
 
+    /**
+     * Maximum number of absent class names remembered per loader
+     */
+    private static final int MAX_ABSENT_CLASSES = 1024;
+
     /**
      * Actions to specify how cache is to be managed *
      */
@@ -241,12 +247,23 @@ public class JNLPClassLoader extends URLClassLoader {
     private final Set<String> classpaths = Collections.synchronizedSet(new HashSet<>());
 
     /**
-     * File entries in the jar files available to this classloader Synchronized
-     * sinc this field may become shared data between multiple classloading
-     * threads. See loadClass(String) and
+     * Index of the file entries in the jar files available to this classloader.
+     * Thread safe since this field may become shared data between multiple
+     * classloading threads. See loadClass(String) and
      * CodebaseClassLoader.findClassNonRecursive(String).
      */
-    private final Set<String> jarEntries = Collections.synchronizedSet(new TreeSet<>());
+    private final JarEntryIndex entryIndex = new JarEntryIndex();
+
+    /**
+     * Entries of the cached copies of the jars which are not yet part of the classloader.
+     * Empty if the jar is not cached or no entries are stored for the cached copy.
+     */
+    private final Map<JARDesc, Optional<Set<String>>> lazyJarEntries = new ConcurrentHashMap<>();
+
+    /**
+     * Names of classes which could not be loaded since the last change of the class path.
+     */
+    private final NegativeLookupCache absentClasses = new NegativeLookupCache(MAX_ABSENT_CLASSES);
 
     /**
      * Map of specific original (remote) CodeSource Urls to securitydesc
@@ -628,8 +645,7 @@ public class JNLPClassLoader extends URLClassLoader {
         }
         boolean isInvalid = false;
         try {
-            JarFile jarFile = new JarFile(cacheFile.getAbsolutePath());
-            jarFile.close();
+            JarFilePool.getInstance().open(cacheFile).close();
         } catch (IOException ioe) {
             //Catch a ZipException or any other read failure
             isInvalid = true;
@@ -877,18 +893,16 @@ public class JNLPClassLoader extends URLClassLoader {
                     continue; // JAR not found. Keep going.
                 }
 
-                final JarFile jarFile = new JarFile(localFile);
-
-                for (JarEntry entry : Collections.list(jarFile.entries())) {
-                    String jeName = entry.getName().replaceAll("/", ".");
-                    if (jeName.equals(desiredJarEntryName)) {
-                        foundMainJar = true;
-                        verifySignedJNLP(jarFile);
-                        break;
+                try (final JarFile jarFile = JarFilePool.getInstance().open(localFile)) {
+                    for (JarEntry entry : Collections.list(jarFile.entries())) {
+                        String jeName = entry.getName().replaceAll("/", ".");
+                        if (jeName.equals(desiredJarEntryName)) {
+                            foundMainJar = true;
+                            verifySignedJNLP(jarFile);
+                            break;
+                        }
                     }
                 }
-
-                jarFile.close();
             } catch (IOException e) {
                 /*
                  * After this exception is caught, it is escaped. This will skip
@@ -1177,6 +1191,7 @@ public class JNLPClassLoader extends URLClassLoader {
 
         for (JARDesc jar : jars) {
             available.remove(jar);
+            lazyJarEntries.remove(jar);
 
             // add jar
             File localFile = tracker.getCacheFile(jar.getLocation());
@@ -1191,7 +1206,7 @@ public class JNLPClassLoader extends URLClassLoader {
                     // which does a wait(), waiting for notification (presumably
                     // thrown after a resource is fetched). This bug manifests itself
                     // particularly when using The FileManager applet from Webmin.
-                    try (JarFile jarFile = new JarFile(localFile)) {
+                    try (JarFile jarFile = JarFilePool.getInstance().open(localFile)) {
                         for (JarEntry je : Collections.list(jarFile.entries())) {
 
                             // another jar in my jar? it is more likely than you think
@@ -1245,6 +1260,7 @@ public class JNLPClassLoader extends URLClassLoader {
                                     // there is no remote URL for this, so lets fake one
                                     URL fakeRemote = new URL(jar.getLocation().toString() + "!" + je.getName());
                                     CachedJarFileCallback.getInstance().addMapping(fakeRemote, fileURL);
+                                    entryIndex.index(fakeRemote, new File(extractedJarLocation));
                                     addURL(fakeRemote);
 
                                     jarLocationSecurityMap.put(fakeRemote, jarSecurity);
@@ -1253,8 +1269,13 @@ public class JNLPClassLoader extends URLClassLoader {
                                     LOG.error("Unable to add extracted nested jar to classpath", mfue);
                                 }
                             }
-
-                            jarEntries.add(je.getName());
+                        }
+                        final Optional<List<String>> entryNames = JarEntryIndex.readEntryNames(jarFile);
+                        if (entryNames.isPresent()) {
+                            entryIndex.index(jar.getLocation(), entryNames.get());
+                            if (!CachedJarEntries.isStored(localFile)) {
+                                CachedJarEntries.store(localFile, entryNames.get());
+                            }
                         }
                     }
                 }
@@ -1266,7 +1287,7 @@ public class JNLPClassLoader extends URLClassLoader {
                 if (localFile != null) {
                     CachedJarFileCallback.getInstance().addMapping(jar.getLocation(), localFile.toURI().toURL());
 
-                    try (JarFile jarFile = new JarFile(localFile.getAbsolutePath())) {
+                    try (JarFile jarFile = JarFilePool.getInstance().open(localFile)) {
                         JarIndexAccess index = JarIndexAccess.getJarIndex(jarFile);
                         if (index != null) {
                             jarIndexes.add(index);
@@ -1413,11 +1434,19 @@ public class JNLPClassLoader extends URLClassLoader {
      * process to hang. More information in the mailing list archives:
      * http://mail.openjdk.java.net/pipermail/distro-pkg-dev/2013-September/024536.html
      * <p>
-     * Affected fields: available, classpaths, jarIndexes, jarEntries,
+     * Affected fields: available, classpaths, jarIndexes, entryIndex,
      * jarLocationSecurityMap
+     * <p>
+     * Names which could not be found are remembered until the class path of
+     * any classloader changes, so repeated lookups of absent classes fail fast.
      */
     @Override
     public Class<?> loadClass(final String name) throws ClassNotFoundException {
+        if (absentClasses.isKnownAbsent(name)) {
+            throw new ClassNotFoundException(name);
+        }
+        final long generation = absentClasses.startLookup();
+
         final List<ExceptionalSupplier<Class<?>, ClassNotFoundException>> list = new ArrayList<>();
         list.add(() -> findLoadedClassAll(name));
         list.add(() -> loadClassFromParentClassloader(name));
@@ -1429,7 +1458,17 @@ public class JNLPClassLoader extends URLClassLoader {
                 .map(ExceptionalSupplier::getResultOfCallOrNull)
                 .filter(Objects::nonNull)
                 .findFirst()
-                .orElseThrow(() -> new ClassNotFoundException(name));
+                .orElseThrow(() -> {
+                    absentClasses.markAbsent(name, generation);
+                    return new ClassNotFoundException(name);
+                });
+    }
+
+    @Override
+    protected void addURL(final URL url) {
+        entryIndex.addedToClassPath(url);
+        super.addURL(url);
+        NegativeLookupCache.classPathChanged();
     }
 
     private Class<?> loadClassFromParentClassloader(final String name) throws ClassNotFoundException {
@@ -1552,6 +1591,10 @@ public class JNLPClassLoader extends URLClassLoader {
                 return null;
             });
 
+            final File cachedFile = tracker.getCacheFile(remoteURL);
+            if (cachedFile != null) {
+                entryIndex.index(remoteURL, cachedFile);
+            }
             addURL(remoteURL);
             CachedJarFileCallback.getInstance().addMapping(remoteURL, cachedUrl);
 
@@ -1569,9 +1612,14 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
+        final String entryName = name.replace('.', '/') + ".class";
         for (JNLPClassLoader loader : loaders) {
             try {
                 if (loader == this) {
+                    if (!entryIndex.mightContain(entryName)) {
+                        // none of the jars of this loader contains the class
+                        continue;
+                    }
                     final String fName = name;
                     return AccessController.doPrivileged(
                             (PrivilegedExceptionAction<Class<?>>) () -> JNLPClassLoader.super.findClass(fName), getAccessControlContextForClassLoading());
@@ -1666,12 +1714,23 @@ public class JNLPClassLoader extends URLClassLoader {
     /**
      * Find the resources in this, the parent, or the extension class loaders.
      * Load lazy resources if not found in current resources.
+     * <p>
+     * The entries stored for the cached copies of the lazy jars are used to load only the
+     * part containing the resource. If all lazy jars are known and none contains the resource
+     * no lazy jar is loaded at all.
      */
     @Override
     public Enumeration<URL> findResources(String name) throws IOException {
         Enumeration<URL> lresources = findResourcesBySearching(name);
 
         try {
+            while (!lresources.hasMoreElements() && addPartContaining(name) != null) {
+                lresources = findResourcesBySearching(name);
+            }
+            if (!lresources.hasMoreElements() && isKnownAbsentFromAvailableJars(name)) {
+                return lresources;
+            }
+
             // if not found, load all lazy resources; repeat search
             while (!lresources.hasMoreElements() && addNextResource() != null) {
                 lresources = findResourcesBySearching(name);
@@ -1696,6 +1755,10 @@ public class JNLPClassLoader extends URLClassLoader {
             // the original caller? infinite recursion?
 
             if (loader == this) {
+                if (!entryIndex.mightContain(name)) {
+                    // none of the jars of this loader contains the resource
+                    continue;
+                }
                 final String fName = name;
                 try {
                     e = AccessController.doPrivileged((PrivilegedExceptionAction<Enumeration<URL>>) () -> JNLPClassLoader.super.findResources(fName), getAccessControlContextForClassLoading());
@@ -1776,9 +1839,90 @@ public class JNLPClassLoader extends URLClassLoader {
         return this;
     }
 
+    /**
+     * Adds the part of the first jar which is not yet part of the classloader and whose cached copy contains the
+     * resource. That part will be downloaded and added to the classloader before returning.
+     *
+     * @param name the name of the resource
+     * @return the classloader that resources were added to, or null if no such jar is known
+     * @throws LaunchException Thrown if the signed JNLP file, within the main
+     *                         jar, fails to be verified or does not match
+     */
+    private JNLPClassLoader addPartContaining(String name) throws LaunchException {
+        for (JARDesc jar : getAvailableJars()) {
+            final Optional<Set<String>> entries = getLazyJarEntries(jar);
+            if (entries.isPresent() && entries.get().contains(name)) {
+                final List<JARDesc> jars = getJarsToLoad(jar);
+
+                checkForMain(jars);
+                activateJars(jars);
+
+                return this;
+            }
+        }
+
+        for (int i = 1; i < loaders.length; i++) {
+            JNLPClassLoader result = loaders[i].addPartContaining(name);
+
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the entries of all jars which are not yet part of this or the extension classloaders
+     * are known and none of them contains the resource
+     */
+    private boolean isKnownAbsentFromAvailableJars(String name) {
+        for (JARDesc jar : getAvailableJars()) {
+            final Optional<Set<String>> entries = getLazyJarEntries(jar);
+            if (!entries.isPresent() || entries.get().contains(name)) {
+                return false;
+            }
+        }
+
+        for (int i = 1; i < loaders.length; i++) {
+            if (!loaders[i].isKnownAbsentFromAvailableJars(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<JARDesc> getAvailableJars() {
+        synchronized (available) {
+            return new ArrayList<>(available);
+        }
+    }
+
+    /**
+     * Returns the entries stored for the cached copy of a jar which is not yet part of the classloader.
+     * The jar is not downloaded. The entries are only known once the tracker has determined the copy which
+     * will be loaded, as an older copy in the cache may be replaced by an update.
+     */
+    private Optional<Set<String>> getLazyJarEntries(JARDesc jar) {
+        final Optional<Set<String>> known = lazyJarEntries.get(jar);
+        if (known != null) {
+            return known;
+        }
+        if (!tracker.checkResource(jar.getLocation())) {
+            return Optional.empty();
+        }
+
+        final Optional<Set<String>> entries = AccessController.doPrivileged(
+                (PrivilegedAction<Optional<Set<String>>>) () -> Optional.ofNullable(tracker.getCacheFile(jar.getLocation()))
+                        .flatMap(CachedJarEntries::load));
+        lazyJarEntries.put(jar, entries);
+        return entries;
+    }
+
     private List<JARDesc> getNextJarsToLoad() {
-        final JARDesc nextJar = available.get(0);
+        return getJarsToLoad(available.get(0));
+    }
 
+    private List<JARDesc> getJarsToLoad(final JARDesc nextJar) {
         final LinkedHashSet<JARDesc> result = new LinkedHashSet<>();
         result.add(nextJar);
         result.addAll(getAllAvailableJarsInPart(nextJar.getPart()));
@@ -1867,6 +2011,7 @@ public class JNLPClassLoader extends URLClassLoader {
         }
 
         // jars
+        entryIndex.addAll(extLoader.entryIndex);
         for (URL u : extLoader.getURLs()) {
             addURL(u);
         }
@@ -1880,6 +2025,7 @@ public class JNLPClassLoader extends URLClassLoader {
         for (File nativeDirectory : extLoader.nativeLibraryStorage.getSearchDirectories()) {
             nativeLibraryStorage.addSearchDirectory(nativeDirectory);
         }
+        nativeLibraryStorage.addLibraries(extLoader.nativeLibraryStorage.getLibraries());
 
         // security descriptors
         synchronized (jarLocationSecurityMap) {
@@ -2116,8 +2262,9 @@ public class JNLPClassLoader extends URLClassLoader {
     public String getMainClassNameFromManifest(JARDesc mainJarDesc) throws IOException {
         final File f = tracker.getCacheFile(mainJarDesc.getLocation());
         if (f != null) {
-            final JarFile mainJar = new JarFile(f);
-            return mainJar.getManifest().getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+            try (final JarFile mainJar = JarFilePool.getInstance().open(f)) {
+                return mainJar.getManifest().getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+            }
         }
         return null;
     }
@@ -0,0 +1,144 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import net.sourceforge.jnlp.util.JarFilePool;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Index of the entries of the jars on the class path of a {@link JNLPClassLoader}.
+ * <p>
+ * The index maps the name of every entry (e.g. {@code some/package/SomeClass.class}) to the jar containing it.
+ * It is only conclusive as long as every location on the class path has been indexed. As soon as a location
+ * is added which could not be indexed, e.g. a jar which is not cached, every entry is assumed to be present.
+ * <p>
+ * Locations are compared by their external form as {@link URL#equals(Object)} may resolve host names.
+ */
+class JarEntryIndex {
+
+    private static final String VERSIONS_DIR = "META-INF/versions/";
+
+    private final Map<String, String> jarsByEntry = new HashMap<>();
+    private final Set<String> indexedJars = new HashSet<>();
+    private final Set<String> unindexedLocations = new HashSet<>();
+
+    /**
+     * Adds the entries of the local copy of a jar to the index.
+     * If the jar can not be read it is not indexed.
+     *
+     * @param location  the location under which the jar is added to the class path
+     * @param localFile the local copy of the jar
+     */
+    void index(final URL location, final File localFile) {
+        try (final JarFile jarFile = JarFilePool.getInstance().open(localFile)) {
+            index(location, jarFile);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Adds the entries of a jar to the index.
+     *
+     * @param location the location under which the jar is added to the class path
+     * @param jarFile  the local copy of the jar
+     * @see #readEntryNames(JarFile)
+     */
+    void index(final URL location, final JarFile jarFile) throws IOException {
+        final Optional<List<String>> entryNames = readEntryNames(jarFile);
+        if (entryNames.isPresent()) {
+            index(location, entryNames.get());
+        }
+    }
+
+    /**
+     * Reads the names of all entries of a jar.
+     * A jar with a {@code Class-Path} in its manifest can not be indexed as the referenced jars are
+     * searched by the {@link java.net.URLClassLoader} without being added to the class path.
+     *
+     * @param jarFile the local copy of the jar
+     * @return the names of the entries or empty if the jar can not be indexed
+     */
+    static Optional<List<String>> readEntryNames(final JarFile jarFile) throws IOException {
+        final Manifest manifest = jarFile.getManifest();
+        if (manifest != null && manifest.getMainAttributes().containsKey(Attributes.Name.CLASS_PATH)) {
+            return Optional.empty();
+        }
+
+        final List<String> entryNames = new ArrayList<>();
+        for (JarEntry entry : Collections.list(jarFile.entries())) {
+            entryNames.add(entry.getName());
+            // classes of a multi release jar may only exist in a versioned directory
+            if (entry.getName().startsWith(VERSIONS_DIR)) {
+                final int versionEnd = entry.getName().indexOf('/', VERSIONS_DIR.length());
+                if (versionEnd > 0) {
+                    entryNames.add(entry.getName().substring(versionEnd + 1));
+                }
+            }
+        }
+        return Optional.of(entryNames);
+    }
+
+    /**
+     * Adds the given entries of the jar at the given location to the index.
+     */
+    synchronized void index(final URL location, final Collection<String> entryNames) {
+        final String jar = location.toExternalForm();
+        for (String entryName : entryNames) {
+            jarsByEntry.putIfAbsent(entryName, jar);
+        }
+        indexedJars.add(jar);
+        unindexedLocations.remove(jar);
+    }
+
+    /**
+     * Adds all entries of the other index to this one.
+     */
+    void addAll(final JarEntryIndex other) {
+        final Map<String, String> otherJarsByEntry;
+        final Set<String> otherIndexedJars;
+        final Set<String> otherUnindexedLocations;
+        synchronized (other) {
+            otherJarsByEntry = new HashMap<>(other.jarsByEntry);
+            otherIndexedJars = new HashSet<>(other.indexedJars);
+            otherUnindexedLocations = new HashSet<>(other.unindexedLocations);
+        }
+        synchronized (this) {
+            otherJarsByEntry.forEach(jarsByEntry::putIfAbsent);
+            indexedJars.addAll(otherIndexedJars);
+            unindexedLocations.addAll(otherUnindexedLocations);
+        }
+    }
+
+    /**
+     * Records that the given location has been added to the class path.
+     * If the location has not been indexed before the index is no longer conclusive.
+     */
+    synchronized void addedToClassPath(final URL location) {
+        final String jar = location.toExternalForm();
+        if (!indexedJars.contains(jar)) {
+            unindexedLocations.add(jar);
+        }
+    }
+
+    /**
+     * @return {@code false} if the entry is known to be absent from all locations on the class path
+     */
+    synchronized boolean mightContain(final String entryName) {
+        // like JarFile.getEntry() a directory is also found without the trailing slash
+        return !unindexedLocations.isEmpty() || jarsByEntry.containsKey(entryName) || jarsByEntry.containsKey(entryName + "/");
+    }
+}
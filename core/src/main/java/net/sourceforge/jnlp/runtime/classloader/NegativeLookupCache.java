@@ -0,0 +1,62 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of class names which could not be found by a class loader.
+ * <p>
+ * A name is only known to be absent as long as the class path of the application has not changed.
+ * Every change of any class path increments a global generation which invalidates all entries
+ * recorded before. Lookups which have been running while the class path changed are not recorded.
+ */
+class NegativeLookupCache {
+
+    private static final AtomicLong classPathGeneration = new AtomicLong();
+
+    private final Map<String, Long> absentNames;
+
+    NegativeLookupCache(final int maxSize) {
+        absentNames = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Invalidates the entries of all caches. Must be called whenever a location is added to a class path.
+     */
+    static void classPathChanged() {
+        classPathGeneration.incrementAndGet();
+    }
+
+    /**
+     * @return the current generation which has to be passed to {@link #markAbsent(String, long)}
+     * once the lookup has failed
+     */
+    long startLookup() {
+        return classPathGeneration.get();
+    }
+
+    /**
+     * @return {@code true} if the name could not be found since the last change of the class path
+     */
+    synchronized boolean isKnownAbsent(final String name) {
+        final Long generation = absentNames.get(name);
+        return generation != null && generation == classPathGeneration.get();
+    }
+
+    /**
+     * Records that the name could not be found by a lookup which started at the given generation.
+     */
+    synchronized void markAbsent(final String name, final long generation) {
+        if (generation == classPathGeneration.get()) {
+            absentNames.put(name, generation);
+        }
+    }
+}
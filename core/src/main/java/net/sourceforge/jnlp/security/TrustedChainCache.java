@@ -0,0 +1,109 @@
+package net.sourceforge.jnlp.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the server certificate chains which were found to be trusted for a host.
+ * <p>
+ * A chain is identified by a SHA-256 fingerprint over its certificates, the auth type and the host name,
+ * so a chain trusted for one host is still checked for any other host. A decision is kept for a time to live,
+ * but never beyond the expiration of a certificate of the chain. The number of remembered chains is bounded,
+ * once the cache is full new decisions are not remembered until older ones expire.
+ */
+final class TrustedChainCache {
+
+    static final long DEFAULT_TTL_SECONDS = 300;
+    static final int MAX_ENTRIES = 256;
+
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<String, Long> expirationByKey = new ConcurrentHashMap<>();
+
+    TrustedChainCache() {
+        this(DEFAULT_TTL_SECONDS, System::nanoTime);
+    }
+
+    TrustedChainCache(final long ttlSeconds, final LongSupplier clock) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.clock = clock;
+    }
+
+    /**
+     * @return {@code true} if the chain was remembered as trusted for the host and the decision did not expire
+     */
+    boolean isTrusted(final X509Certificate[] chain, final String authType, final String hostName) {
+        final String key = getKey(chain, authType, hostName);
+        if (key == null) {
+            return false;
+        }
+        final Long expiresAt = expirationByKey.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (clock.getAsLong() - expiresAt >= 0) {
+            expirationByKey.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remembers the chain as trusted for the host.
+     */
+    void trusted(final X509Certificate[] chain, final String authType, final String hostName) {
+        final long validForNanos = Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(getEarliestExpiration(chain) - System.currentTimeMillis()));
+        final String key = getKey(chain, authType, hostName);
+        if (key == null || validForNanos <= 0) {
+            return;
+        }
+
+        final long now = clock.getAsLong();
+        if (expirationByKey.size() >= MAX_ENTRIES) {
+            expirationByKey.values().removeIf(expiresAt -> now - expiresAt >= 0);
+            if (expirationByKey.size() >= MAX_ENTRIES) {
+                return;
+            }
+        }
+        expirationByKey.put(key, now + validForNanos);
+    }
+
+    int size() {
+        return expirationByKey.size();
+    }
+
+    private static long getEarliestExpiration(final X509Certificate[] chain) {
+        long earliest = Long.MAX_VALUE;
+        for (X509Certificate certificate : chain) {
+            earliest = Math.min(earliest, certificate.getNotAfter().getTime());
+        }
+        return earliest;
+    }
+
+    /**
+     * @return the key of the chain or {@code null} if it cannot be computed
+     */
+    private static String getKey(final X509Certificate[] chain, final String authType, final String hostName) {
+        if (chain == null || chain.length == 0) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+            for (X509Certificate certificate : chain) {
+                digest.update(certificate.getEncoded());
+            }
+            return Base64.getEncoder().encodeToString(digest.digest()) + '|' + authType + '|' + (hostName != null ? hostName : "");
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            return null;
+        }
+    }
+}
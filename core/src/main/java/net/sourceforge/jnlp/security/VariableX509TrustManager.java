@@ -48,9 +48,8 @@ import sun.security.validator.ValidatorException;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
 import javax.net.ssl.X509TrustManager;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.Socket;
 import java.security.AccessController;
 import java.security.KeyStore;
@@ -62,6 +61,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.adoptopenjdk.icedteaweb.CollectionUtils.isNullOrEmpty;
 
@@ -83,9 +84,15 @@ public final class VariableX509TrustManager {
     private static VariableX509TrustManager instance = null;
 
 
-    private final List<Certificate> temporarilyTrusted = new ArrayList<>();
+    private final Set<Certificate> temporarilyTrusted = ConcurrentHashMap.newKeySet();
 
-    private final List<Certificate> temporarilyUntrusted = new ArrayList<>();
+    private final Set<Certificate> temporarilyUntrusted = ConcurrentHashMap.newKeySet();
+
+    /** chains which passed the check of {@link #checkTrustServer} without asking the user */
+    private final TrustedChainCache trustedChains = new TrustedChainCache();
+
+    /** only one certificate warning is shown at a time */
+    private final Object askUserLock = new Object();
 
     private final List<X509TrustManager> certTrustManagers = new ArrayList<>();
 
@@ -180,6 +187,9 @@ public final class VariableX509TrustManager {
      * First, existing stores are checked to see if the certificate is trusted.
      * Next, if the certificate is not explicitly trusted by the user, a host
      * name check is performed. The user is them prompted as needed.
+     * <p>
+     * Chains which are trusted without asking the user are remembered for a while,
+     * see {@link TrustedChainCache}. Checks run concurrently, only asking the user is serialized.
      *
      * @param chain    The cert chain
      * @param authType The auth type algorithm
@@ -188,9 +198,13 @@ public final class VariableX509TrustManager {
      * @param engine   The SSLEngine in use (may be null)
      * @throws java.security.cert.CertificateException if certificate is wrong
      */
-    public synchronized void checkTrustServer(X509Certificate[] chain,
-                                              String authType, String hostName,
-                                              SSLSocket socket, SSLEngine engine) throws CertificateException {
+    public void checkTrustServer(X509Certificate[] chain,
+                                 String authType, String hostName,
+                                 SSLSocket socket, SSLEngine engine) throws CertificateException {
+        if (trustedChains.isTrusted(chain, authType, hostName)) {
+            return;
+        }
+
         CertificateException ce = null;
         boolean trusted = true;
         boolean CNMatched = false;
@@ -220,20 +234,27 @@ public final class VariableX509TrustManager {
             }
         } else {
             // If it is explicitly trusted, just return right away.
+            trustedChains.trusted(chain, authType, hostName);
             return;
         }
 
         // If it is (not explicitly trusted) AND
         // ((it is not in store) OR (there is a host mismatch))
         if (!trusted || !CNMatched) {
-            if (!isTemporarilyUntrusted(chain[0])) {
-                boolean b = askUser(chain, trusted, CNMatched, hostName);
-
-                if (b) {
-                    temporarilyTrust(chain[0]);
+            synchronized (askUserLock) {
+                // another connection may have asked the user about this certificate in the meantime
+                if (isTemporarilyTrusted(chain[0])) {
                     return;
-                } else {
-                    temporarilyUntrust(chain[0]);
+                }
+                if (!isTemporarilyUntrusted(chain[0])) {
+                    boolean b = askUser(chain, trusted, CNMatched, hostName);
+
+                    if (b) {
+                        temporarilyTrust(chain[0]);
+                        return;
+                    } else {
+                        temporarilyUntrust(chain[0]);
+                    }
                 }
             }
 
@@ -243,6 +264,8 @@ public final class VariableX509TrustManager {
                 throw new CertificateException("hostName is null");
             }
         }
+
+        trustedChains.trusted(chain, authType, hostName);
     }
 
     /**
@@ -269,20 +292,13 @@ public final class VariableX509TrustManager {
                 continue;
             }
             try {
-                if (socket == null && engine == null) {
+                if ((socket == null && engine == null) || !(caTrustManager instanceof X509ExtendedTrustManager)) {
                     caTrustManager.checkServerTrusted(chain, authType);
                 } else {
                     try {
-                        Class<?> x509ETMClass = Class.forName("javax.net.ssl.X509ExtendedTrustManager");
-                        if (engine == null) {
-                            Method mcheckServerTrusted = x509ETMClass.getDeclaredMethod("checkServerTrusted", X509Certificate[].class, String.class, Socket.class);
-                            mcheckServerTrusted.invoke(caTrustManager, chain, authType, socket);
-                        } else {
-                            Method mcheckServerTrusted = x509ETMClass.getDeclaredMethod("checkServerTrusted", X509Certificate[].class, String.class, SSLEngine.class);
-                            mcheckServerTrusted.invoke(caTrustManager, chain, authType, engine);
-                        }
-                    } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | ClassNotFoundException nsme) {
-                        throw new ValidatorException(nsme.getMessage());
+                        checkExtendedServerTrusted((X509ExtendedTrustManager) caTrustManager, chain, authType, socket, engine);
+                    } catch (CertificateException e) {
+                        throw new ValidatorException(e.getMessage(), e);
                     }
                 }
                 return;
@@ -315,6 +331,22 @@ public final class VariableX509TrustManager {
 
     }
 
+    /**
+     * Check with the connection so the trust manager can verify the endpoint.
+     * Any failure is reported as {@link CertificateException}.
+     */
+    private static void checkExtendedServerTrusted(X509ExtendedTrustManager trustManager, X509Certificate[] chain, String authType, Socket socket, SSLEngine engine) throws CertificateException {
+        try {
+            if (engine == null) {
+                trustManager.checkServerTrusted(chain, authType, socket);
+            } else {
+                trustManager.checkServerTrusted(chain, authType, engine);
+            }
+        } catch (RuntimeException e) {
+            throw new CertificateException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Return if the user explicitly trusted this i.e. in userTrustManager or temporarilyTrusted
      */
@@ -376,6 +408,17 @@ public final class VariableX509TrustManager {
         return temporarilyUntrusted.contains(c);
     }
 
+    /**
+     * Did the user choose to trust this certificate?
+     *
+     * @param c the certificate
+     * @return true if the user was presented with this certificate and chose
+     * to trust it
+     */
+    private boolean isTemporarilyTrusted(Certificate c) {
+        return temporarilyTrusted.contains(c);
+    }
+
     /**
      * Temporarily trust the given cert (runtime)
      *
@@ -417,7 +460,7 @@ public final class VariableX509TrustManager {
      *
      * @return The instance
      */
-    public static VariableX509TrustManager getInstance() {
+    public static synchronized VariableX509TrustManager getInstance() {
         if (instance == null)
             instance = new VariableX509TrustManager();
 
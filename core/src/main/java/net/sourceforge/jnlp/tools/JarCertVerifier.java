@@ -37,6 +37,7 @@ import net.sourceforge.jnlp.security.CertVerifier;
 import net.sourceforge.jnlp.security.CertificateUtils;
 import net.sourceforge.jnlp.security.KeyStores;
 import net.sourceforge.jnlp.util.JarFile;
+import net.sourceforge.jnlp.util.JarFilePool;
 import sun.security.util.DerInputStream;
 import sun.security.util.DerValue;
 import sun.security.x509.NetscapeCertTypeExtension;
@@ -44,8 +45,9 @@ import sun.security.x509.NetscapeCertTypeExtension;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.CodeSigner;
+import java.security.AccessController;
 import java.security.KeyStore;
+import java.security.PrivilegedAction;
 import java.security.cert.CertPath;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
@@ -56,8 +58,16 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.regex.Pattern;
 
@@ -77,6 +87,11 @@ public class JarCertVerifier implements CertVerifier {
     private static final String META_INF = "META-INF/";
     private static final Pattern SIG = Pattern.compile(".*" + META_INF + "SIG-.*");
 
+    /**
+     * Pool used to collect the signers of several jars concurrently, created on first use
+     */
+    private static ExecutorService verificationExecutor;
+
     enum VerifyResult {
         UNSIGNED, SIGNED_OK, SIGNED_NOT_OK
     }
@@ -106,6 +121,11 @@ public class JarCertVerifier implements CertVerifier {
      */
     private final AppVerifier appVerifier;
 
+    /**
+     * Whether or not the signers of several jars are collected concurrently
+     */
+    private final boolean parallel;
+
     /**
      * Temporary cert path hack to be used to keep track of which one a UI dialog is using
      */
@@ -117,7 +137,18 @@ public class JarCertVerifier implements CertVerifier {
      * @param verifier The application verifier to be used by the new instance.
      */
     public JarCertVerifier(AppVerifier verifier) {
+        this(verifier, true);
+    }
+
+    /**
+     * Create a new jar certificate verifier utility.
+     *
+     * @param verifier The application verifier to be used by the new instance.
+     * @param parallel Whether or not the signers of several jars are collected concurrently.
+     */
+    JarCertVerifier(AppVerifier verifier, boolean parallel) {
         appVerifier = verifier;
+        this.parallel = parallel;
     }
 
     /**
@@ -230,7 +261,7 @@ public class JarCertVerifier implements CertVerifier {
      * @throws Exception Caused by issues with obtaining the jars' entries or interacting with the tracker.
      */
     private void verifyJars(final List<JARDesc> jars, final ResourceTracker tracker) throws Exception {
-
+        final Set<String> jarPaths = new LinkedHashSet<>();
         for (JARDesc jar : jars) {
             final File jarFile = tracker.getCacheFile(jar.getLocation());
 
@@ -240,19 +271,53 @@ public class JarCertVerifier implements CertVerifier {
                 continue;
             }
 
-            final String jarPath = jarFile.getCanonicalFile().getAbsolutePath();
-            if (verifiedJars.contains(jarPath) || unverifiedJars.contains(jarPath)) {
-                continue;
+            jarPaths.add(jarFile.getCanonicalFile().getAbsolutePath());
+        }
+        verifyJarPaths(new ArrayList<>(jarPaths));
+    }
+
+    /**
+     * Verify the jars at the given locations and update the state of this instance to match the new information.
+     * <p>
+     * The signers of the jars are collected concurrently as this involves digesting every entry of every jar.
+     * The signers are then merged one jar after the other in the given order. Therefore the resulting state,
+     * as well as the jar which causes a failure, is the same as if the jars had been verified one by one.
+     *
+     * @param jarPaths List of absolute paths to the jars to be verified.
+     * @throws Exception Caused by issues with obtaining the jars' entries.
+     */
+    void verifyJarPaths(final List<String> jarPaths) throws Exception {
+        final List<String> newJarPaths = new ArrayList<>();
+        for (String jarPath : jarPaths) {
+            if (!verifiedJars.contains(jarPath) && !unverifiedJars.contains(jarPath)) {
+                newJarPaths.add(jarPath);
+            }
+        }
+
+        final boolean concurrently = parallel && newJarPaths.size() > 1;
+        final List<Future<JarSignatures>> signatures = new ArrayList<>();
+        try {
+            if (concurrently) {
+                for (String jarPath : newJarPaths) {
+                    signatures.add(getVerificationExecutor().submit(() -> collectSignatures(jarPath)));
+                }
             }
 
-            final VerifyResult result = verifyJar(jarPath);
-            if (result == VerifyResult.UNSIGNED) {
-                unverifiedJars.add(jarPath);
-            } else if (result == VerifyResult.SIGNED_NOT_OK) {
-                verifiedJars.add(jarPath);
-            } else if (result == VerifyResult.SIGNED_OK) {
-                verifiedJars.add(jarPath);
+            for (int i = 0; i < newJarPaths.size(); i++) {
+                final String jarPath = newJarPaths.get(i);
+                final JarSignatures jarSignatures = concurrently ? getSignatures(signatures.get(i)) : collectSignatures(jarPath);
+                final VerifyResult result = verifyJarEntryCerts(jarPath, jarSignatures);
+                if (result == VerifyResult.UNSIGNED) {
+                    unverifiedJars.add(jarPath);
+                } else if (result == VerifyResult.SIGNED_NOT_OK) {
+                    verifiedJars.add(jarPath);
+                } else if (result == VerifyResult.SIGNED_OK) {
+                    verifiedJars.add(jarPath);
+                }
             }
+        } finally {
+            // nothing left to do for the remaining jars if one of them failed
+            signatures.forEach(future -> future.cancel(true));
         }
 
         for (CertPath certPath : certs.keySet()) {
@@ -260,14 +325,57 @@ public class JarCertVerifier implements CertVerifier {
         }
     }
 
+    private static JarSignatures getSignatures(final Future<JarSignatures> signatures) throws InterruptedException {
+        try {
+            return signatures.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static synchronized ExecutorService getVerificationExecutor() {
+        if (verificationExecutor == null) {
+            final AtomicInteger threadNumber = new AtomicInteger(1);
+            verificationExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                // the threads must not inherit the access control context of an application which loads a jar lazily
+                return AccessController.doPrivileged((PrivilegedAction<Thread>) () -> {
+                    final Thread thread = new Thread(r, "itw-jar-verifier-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            });
+        }
+        return verificationExecutor;
+    }
+
     /**
-     * Checks through all the jar entries of jarName for signers, storing all the common ones in the certs hash map.
+     * Checks through all the jar entries of jarPath for signers.
+     * If the jar has not changed since its last verification the stored signers are used instead of reading all entries.
      *
      * @param jarPath The absolute path to the jar file.
-     * @return The return of {@link JarCertVerifier#verifyJarEntryCerts} using the entries found in the jar located at jarName.
+     * @return The signers found in the jar located at jarPath.
      */
-    private VerifyResult verifyJar(final String jarPath) {
-        try (final JarFile jarFile = new JarFile(jarPath, true)) {
+    private static JarSignatures collectSignatures(final String jarPath) {
+        final File jar = new File(jarPath);
+        final Optional<JarSignatures> storedSignatures = JarVerificationCache.load(jar);
+        if (storedSignatures.isPresent()) {
+            return storedSignatures.get();
+        }
+
+        final JarSignatures signatures = readSignatures(jarPath);
+        JarVerificationCache.store(jar, signatures);
+        return signatures;
+    }
+
+    private static JarSignatures readSignatures(final String jarPath) {
+        try (final JarFile jarFile = JarFilePool.getInstance().open(new File(jarPath))) {
             final List<JarEntry> entries = new ArrayList<>();
             final byte[] buffer = new byte[8192];
 
@@ -284,7 +392,7 @@ public class JarCertVerifier implements CertVerifier {
                     }
                 }
             }
-            return verifyJarEntryCerts(jarPath, jarFile.getManifest() != null, entries);
+            return JarSignatures.of(jarFile.getManifest() != null, entries);
         } catch (Exception e) {
             LOG.error("Error in verify jar " + jarPath, e);
             throw new RuntimeException("Error in verify jar " + jarPath, e);
@@ -301,31 +409,23 @@ public class JarCertVerifier implements CertVerifier {
      * @throws RuntimeException Will be thrown if there are issues with entries.
      */
     VerifyResult verifyJarEntryCerts(final String jarPath, final boolean jarHasManifest, final List<JarEntry> entries) {
+        return verifyJarEntryCerts(jarPath, JarSignatures.of(jarHasManifest, entries));
+    }
+
+    /**
+     * Checks the signers of a jar, storing all the common ones in the certs hash map.
+     *
+     * @param jarPath    The absolute path to the jar file.
+     * @param signatures The signers found in the jar.
+     * @return see {@link #verifyJarEntryCerts(String, boolean, List)}
+     */
+    private VerifyResult verifyJarEntryCerts(final String jarPath, final JarSignatures signatures) {
         // Contains number of entries the cert with this CertPath has signed.
-        final Map<CertPath, Integer> jarSignCount = new HashMap<>();
-        int numSignableEntriesInJar = 0;
+        final Map<CertPath, Integer> jarSignCount = signatures.getSignedEntries();
+        final int numSignableEntriesInJar = signatures.getSignableEntries();
 
         // Record current time just before checking the jar begins.
         final ZonedDateTime now = ZonedDateTime.now();
-        if (jarHasManifest) {
-            for (JarEntry je : entries) {
-                final boolean shouldHaveSignature = !je.isDirectory() && !isMetaInfFile(je.getName());
-                if (shouldHaveSignature) {
-                    numSignableEntriesInJar++;
-                    final CodeSigner[] signers = je.getCodeSigners();
-                    if (signers != null) {
-                        for (final CodeSigner signer : signers) {
-                            final CertPath certPath = signer.getSignerCertPath();
-                            jarSignCount.putIfAbsent(certPath, 0);
-                            jarSignCount.computeIfPresent(certPath, (cp, count) -> count + 1);
-                        }
-                    }
-                }
-            }
-        } else {
-            // set to 1 so that unsigned jars with no manifests can't sneak in
-            numSignableEntriesInJar = 1;
-        }
 
         jarSignableEntries.put(jarPath, numSignableEntriesInJar);
 
@@ -0,0 +1,67 @@
+package net.sourceforge.jnlp.tools;
+
+import java.security.CodeSigner;
+import java.security.cert.CertPath;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+
+/**
+ * The signers found in a jar together with the number of signable entries.
+ * This is everything {@link JarCertVerifier} needs to know about the content of a jar.
+ */
+class JarSignatures {
+
+    private final int signableEntries;
+    private final Map<CertPath, Integer> signedEntries;
+
+    JarSignatures(final int signableEntries, final Map<CertPath, Integer> signedEntries) {
+        this.signableEntries = signableEntries;
+        this.signedEntries = Collections.unmodifiableMap(new LinkedHashMap<>(signedEntries));
+    }
+
+    /**
+     * Collects the signers of the given entries.
+     *
+     * @param jarHasManifest Whether or not the associated jar has a manifest.
+     * @param entries        The list of entries in the associated jar.
+     */
+    static JarSignatures of(final boolean jarHasManifest, final List<JarEntry> entries) {
+        if (!jarHasManifest) {
+            // set to 1 so that unsigned jars with no manifests can't sneak in
+            return new JarSignatures(1, Collections.emptyMap());
+        }
+
+        final Map<CertPath, Integer> signedEntries = new LinkedHashMap<>();
+        int signableEntries = 0;
+        for (JarEntry je : entries) {
+            final boolean shouldHaveSignature = !je.isDirectory() && !JarCertVerifier.isMetaInfFile(je.getName());
+            if (shouldHaveSignature) {
+                signableEntries++;
+                final CodeSigner[] signers = je.getCodeSigners();
+                if (signers != null) {
+                    for (final CodeSigner signer : signers) {
+                        signedEntries.merge(signer.getSignerCertPath(), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        return new JarSignatures(signableEntries, signedEntries);
+    }
+
+    /**
+     * @return number of entries which need to be signed
+     */
+    int getSignableEntries() {
+        return signableEntries;
+    }
+
+    /**
+     * @return the signers of the jar and the number of entries each of them has signed
+     */
+    Map<CertPath, Integer> getSignedEntries() {
+        return signedEntries;
+    }
+}
@@ -0,0 +1,209 @@
+package net.sourceforge.jnlp.tools;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.sourceforge.jnlp.util.JarFilePool;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertPath;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.util.Base64;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Persistent store for the {@link JarSignatures} of jars in the cache.
+ * <p>
+ * The signatures are stored in the verification file of the cache entry and are only used if the jar has not
+ * changed since. A jar is considered unchanged if its size, modification time and file key (inode) are the same
+ * and if the digest of its structure matches. The structure consists of the central directory (names, sizes and
+ * checksums of all entries) and the content of the manifest and the signature files.
+ * <p>
+ * The content of the entries is not digested as this would cost almost as much as the verification itself.
+ * This is safe as the content of every entry is verified against the digests in the manifest by {@link JarFile}
+ * when the entry is read by the class loader.
+ */
+final class JarVerificationCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JarVerificationCache.class);
+
+    private static final String FORMAT_VERSION = "1";
+    private static final String CERT_PATH_ENCODING = "PkiPath";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_SIZE = "size";
+    private static final String KEY_MODIFIED = "modified";
+    private static final String KEY_FILE_KEY = "file.key";
+    private static final String KEY_DIGEST = "digest";
+    private static final String KEY_SIGNABLE_ENTRIES = "signable.entries";
+    private static final String KEY_SIGNERS = "signers";
+    private static final String KEY_SIGNER_PREFIX = "signer.";
+    private static final String KEY_CERT_PATH_SUFFIX = ".certpath";
+    private static final String KEY_SIGNED_ENTRIES_SUFFIX = ".signed.entries";
+
+    private JarVerificationCache() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns the stored signatures of the jar if the jar has not changed since they have been stored.
+     */
+    static Optional<JarSignatures> load(final File jar) {
+        final Optional<File> verificationFile = Cache.getVerificationFile(jar);
+        if (!verificationFile.isPresent() || !verificationFile.get().isFile()) {
+            return Optional.empty();
+        }
+
+        try {
+            final Properties stored = new Properties();
+            try (final InputStream in = Files.newInputStream(verificationFile.get().toPath())) {
+                stored.load(in);
+            }
+
+            if (!FORMAT_VERSION.equals(stored.getProperty(KEY_VERSION)) || !isSameFile(jar, stored)) {
+                return Optional.empty();
+            }
+            if (!Objects.equals(stored.getProperty(KEY_DIGEST), digestStructure(jar))) {
+                LOG.debug("Structure of {} has changed since last verification", jar);
+                return Optional.empty();
+            }
+
+            final CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            final Map<CertPath, Integer> signedEntries = new LinkedHashMap<>();
+            final int signers = Integer.parseInt(stored.getProperty(KEY_SIGNERS));
+            for (int i = 0; i < signers; i++) {
+                final byte[] encoded = Base64.getDecoder().decode(stored.getProperty(KEY_SIGNER_PREFIX + i + KEY_CERT_PATH_SUFFIX));
+                final CertPath certPath = certificateFactory.generateCertPath(new ByteArrayInputStream(encoded), CERT_PATH_ENCODING);
+                signedEntries.put(certPath, Integer.parseInt(stored.getProperty(KEY_SIGNER_PREFIX + i + KEY_SIGNED_ENTRIES_SUFFIX)));
+            }
+            final int signableEntries = Integer.parseInt(stored.getProperty(KEY_SIGNABLE_ENTRIES));
+
+            LOG.debug("Using stored verification result of {}", jar);
+            return Optional.of(new JarSignatures(signableEntries, signedEntries));
+        } catch (IOException | CertificateException | RuntimeException e) {
+            LOG.debug("Ignoring stored verification result of {} - {}", jar, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the signatures of the jar if the jar is located in the cache.
+     * Failures are ignored as the jar is simply verified again on the next start.
+     */
+    static void store(final File jar, final JarSignatures signatures) {
+        final Optional<File> verificationFile = Cache.getVerificationFile(jar);
+        if (!verificationFile.isPresent()) {
+            return;
+        }
+
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+            final Properties stored = new Properties();
+            stored.setProperty(KEY_VERSION, FORMAT_VERSION);
+            stored.setProperty(KEY_SIZE, Long.toString(attributes.size()));
+            stored.setProperty(KEY_MODIFIED, Long.toString(attributes.lastModifiedTime().toMillis()));
+            stored.setProperty(KEY_FILE_KEY, String.valueOf(attributes.fileKey()));
+            stored.setProperty(KEY_DIGEST, digestStructure(jar));
+            stored.setProperty(KEY_SIGNABLE_ENTRIES, Integer.toString(signatures.getSignableEntries()));
+            stored.setProperty(KEY_SIGNERS, Integer.toString(signatures.getSignedEntries().size()));
+            int i = 0;
+            for (Map.Entry<CertPath, Integer> signer : signatures.getSignedEntries().entrySet()) {
+                final String encoded = Base64.getEncoder().encodeToString(signer.getKey().getEncoded(CERT_PATH_ENCODING));
+                stored.setProperty(KEY_SIGNER_PREFIX + i + KEY_CERT_PATH_SUFFIX, encoded);
+                stored.setProperty(KEY_SIGNER_PREFIX + i + KEY_SIGNED_ENTRIES_SUFFIX, Integer.toString(signer.getValue()));
+                i++;
+            }
+
+            final Path target = verificationFile.get().toPath();
+            final Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                try (final OutputStream out = Files.newOutputStream(tmp)) {
+                    stored.store(out, null);
+                }
+                try {
+                    Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, target, REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | CertificateException | RuntimeException e) {
+            LOG.debug("Could not store verification result of {} - {}", jar, e.getMessage());
+        }
+    }
+
+    private static boolean isSameFile(final File jar, final Properties stored) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+        return Long.toString(attributes.size()).equals(stored.getProperty(KEY_SIZE))
+                && Long.toString(attributes.lastModifiedTime().toMillis()).equals(stored.getProperty(KEY_MODIFIED))
+                && String.valueOf(attributes.fileKey()).equals(stored.getProperty(KEY_FILE_KEY));
+    }
+
+    /**
+     * Digests the central directory of the jar and the content of the manifest and signature files.
+     * Only the central directory and the small files in META-INF are read.
+     */
+    static String digestStructure(final File jar) throws IOException {
+        final MessageDigest digest = newDigest();
+        final byte[] buffer = new byte[8192];
+        try (final JarFile jarFile = JarFilePool.getInstance().open(jar)) {
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                update(digest, entry.getName());
+                update(digest, Long.toString(entry.getSize()));
+                update(digest, Long.toString(entry.getCompressedSize()));
+                update(digest, Long.toString(entry.getCrc()));
+                update(digest, Integer.toString(entry.getMethod()));
+
+                if (JarCertVerifier.isMetaInfFile(entry.getName())) {
+                    try (final InputStream in = new DigestInputStream(jarFile.getInputStream(entry), digest)) {
+                        //noinspection StatementWithEmptyBody
+                        while (in.read(buffer) != -1) {
+                            // digested while reading
+                        }
+                    }
+                }
+            }
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+}
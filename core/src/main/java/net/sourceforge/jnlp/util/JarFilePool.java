@@ -0,0 +1,252 @@
+package net.sourceforge.jnlp.util;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Pool of shared {@link JarFile} handles for the jars in the cache.
+ * <p>
+ * Opening a jar parses its central directory and, for signed jars, the signature files. The pool opens every jar
+ * once and hands the same handle to every consumer. Each handle is reference counted: {@link JarFile#close()} of a
+ * pooled handle only returns it to the pool. Handles which are no longer used by anyone are kept open up to
+ * a limit and are closed once they are the least recently used idle handle beyond that limit.
+ * <p>
+ * Every consumer must close the handle it acquired exactly once.
+ */
+public final class JarFilePool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JarFilePool.class);
+
+    static final int DEFAULT_MAX_IDLE_HANDLES = 32;
+
+    private static final JarFilePool INSTANCE = new JarFilePool(DEFAULT_MAX_IDLE_HANDLES);
+
+    private final int maxIdleHandles;
+
+    private final Map<Key, PooledJarFile> handles = new HashMap<>();
+    private final Map<Key, PooledJarFile> idleHandles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long opened;
+    private long reused;
+    private long parseNanos;
+
+    JarFilePool(final int maxIdleHandles) {
+        this.maxIdleHandles = maxIdleHandles;
+    }
+
+    public static JarFilePool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Acquires the shared handle of the jar. The handle must be closed by the caller.
+     *
+     * @param file the jar
+     * @return a verifying handle of the jar
+     * @throws IOException if the jar cannot be opened
+     */
+    public JarFile open(final File file) throws IOException {
+        return acquire(file, false);
+    }
+
+    /**
+     * Acquires the shared handle of the jar whose manifest does not reveal a {@code Class-Path}.
+     * Such handles are passed to the {@link java.net.URLClassLoader} which would otherwise follow the class path.
+     *
+     * @param file the jar
+     * @return a verifying handle of the jar
+     * @throws IOException if the jar cannot be opened
+     */
+    public JarFile openWithoutClassPath(final File file) throws IOException {
+        return acquire(file, true);
+    }
+
+    private PooledJarFile acquire(final File file, final boolean hideClassPath) throws IOException {
+        final Key key = new Key(file, hideClassPath);
+
+        synchronized (this) {
+            final PooledJarFile existing = handles.get(key);
+            if (existing != null) {
+                reused++;
+                return reference(existing);
+            }
+        }
+
+        final long start = System.nanoTime();
+        final PooledJarFile created = new PooledJarFile(this, key, file, hideClassPath);
+        final long duration = System.nanoTime() - start;
+
+        synchronized (this) {
+            final PooledJarFile existing = handles.get(key);
+            if (existing != null) {
+                // another thread was faster
+                reused++;
+                created.closeHandle();
+                return reference(existing);
+            }
+            opened++;
+            parseNanos += duration;
+            handles.put(key, created);
+            return reference(created);
+        }
+    }
+
+    private PooledJarFile reference(final PooledJarFile handle) {
+        idleHandles.remove(handle.key);
+        handle.references++;
+        return handle;
+    }
+
+    private synchronized void release(final PooledJarFile handle) {
+        if (handle.references <= 0 || handles.get(handle.key) != handle) {
+            return;
+        }
+        handle.references--;
+        if (handle.references == 0) {
+            idleHandles.put(handle.key, handle);
+            evictIdleHandles(maxIdleHandles);
+        }
+    }
+
+    /**
+     * Closes all handles which are not used by anyone. Called before files are removed from the cache.
+     */
+    public void closeIdleHandles() {
+        synchronized (this) {
+            evictIdleHandles(0);
+        }
+    }
+
+    private void evictIdleHandles(final int keep) {
+        final Iterator<PooledJarFile> iterator = idleHandles.values().iterator();
+        while (idleHandles.size() > keep && iterator.hasNext()) {
+            final PooledJarFile eldest = iterator.next();
+            iterator.remove();
+            handles.remove(eldest.key);
+            eldest.closeHandle();
+        }
+    }
+
+    /**
+     * @return the names of the jars which are currently open
+     */
+    public synchronized List<String> getOpenJars() {
+        final List<String> result = new ArrayList<>();
+        handles.keySet().forEach(key -> result.add(key.path));
+        return result;
+    }
+
+    /**
+     * @return a summary of the number of open handles and the time spent in parsing central directories
+     */
+    public synchronized String getMetrics() {
+        return String.format("open=%d idle=%d opened=%d reused=%d parse-time=%dms",
+                handles.size(), idleHandles.size(), opened, reused, NANOSECONDS.toMillis(parseNanos));
+    }
+
+    synchronized int getOpenHandles() {
+        return handles.size();
+    }
+
+    synchronized int getIdleHandles() {
+        return idleHandles.size();
+    }
+
+    /**
+     * Identifies a jar by its canonical path and its state on disk.
+     * A jar which is replaced on disk gets a new handle.
+     */
+    private static class Key {
+        private final String path;
+        private final long lastModified;
+        private final long length;
+        private final boolean hideClassPath;
+
+        Key(final File file, final boolean hideClassPath) throws IOException {
+            final File canonicalFile = file.getCanonicalFile();
+            this.path = canonicalFile.getPath();
+            this.lastModified = canonicalFile.lastModified();
+            this.length = canonicalFile.length();
+            this.hideClassPath = hideClassPath;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return lastModified == key.lastModified &&
+                    length == key.length &&
+                    hideClassPath == key.hideClassPath &&
+                    path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified, length, hideClassPath);
+        }
+    }
+
+    private static class PooledJarFile extends JarFile {
+        private final JarFilePool pool;
+        private final Key key;
+        private final boolean hideClassPath;
+
+        /**
+         * Guarded by the pool.
+         */
+        private int references;
+
+        PooledJarFile(final JarFilePool pool, final Key key, final File file, final boolean hideClassPath) throws IOException {
+            super(file);
+            this.pool = pool;
+            this.key = key;
+            this.hideClassPath = hideClassPath;
+        }
+
+        @Override
+        public Manifest getManifest() throws IOException {
+            final Manifest manifest = super.getManifest();
+            if (!hideClassPath || manifest == null) {
+                return manifest;
+            }
+            final Manifest copy = new Manifest(manifest);
+            copy.getMainAttributes().remove(Attributes.Name.CLASS_PATH);
+            return copy;
+        }
+
+        /**
+         * Returns the handle to the pool.
+         */
+        @Override
+        public void close() {
+            pool.release(this);
+        }
+
+        private void closeHandle() {
+            try {
+                super.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close {} - {}", getName(), e.getMessage());
+            }
+        }
+    }
+}
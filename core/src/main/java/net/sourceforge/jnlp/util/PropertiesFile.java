@@ -199,15 +199,36 @@ public class PropertiesFile {
          *    This is necessary because some filesystems seems only to provide accuracy of the timestamp on the level of seconds!
          */
         if (dirty || lastStore == 0 || currentStore != lastStore || (currentStore == lastStore && currentStore / 1000 == currentTime / 1000)) {
-            try (InputStream s = new FileInputStream(file)) {
-                delegate.clear();
-                delegate.load(s);
-                lastStore = currentStore;
-                dirty = false;
-                return true;
-            } catch (final IOException ex) {
-                LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, ex);
-            }
+            return loadFrom(file, currentStore);
+        }
+        return false;
+    }
+
+    /**
+     * Loads the file backing these properties regardless of its modification timestamp.
+     * Any unsaved changes are discarded.
+     *
+     * @return true, if file was loaded
+     */
+    public boolean forceLoad() {
+        final File file = lockableFile.getFile();
+        if (!file.exists()) {
+            delegate.clear();
+            dirty = false;
+            return false;
+        }
+        return loadFrom(file, file.lastModified());
+    }
+
+    private boolean loadFrom(final File file, final long currentStore) {
+        try (InputStream s = new FileInputStream(file)) {
+            delegate.clear();
+            delegate.load(s);
+            lastStore = currentStore;
+            dirty = false;
+            return true;
+        } catch (final IOException ex) {
+            LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, ex);
         }
         return false;
     }
@@ -258,6 +279,28 @@ public class PropertiesFile {
         }
     }
 
+    /**
+     * Locks the file for reading. Other threads and processes can read the file at the same time.
+     */
+    public void lockShared() {
+        try {
+            lockableFile.lockShared();
+        } catch (final IOException e) {
+            LOG.error("Could not lock " + getStoreFile() + " for reading", e);
+        }
+    }
+
+    /**
+     * Unlocks the file after reading. Does not do anything if not holding the shared lock.
+     */
+    public void unlockShared() {
+        try {
+            lockableFile.unlockShared();
+        } catch (final IOException e) {
+            LOG.error("Could not unlock " + getStoreFile() + " after reading", e);
+        }
+    }
+
     public boolean isHeldByCurrentThread() {
         return lockableFile.isHeldByCurrentThread();
     }
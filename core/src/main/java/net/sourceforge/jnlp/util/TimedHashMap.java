@@ -44,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -55,7 +56,8 @@ import static java.util.Objects.requireNonNull;
  * Simple utility class that extends HashMap by adding an expiry to the entries.
  *
  * This map stores entries, and returns them only if the entries were last accessed within a specified timeout period.
- * Otherwise, null is returned.
+ * Otherwise, null is returned. Optionally the number of entries is bounded, in which case the least recently
+ * accessed entry is removed once the bound is exceeded.
  * 
  * This map does not allow null keys but does allow null values.
  *
@@ -82,7 +84,7 @@ public class TimedHashMap<K, V> implements Map<K, V> {
 
     private static final long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
 
-    private final HashMap<K, TimedEntry<V>> actualMap = new HashMap<>();
+    private final HashMap<K, TimedEntry<V>> actualMap;
     private long timeout = DEFAULT_TIMEOUT;
 
     public TimedHashMap() {
@@ -95,7 +97,29 @@ public class TimedHashMap<K, V> implements Map<K, V> {
      * @param timeout the length of the timeout
      */
     public TimedHashMap(final long timeout, final TimeUnit unit) {
+        this(timeout, unit, 0);
+    }
+
+    /**
+     * Create a new map with a non-default entry timeout period and a maximum number of entries
+     * @param unit the units of the timeout
+     * @param timeout the length of the timeout
+     * @param maxSize the maximum number of entries, 0 for an unbounded map
+     */
+    public TimedHashMap(final long timeout, final TimeUnit unit, final int maxSize) {
         setTimeout(timeout, unit);
+        if (maxSize > 0) {
+            actualMap = new LinkedHashMap<K, TimedEntry<V>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<K, TimedEntry<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        } else {
+            actualMap = new HashMap<>();
+        }
     }
 
     /**
@@ -103,7 +103,8 @@ public final class FileLog  {
             if (LogConfig.getLogConfig().isLegacyLogBasedFileLog()) {
                 s = new LogBasedFileLog(defaultloggerName, getFileName(id), false);
             } else {
-                s = new WriterBasedFileLog(getFileName(id), false);
+                // flushed by the output controller after each batch of messages
+                s = new WriterBasedFileLog(getFileName(id), false, false);
             }
         } catch (Exception ex) {
             LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, ex);
@@ -59,6 +59,7 @@ public class LogConfig {
     private boolean logToStreams;
     private boolean logToSysLog;
     private final boolean legacyLogaAsedFileLog;
+    private final boolean dropDebugOnBufferOverflow;
 
     private LogConfig() {
         DeploymentConfiguration config = JNLPRuntime.getConfiguration();
@@ -72,6 +73,7 @@ public class LogConfig {
         logToSysLog = Boolean.parseBoolean(config.getProperty(ConfigurationConstants.KEY_ENABLE_LOGGING_TOSYSTEMLOG));
         legacyLogaAsedFileLog = Boolean.parseBoolean(config.getProperty(ConfigurationConstants.KEY_ENABLE_LEGACY_LOGBASEDFILELOG));
         logClientAppToFile = Boolean.parseBoolean(config.getProperty(ConfigurationConstants.KEY_ENABLE_APPLICATION_LOGGING_TOFILE));
+        dropDebugOnBufferOverflow = ConfigurationConstants.LOG_BUFFER_OVERFLOW_DROP_DEBUG.equals(config.getProperty(ConfigurationConstants.KEY_LOG_BUFFER_OVERFLOW));
 
         // Get log directory, create it if it doesn't exist. If unable to create and doesn't exist, don't log.
         icedteaLogDir = PathsAndFiles.LOG_DIR.getFullPath();
@@ -153,6 +155,10 @@ public class LogConfig {
         return legacyLogaAsedFileLog;
     }
 
+    boolean isDropDebugOnBufferOverflow() {
+        return dropDebugOnBufferOverflow;
+    }
+
     boolean isLogToFileForClientApp() {
         return logClientAppToFile;
     }
@@ -0,0 +1,88 @@
+package net.sourceforge.jnlp.util.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot with a compare-and-set on the tail and never block, {@link #offer(Object)} fails
+ * if the buffer is full. Every slot carries a sequence number which tells whether it may be written
+ * (sequence equals the position) or read (sequence is one ahead of the position). Calls to {@link #poll()}
+ * must not run concurrently, callers have to serialize them.
+ */
+final class MessageRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param minCapacity the minimal number of elements, rounded up to the next power of two
+     */
+    MessageRingBuffer(final int minCapacity) {
+        if (minCapacity < 1 || minCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + minCapacity);
+        }
+        capacity = Integer.highestOneBit(minCapacity) == minCapacity ? minCapacity : Integer.highestOneBit(minCapacity) << 1;
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(final E element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                // another producer claimed the slot in the meantime
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element or {@code null} if the buffer is empty
+     */
+    E poll() {
+        final long position = head;
+        final int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        final E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    boolean isEmpty() {
+        final long position = head;
+        return sequences.get((int) position & mask) != position + 1;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -43,6 +43,7 @@ import net.adoptopenjdk.icedteaweb.os.OsUtil;
 import net.sourceforge.jnlp.config.PathsAndFiles;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.logging.headers.Header;
+import net.sourceforge.jnlp.util.logging.headers.JavaMessage;
 import net.sourceforge.jnlp.util.logging.headers.MessageWithHeader;
 
 import java.io.BufferedReader;
@@ -51,8 +52,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static java.util.Objects.requireNonNull;
 
@@ -61,6 +65,13 @@ import static java.util.Objects.requireNonNull;
  *
  * OutputController class (thread) must NOT call JNLPRuntime.getConfiguration()
  *
+ * Messages are put into a bounded ring buffer without taking a lock and are written by the consumer thread
+ * in batches. File logs are flushed once per batch instead of once per message. If the buffer is full, debug
+ * messages are dropped when configured so, all other messages wait until the consumer made room. Until the
+ * consumer runs, and for messages logged by the consumer itself, a full buffer spills into an unbounded queue.
+ * As long as this queue is not empty all new messages are appended to it, so messages are written in the order
+ * they have been logged.
+ *
  */
 public class OutputController extends BasicOutputController {
 
@@ -68,7 +79,23 @@ public class OutputController extends BasicOutputController {
 
     private final PrintStreamLogger outLog;
     private final PrintStreamLogger errLog;
-    private final List<MessageWithHeader> messageQue = new LinkedList<>();
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final long MAX_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long FULL_BUFFER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final MessageRingBuffer<MessageWithHeader> messageQue = new MessageRingBuffer<>(BUFFER_CAPACITY);
+    /* messages which could not wait for room in the full buffer */
+    private final Queue<MessageWithHeader> overflowQue = new ConcurrentLinkedQueue<>();
+    /* serializes the consumers of the message queue */
+    private final Object consumerLock = new Object();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private volatile boolean consumerParked;
+    private volatile boolean consumerRunning;
+    private volatile boolean dropDebugOnOverflow;
+    /* whether the file logs were written since they were flushed, guarded by the consumer lock */
+    private boolean fileLogWritten;
+    private boolean appFileLogWritten;
     //itw logger have to be fully initialised before start
     private final Thread consumerThread = new Thread(new MessageQueConsumer(), "Output controller consumer daemon");
     private final Thread shutdownThread = new Thread(this::flush);
@@ -81,15 +108,18 @@ public class OutputController extends BasicOutputController {
 
         @Override
         public void run() {
+            // read here as the log config may still be initializing while the consumer is started
+            dropDebugOnOverflow = LogConfig.getLogConfig().isDropDebugOnBufferOverflow();
+            consumerRunning = true;
             while (true) {
                 try {
-                    synchronized (OutputController.this) {
-                        if (!messageQue.isEmpty()) {
-                            flush();
-                        }
-                        OutputController.this.wait(1000);
+                    flush();
+                    consumerParked = true;
+                    // re-check after announcing the park, a producer may have missed the flag
+                    if (messageQue.isEmpty() && overflowQue.isEmpty()) {
+                        LockSupport.parkNanos(OutputController.this, MAX_PARK_NANOS);
                     }
-
+                    consumerParked = false;
                 } catch (Throwable t) {
                     // we must not use the logging framework as this would add a new message to the queue
                     // which most likely will end also in this catch block thus creating an endless loop
@@ -105,16 +135,42 @@ public class OutputController extends BasicOutputController {
         }
     }
 
-    public synchronized void flush() {
+    public void flush() {
+        synchronized (consumerLock) {
+            int batch = 0;
+            MessageWithHeader message;
+            while ((message = messageQue.poll()) != null || (message = overflowQue.poll()) != null) {
+                consume(message);
+                if (++batch == BATCH_SIZE) {
+                    flushFileLogs();
+                    batch = 0;
+                }
+            }
+            reportDroppedMessages();
+            flushFileLogs();
+        }
+    }
 
-        while (!messageQue.isEmpty()) {
-            consume();
+    private void flushFileLogs() {
+        if (fileLogWritten) {
+            fileLogWritten = false;
+            getFileLog().flush();
+        }
+        if (appFileLogWritten) {
+            appFileLogWritten = false;
+            getAppFileLog().flush();
         }
     }
 
-    private void consume() {
-        final MessageWithHeader message = messageQue.remove(0);
+    private void reportDroppedMessages() {
+        final long dropped = droppedMessages.getAndSet(0);
+        if (dropped > 0) {
+            final Header header = new Header(OutputControllerLevel.WARNING_ALL, OutputController.class.getName());
+            consume(new JavaMessage(header, dropped + " debug messages were dropped because the log buffer was full"));
+        }
+    }
 
+    private void consume(final MessageWithHeader message) {
         if (LogConfig.getLogConfig().isLogToConsole() && javaConsoleInitialized) {
             //filtering is done in console during runtime
             JavaConsole.getConsole().addMessage(message);
@@ -131,6 +187,7 @@ public class OutputController extends BasicOutputController {
         final LogConfig logConfig = LogConfig.getLogConfig();
         if (logConfig.isLogToFile() && logConfig.isLogToFileForClientApp()) {
             getAppFileLog().log(convertToPrintableString(message, logConfig));
+            appFileLogWritten = true;
         }
     }
 
@@ -156,6 +213,7 @@ public class OutputController extends BasicOutputController {
 
         if (logConfig.isLogToFile()) {
             getFileLog().log(messageString);
+            fileLogWritten = true;
         }
 
         //only crucial stuff is going to system log
@@ -267,9 +325,28 @@ public class OutputController extends BasicOutputController {
     }
 
     @Override
-    public synchronized void log(MessageWithHeader l){
-        messageQue.add(l);
-        this.notifyAll();
+    public void log(MessageWithHeader l){
+        if (!overflowQue.isEmpty()) {
+            // queue up behind the spilled messages, they are older than anything the buffer may have room for now
+            overflowQue.add(l);
+        } else {
+            while (!messageQue.offer(l)) {
+                if (dropDebugOnOverflow && l.getHeader().level.isDebug()) {
+                    droppedMessages.incrementAndGet();
+                    return;
+                }
+                if (!consumerRunning || Thread.holdsLock(consumerLock)) {
+                    // nobody would make room: the consumer is not running yet or we are the consumer
+                    overflowQue.add(l);
+                    break;
+                }
+                LockSupport.unpark(consumerThread);
+                LockSupport.parkNanos(this, FULL_BUFFER_PARK_NANOS);
+            }
+        }
+        if (consumerParked) {
+            LockSupport.unpark(consumerThread);
+        }
     }
 
 
@@ -348,6 +425,10 @@ public class OutputController extends BasicOutputController {
         FileLogHolder.INSTANCE = fileLog;
     }
 
+    void setDropDebugOnOverflow(boolean dropDebugOnOverflow) {
+        this.dropDebugOnOverflow = dropDebugOnOverflow;
+    }
+
     public synchronized String readLine() throws IOException {
         if (br == null) {
             br = new BufferedReader(new InputStreamReader(System.in));
@@ -40,6 +40,12 @@ public interface SingleStreamLogger extends AutoCloseable {
 
     void log(String s);
 
+    /**
+     * Writes out messages which were buffered by {@link #log(String)}.
+     */
+    default void flush() {
+    }
+
     @Override
     void close();
 
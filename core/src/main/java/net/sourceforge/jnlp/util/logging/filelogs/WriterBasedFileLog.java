@@ -53,8 +53,17 @@ import java.nio.charset.StandardCharsets;
 public final class WriterBasedFileLog implements SingleStreamLogger {
 
     private final BufferedWriter bw;
+    private final boolean autoFlush;
 
     public WriterBasedFileLog(String fileName, boolean append) {
+        this(fileName, append, true);
+    }
+
+    /**
+     * @param autoFlush if false, logged messages are buffered until {@link #flush()} is called
+     */
+    public WriterBasedFileLog(String fileName, boolean append, boolean autoFlush) {
+        this.autoFlush = autoFlush;
         try {
             File futureFile = new File(fileName);
             if (!futureFile.exists()) {
@@ -79,6 +88,17 @@ public final class WriterBasedFileLog implements SingleStreamLogger {
             if (!s.endsWith("\n")) {
                 bw.newLine();
             }
+            if (autoFlush) {
+                bw.flush();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
             bw.flush();
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -95,27 +95,18 @@ function localHostOrDomainIs(host, hostdom) {
  * Returns true if the host name can be resolved.
  */
 function isResolvable(host) {
-    try {
-        java.net.InetAddress.getByName(host);
-        return true;
-    } catch (e) {
-        //if (e.javaException instanceof java.net.UnknownHostException) {
-        	return false;
-        //} else {
-        // 	throw e;
-        //}
-    }
+    return dnsResolve(host) !== null;
 }
 
 /**
  * Return true if the ip address of the host matches the pattern given the mask.
  */
 function isInNet(host, pattern, mask) {
-    if (!isResolvable(host)) {
+    var hostIp = dnsResolve(host);
+    if (hostIp === null) {
         return false;
     }
 
-    var hostIp = dnsResolve(host);
     var hostParts = hostIp.split(".");
     var patternParts = pattern.split(".");
     var maskParts = mask.split(".");
@@ -136,17 +127,20 @@ function isInNet(host, pattern, mask) {
 }
 
 /**
- * Returns the IP address of the host as a string
+ * Returns the IP address of the host as a string or null if the host can not be resolved.
+ * Resolutions are cached by the evaluator, see PacDnsCache.
  */
 function dnsResolve(host) {
-    return java.net.InetAddress.getByName(host).getHostAddress() + "";
+    var address = icedTeaWebDnsCache.resolve(host);
+    return address === null ? null : address + "";
 }
 
 /**
  * Returns the local IP address
  */
 function myIpAddress() {
-    return java.net.InetAddress.getLocalHost().getHostAddress() + "";
+    var address = icedTeaWebDnsCache.getLocalAddress();
+    return address === null ? "127.0.0.1" : address + "";
 }
 
 /**
@@ -0,0 +1,194 @@
+package net.adoptopenjdk.icedteaweb.lockingfile;
+
+import net.adoptopenjdk.icedteaweb.os.OsUtil;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the thread and process locks of {@link LockableFile}.
+ * The process locks are probed from a second JVM as a JVM cannot observe its own file locks.
+ */
+public class LockableFileTest {
+
+    private static final int LOCKED = 0;
+    private static final int NOT_LOCKED = 1;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+    private LockableFile lockableFile;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeFalse("process locks are not used on windows", OsUtil.isWindows());
+        file = temporaryFolder.newFile("lockingFile");
+        lockableFile = LockableFile.getInstance(file);
+    }
+
+    @Test
+    public void testSharedLockCanBeHeldByMultipleThreads() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch bothLocked = new CountDownLatch(2);
+            final Runnable reader = () -> {
+                try {
+                    lockableFile.lockShared();
+                    try {
+                        bothLocked.countDown();
+                        assertTrue(bothLocked.await(5, TimeUnit.SECONDS));
+                    } finally {
+                        lockableFile.unlockShared();
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            };
+            final Future<?> first = executor.submit(reader);
+            final Future<?> second = executor.submit(reader);
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExclusiveLockWaitsForSharedLock() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            lockableFile.lockShared();
+            assertFalse(executor.submit(this::tryLockAndUnlock).get(5, TimeUnit.SECONDS));
+            lockableFile.unlockShared();
+
+            assertTrue(executor.submit(this::tryLockAndUnlock).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSharedLockAllowsSharedLockOfOtherProcess() throws Exception {
+        lockableFile.lockShared();
+        try {
+            assertTrue(canLockInOtherProcess(true));
+            assertFalse(canLockInOtherProcess(false));
+        } finally {
+            lockableFile.unlockShared();
+        }
+        assertTrue(canLockInOtherProcess(false));
+    }
+
+    @Test
+    public void testExclusiveLockBlocksOtherProcess() throws Exception {
+        lockableFile.lock();
+        try {
+            assertFalse(canLockInOtherProcess(true));
+            assertFalse(canLockInOtherProcess(false));
+        } finally {
+            lockableFile.unlock();
+        }
+        assertTrue(canLockInOtherProcess(true));
+    }
+
+    @Test
+    public void testSharedLockWhileHoldingExclusiveLock() throws Exception {
+        lockableFile.lock();
+        lockableFile.lockShared();
+        assertTrue(lockableFile.isReadableByCurrentThread());
+        assertFalse("shared lock must not downgrade the exclusive process lock", canLockInOtherProcess(true));
+
+        lockableFile.unlockShared();
+        assertTrue(lockableFile.isHeldByCurrentThread());
+        assertFalse("exclusive process lock must be kept until unlock", canLockInOtherProcess(true));
+
+        lockableFile.unlock();
+        assertFalse(lockableFile.isReadableByCurrentThread());
+        assertTrue(canLockInOtherProcess(false));
+    }
+
+    @Test
+    public void testProcessLockIsReleasedWithLastSharedLock() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch locked = new CountDownLatch(1);
+            final Future<?> otherReader = executor.submit(() -> {
+                lockableFile.lockShared();
+                try {
+                    locked.countDown();
+                    release.await();
+                } finally {
+                    lockableFile.unlockShared();
+                }
+                return null;
+            });
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            lockableFile.lockShared();
+            lockableFile.unlockShared();
+            assertFalse("process lock released while another thread holds a shared lock", canLockInOtherProcess(false));
+
+            release.countDown();
+            otherReader.get(5, TimeUnit.SECONDS);
+            assertTrue(canLockInOtherProcess(false));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean tryLockAndUnlock() throws IOException {
+        final boolean locked = lockableFile.tryLock();
+        if (locked) {
+            lockableFile.unlock();
+        }
+        return locked;
+    }
+
+    private boolean canLockInOtherProcess(final boolean shared) throws Exception {
+        final String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final Process process = new ProcessBuilder(javaExecutable, "-cp", System.getProperty("java.class.path"),
+                LockProbe.class.getName(), file.getAbsolutePath(), Boolean.toString(shared))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        assertTrue("lock probe did not terminate", process.waitFor(30, TimeUnit.SECONDS));
+        final int exitValue = process.exitValue();
+        assertTrue("lock probe failed with " + exitValue, exitValue == LOCKED || exitValue == NOT_LOCKED);
+        return exitValue == LOCKED;
+    }
+
+    /**
+     * Tries to lock the file passed as first argument without waiting.
+     * Exits with {@link #LOCKED} if the lock could be acquired, {@link #NOT_LOCKED} otherwise.
+     */
+    public static class LockProbe {
+        public static void main(final String[] args) throws IOException {
+            final boolean shared = Boolean.parseBoolean(args[1]);
+            try (final RandomAccessFile randomAccessFile = new RandomAccessFile(args[0], shared ? "r" : "rw")) {
+                final FileLock lock = randomAccessFile.getChannel().tryLock(0L, Long.MAX_VALUE, shared);
+                if (lock == null) {
+                    System.exit(NOT_LOCKED);
+                }
+                lock.release();
+            }
+            System.exit(LOCKED);
+        }
+    }
+}
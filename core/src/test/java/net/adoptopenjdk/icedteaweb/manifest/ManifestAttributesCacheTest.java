@@ -0,0 +1,85 @@
+package net.adoptopenjdk.icedteaweb.manifest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.jar.Attributes;
+import java.util.jar.Attributes.Name;
+import java.util.jar.Manifest;
+
+import static java.util.Collections.singletonMap;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ManifestAttributesCacheTest {
+
+    private static final Name PERMISSIONS = new Name(ManifestAttributes.PERMISSIONS.toString());
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void manifestIsReadOncePerJar() throws IOException {
+        final File jar = createJar("Main", "all-permissions");
+        final ManifestAttributesCache cache = new ManifestAttributesCache();
+
+        assertEquals("Main", cache.getAttribute(jar, Name.MAIN_CLASS));
+        assertEquals("all-permissions", cache.getAttribute(jar, PERMISSIONS));
+        assertNull(cache.getAttribute(jar, Name.CLASS_PATH));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void replacedJarIsReadAgain() throws IOException {
+        final File jar = createJar("Main", "sandbox");
+        final ManifestAttributesCache cache = new ManifestAttributesCache();
+        assertEquals("Main", cache.getAttribute(jar, Name.MAIN_CLASS));
+
+        writeJar(jar, "net.example.OtherMain", "sandbox");
+
+        assertEquals("net.example.OtherMain", cache.getAttribute(jar, Name.MAIN_CLASS));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void jarWithoutManifestHasNoAttributes() throws IOException {
+        final File jar = temporaryFolder.newFile("plain.jar");
+        createJarWithContents(jar, null, singletonMap("a.txt", new byte[0]));
+        final ManifestAttributesCache cache = new ManifestAttributesCache();
+
+        assertNull(cache.getAttribute(jar, Name.MAIN_CLASS));
+    }
+
+    @Test
+    public void numberOfCachedManifestsIsBounded() throws IOException {
+        final ManifestAttributesCache cache = new ManifestAttributesCache();
+        final File jar = createJar("Main", "sandbox");
+        for (int i = 0; i <= ManifestAttributesCache.MAX_ENTRIES; i++) {
+            final File copy = new File(jar.getParentFile(), "copy" + i + ".jar");
+            Files.copy(jar.toPath(), copy.toPath());
+            assertEquals("Main", cache.getAttribute(copy, Name.MAIN_CLASS));
+        }
+
+        assertEquals(ManifestAttributesCache.MAX_ENTRIES, cache.size());
+    }
+
+    private File createJar(final String mainClass, final String permissions) throws IOException {
+        final File jar = temporaryFolder.newFile();
+        writeJar(jar, mainClass, permissions);
+        return jar;
+    }
+
+    private static void writeJar(final File jar, final String mainClass, final String permissions) throws IOException {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Name.MANIFEST_VERSION, "1.0");
+        attributes.put(Name.MAIN_CLASS, mainClass);
+        attributes.put(PERMISSIONS, permissions);
+        createJarWithContents(jar, manifest, singletonMap("a.txt", new byte[0]));
+    }
+}
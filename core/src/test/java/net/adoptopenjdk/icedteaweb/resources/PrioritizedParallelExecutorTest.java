@@ -0,0 +1,166 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrioritizedParallelExecutorTest {
+
+    private ExecutorService threadPool;
+    private PrioritizedParallelExecutor executor;
+
+    @Before
+    public void setUp() {
+        threadPool = Executors.newFixedThreadPool(4);
+        executor = new PrioritizedParallelExecutor(threadPool);
+    }
+
+    @After
+    public void tearDown() {
+        threadPool.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoCallables() {
+        executor.getSuccessfulResultWithHighestPriority(Collections.emptyList());
+    }
+
+    @Test
+    public void testHighestPriorityWinsEvenIfSlower() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> {
+                    Thread.sleep(200);
+                    return "first";
+                },
+                () -> "second"
+        );
+
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("first", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLowerPriorityIsUsedIfHigherPriorityFails() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> {
+                    throw new RuntimeException("failed");
+                },
+                () -> "second",
+                () -> "third"
+        );
+
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("second", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCallablesAreStartedInParallel() throws Exception {
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        final Callable<String> waitForOthers = () -> {
+            allStarted.countDown();
+            if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                throw new RuntimeException("not started in parallel");
+            }
+            return Thread.currentThread().getName();
+        };
+
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(Arrays.asList(waitForOthers, waitForOthers, waitForOthers));
+
+        result.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testLowerPriorityIsCanceledOnSuccess() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> {
+                    started.await(5, TimeUnit.SECONDS);
+                    return "first";
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "second";
+                }
+        );
+
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("first", result.get(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testErrorCompletesResult() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> {
+                    throw new LinkageError("first failed");
+                },
+                () -> "second"
+        );
+
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("second", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testErrorOfOnlyCallableIsReported() throws Exception {
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(Collections.singletonList(() -> {
+            throw new LinkageError("failed");
+        }));
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof LinkageError);
+            return;
+        }
+        throw new AssertionError("expected an ExecutionException");
+    }
+
+    @Test
+    public void testAllCallablesFail() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> {
+                    throw new RuntimeException("first failed");
+                },
+                () -> {
+                    throw new RuntimeException("second failed");
+                }
+        );
+
+        final Future<String> result = executor.getSuccessfulResultWithHighestPriority(callables);
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            final String message = e.getCause().getMessage();
+            assertTrue(message.contains("first failed"));
+            assertTrue(message.contains("second failed"));
+            return;
+        }
+        throw new AssertionError("expected an ExecutionException");
+    }
+}
@@ -0,0 +1,279 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
+import net.adoptopenjdk.icedteaweb.resources.downloader.ResourceDownloader;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import net.sourceforge.jnlp.util.logging.NoStdOutErrTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestName;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.ETAG_HEADER;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.IF_NONE_MATCH_HEADER;
+import static net.adoptopenjdk.icedteaweb.resources.Resource.Status.DOWNLOADED;
+import static net.adoptopenjdk.icedteaweb.resources.Resource.Status.ERROR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests how {@link ResourceDownloader} chooses between the candidate urls of a resource.
+ */
+public class ResourceDownloaderTest extends NoStdOutErrTest {
+
+    private static final long SLOW_RESPONSE_MILLIS = 500;
+    private static final int TRICKLE_CHUNKS = 20;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private final CountDownLatch endlessDownloadAborted = new CountDownLatch(1);
+
+    private final AtomicReference<String> revisedContent = new AtomicReference<>("v1");
+    private final AtomicInteger revisedRequests = new AtomicInteger();
+    private final AtomicInteger revisedNotModified = new AtomicInteger();
+
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+
+    private HttpServer server;
+    private String cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = PathsAndFiles.CACHE_DIR.getFullPath();
+        PathsAndFiles.CACHE_DIR.setValue(temporaryFolder.newFolder().getCanonicalPath());
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/fast/", exchange -> respond(exchange, "fast"));
+        server.createContext("/slow/", exchange -> {
+            sleep(SLOW_RESPONSE_MILLIS);
+            respond(exchange, "slow");
+        });
+        server.createContext("/missing/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/endless/", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (final OutputStream body = exchange.getResponseBody()) {
+                while (true) {
+                    body.write(new byte[1024]);
+                    body.flush();
+                    sleep(20);
+                }
+            } catch (IOException e) {
+                endlessDownloadAborted.countDown();
+            }
+        });
+        server.createContext("/trickle/", exchange -> {
+            exchange.sendResponseHeaders(200, TRICKLE_CHUNKS * 1024);
+            try (final OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < TRICKLE_CHUNKS; i++) {
+                    body.write(new byte[1024]);
+                    body.flush();
+                    sleep(50);
+                }
+            }
+        });
+        server.createContext("/revised/", exchange -> {
+            revisedRequests.incrementAndGet();
+            final String content = revisedContent.get();
+            final String eTag = "\"" + content + "\"";
+            exchange.getResponseHeaders().add(ETAG_HEADER, eTag);
+            if (eTag.equals(exchange.getRequestHeaders().getFirst(IF_NONE_MATCH_HEADER))) {
+                revisedNotModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, content);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        PathsAndFiles.CACHE_DIR.setValue(cacheDir);
+    }
+
+    @Test
+    public void higherPriorityCandidateWinsOverFasterCandidate() throws Exception {
+        final Resource resource = createResource();
+
+        ResourceDownloader.of(resource, Arrays.asList(url("slow"), url("fast"))).download();
+
+        assertTrue(resource.isSet(DOWNLOADED));
+        assertEquals("slow", read(resource.getLocalFile()));
+    }
+
+    @Test
+    public void lowerPriorityCandidateWinsIfHigherPriorityCandidateFails() throws Exception {
+        final Resource resource = createResource();
+
+        ResourceDownloader.of(resource, Arrays.asList(url("missing"), url("slow"))).download();
+
+        assertTrue(resource.isSet(DOWNLOADED));
+        assertEquals("slow", read(resource.getLocalFile()));
+    }
+
+    @Test
+    public void failsIfAllCandidatesFail() throws Exception {
+        final Resource resource = createResource();
+
+        ResourceDownloader.of(resource, Arrays.asList(url("missing"), url("missing"))).download();
+
+        assertTrue(resource.isSet(ERROR));
+    }
+
+    @Test
+    public void lowerPriorityCandidateIsAbortedOnceHigherPriorityCandidateCompleted() throws Exception {
+        final Resource resource = createResource();
+
+        ResourceDownloader.of(resource, Arrays.asList(url("fast"), url("endless"))).download();
+
+        assertEquals("fast", read(resource.getLocalFile()));
+        assertTrue("endless download was not aborted", endlessDownloadAborted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void progressIsPublishedByOneCandidateOnly() throws Exception {
+        final Resource resource = createResource();
+        final List<Long> published = new CopyOnWriteArrayList<>();
+        resource.addProgressListener((location, transferred, size, complete) -> {
+            if (!complete) {
+                published.add(transferred);
+            }
+        });
+
+        ResourceDownloader.of(resource, Arrays.asList(url("trickle"), url("endless"))).download();
+
+        assertTrue(resource.isSet(DOWNLOADED));
+        assertEquals(TRICKLE_CHUNKS * 1024, resource.getTransferred());
+        for (int i = 1; i < published.size(); i++) {
+            assertTrue("progress went back in " + published, published.get(i - 1) <= published.get(i));
+        }
+    }
+
+    @Test
+    public void temporaryFilesOfAllCandidatesAreRemoved() throws Exception {
+        final Resource resource = createResource();
+
+        ResourceDownloader.of(resource, Arrays.asList(url("slow"), url("fast"), url("endless"))).download();
+
+        assertEquals("slow", read(resource.getLocalFile()));
+        assertTrue("endless download was not aborted", endlessDownloadAborted.await(10, TimeUnit.SECONDS));
+        assertDownloadDirBecomesEmpty();
+    }
+
+    @Test
+    public void notModifiedResponseCompletesFromCache() throws Exception {
+        final Resource resource = createResource();
+        ResourceDownloader.of(resource, singletonList(url("revised"))).download();
+        final File cacheFile = resource.getLocalFile();
+
+        ResourceDownloader.of(resource, singletonList(url("revised"))).download();
+
+        assertTrue(resource.isSet(DOWNLOADED));
+        assertEquals(2, revisedRequests.get());
+        assertEquals(1, revisedNotModified.get());
+        assertEquals(cacheFile, resource.getLocalFile());
+        assertEquals("v1", read(resource.getLocalFile()));
+    }
+
+    @Test
+    public void modifiedResponseReplacesCachedContent() throws Exception {
+        final Resource resource = createResource();
+        ResourceDownloader.of(resource, singletonList(url("revised"))).download();
+        revisedContent.set("v2");
+
+        ResourceDownloader.of(resource, singletonList(url("revised"))).download();
+
+        assertTrue(resource.isSet(DOWNLOADED));
+        assertEquals(0, revisedNotModified.get());
+        assertEquals("v2", read(resource.getLocalFile()));
+        final ResourceInfo info = Cache.getInfo(resource.getLocation(), null);
+        assertEquals("\"v2\"", info.getETag());
+        assertEquals(url("revised"), info.getDownloadUrl());
+    }
+
+    @Test
+    public void fallbackUrlsAreOnlyUsedIfAllDownloadUrlsFail() throws Exception {
+        final Resource resource = createResource();
+
+        ResourceDownloader.of(resource, singletonList(url("missing")), singletonList(url("fast"))).download();
+        assertEquals("fast", read(resource.getLocalFile()));
+
+        ResourceDownloader.of(resource, singletonList(url("slow")), singletonList(url("fast"))).download();
+        assertEquals("slow", read(resource.getLocalFile()));
+    }
+
+    private Resource createResource() throws IOException {
+        return Resource.createResource(url(testName.getMethodName()), null, null, UpdatePolicy.NEVER);
+    }
+
+    private URL url(final String context) throws IOException {
+        final String path = "/" + context + "/" + testName.getMethodName() + ".jar";
+        return new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), path);
+    }
+
+    private static void assertDownloadDirBecomesEmpty() throws InterruptedException {
+        final File downloadDir = new File(PathsAndFiles.CACHE_DIR.getFullPath(), "download");
+        final long deadline = System.currentTimeMillis() + 10_000;
+        String[] files = downloadDir.list();
+        while (files != null && files.length > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            files = downloadDir.list();
+        }
+        assertEquals("left over download files: " + Arrays.toString(files), 0, files == null ? 0 : files.length);
+    }
+
+    private static void respond(final HttpExchange exchange, final String content) throws IOException {
+        final byte[] bytes = content.getBytes(UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (final OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), UTF_8);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
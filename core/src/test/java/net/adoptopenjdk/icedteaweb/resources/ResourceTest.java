@@ -43,6 +43,9 @@ import org.junit.Test;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -88,6 +91,31 @@ public class ResourceTest {
         assertTrue("Resource should not have had any status flags set", res.isSet(Resource.Status.INCOMPLETE));
     }
 
+    @Test
+    public void testProgressListenerIsNotifiedAboutChanges() throws Exception {
+        final URL url = new URL("http://example.com/progress.jar");
+        final Resource res = Resource.createResource(url, null, DownloadOptions.NONE, UpdatePolicy.ALWAYS);
+        final List<String> events = new ArrayList<>();
+        final ResourceProgressListener listener = (location, transferred, size, complete) -> {
+            assertEquals(url, location);
+            events.add(transferred + "/" + size + (complete ? " complete" : ""));
+        };
+
+        res.addProgressListener(listener);
+        try {
+            res.setSize(100);
+            res.setTransferred(40);
+            res.setTransferred(40);
+            res.setStatus(Resource.Status.DOWNLOADED);
+            res.setTransferred(100);
+        } finally {
+            res.removeProgressListener(listener);
+        }
+        res.setTransferred(0);
+
+        assertEquals(Arrays.asList("0/100", "40/100", "40/100 complete", "100/100 complete"), events);
+    }
+
     private static Resource createResource() throws MalformedURLException {
         final URL dummyUrl = new URL("http://example.com/applet.jar");
         return Resource.createResource(dummyUrl, VersionString.fromString("1.0"), DownloadOptions.NONE, UpdatePolicy.ALWAYS);
@@ -53,6 +53,7 @@ import java.net.URL;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class CacheEntryTest {
@@ -108,6 +109,18 @@ public class CacheEntryTest {
         assertEquals(CONTENT_LENGTH, secondEntry.getSize());
     }
 
+    @Test
+    public void verifyETagIsStored() {
+        final CacheEntry firstEntry = createEntry();
+        assertNull(firstEntry.getETag());
+
+        firstEntry.storeInfo(downloadedAt, cacheFile.lastModified(), "\"abc\"", cacheFile.length());
+        assertEquals("\"abc\"", createEntry().getETag());
+
+        firstEntry.storeInfo(downloadedAt, cacheFile.lastModified(), cacheFile.length());
+        assertNull(createEntry().getETag());
+    }
+
     @Test
     public void verifyCachedIfFileExistsAndLengthIsSame() {
         final CacheEntry entry = createEntry();
@@ -184,6 +184,147 @@ public class LeastRecentlyUsedCacheIndexHolderTest {
         assertFalse(entryTwo.isPresent());
     }
 
+    @Test
+    public void testSmallChangeIsWrittenToJournal() throws InterruptedException {
+        holder.runSynchronized(idx -> idx.createEntry(url, version, "1-1"));
+        final long lmBefore = recentlyUsedFile.lastModified();
+        final File journalFile = new LeastRecentlyUsedCacheJournal(recentlyUsedFile).getFile();
+        final long journalLengthBefore = journalFile.length();
+
+        // required as file system only stores seconds in lastModified()
+        Thread.sleep(1010);
+
+        holder.runSynchronized(idx -> idx.createEntry(url, VersionId.fromString("2.0"), "1-2"));
+        final long lmAfter = recentlyUsedFile.lastModified();
+
+        assertEquals("modification timestamp has changed! Before = " + lmBefore + " After = " + lmAfter, lmBefore, lmAfter);
+        assertTrue(journalFile.length() > journalLengthBefore);
+    }
+
+    @Test
+    public void testChangesAreVisibleToOtherHolder() {
+        final LeastRecentlyUsedCacheIndexHolder otherHolder = new LeastRecentlyUsedCacheIndexHolder(new DummyInfrastructureFileDescriptor(recentlyUsedFile));
+        holder.runSynchronized(idx -> idx.createEntry(url, version, entryId));
+        assertTrue(otherHolder.getSynchronized(idx -> idx.find(url, version)).isPresent());
+
+        holder.runSynchronized(idx -> idx.createEntry(url, VersionId.fromString("2.0"), "1-2"));
+        assertTrue(otherHolder.getSynchronized(idx -> idx.find(url, VersionId.fromString("2.0"))).isPresent());
+
+        otherHolder.runSynchronized(idx -> idx.removeEntry(url, version));
+        assertFalse(holder.getSynchronized(idx -> idx.find(url, version)).isPresent());
+        assertTrue(holder.getSynchronized(idx -> idx.find(url, VersionId.fromString("2.0"))).isPresent());
+    }
+
+    @Test
+    public void testAllocationCursorIsStoredWithIndex() {
+        holder.runSynchronized(idx -> {
+            idx.createEntry(url, version, entryId);
+            idx.setAllocationCursor(42);
+        });
+
+        final LeastRecentlyUsedCacheIndexHolder otherHolder = new LeastRecentlyUsedCacheIndexHolder(new DummyInfrastructureFileDescriptor(recentlyUsedFile));
+        assertEquals(42, otherHolder.getSynchronized(LeastRecentlyUsedCacheIndex::getAllocationCursor).intValue());
+        assertEquals(1, otherHolder.getSynchronized(LeastRecentlyUsedCacheIndex::getAllEntries).size());
+
+        final PropertiesFile propertiesFile = new PropertiesFile(recentlyUsedFile);
+        propertiesFile.load();
+        propertiesFile.setProperty(LeastRecentlyUsedCacheIndex.KEY_ALLOCATION_CURSOR, "42");
+        assertFalse(convertPropertiesToEntries(propertiesFile).propertiesNeedToBeStored);
+    }
+
+    @Test
+    public void testFindForReading() {
+        holder.runSynchronized(idx -> idx.createEntry(url, version, entryId));
+        final Optional<LeastRecentlyUsedCacheEntry> entry = holder.getSynchronizedForReading(idx -> idx.find(url, version));
+        assertTrue(entry.isPresent());
+        assertEquals(entryId, entry.get().getId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testModificationForReadingFails() {
+        holder.getSynchronizedForReading(idx -> idx.createEntry(url, version, entryId));
+    }
+
+    @Test
+    public void testSizesAreStoredWithIndex() throws InterruptedException {
+        createTwoEntries(holder);
+        holder.runSynchronized(idx -> {
+            idx.setSize("1-1", 100);
+            idx.setSize("1-2", 50);
+        });
+
+        final LeastRecentlyUsedCacheIndexHolder otherHolder = new LeastRecentlyUsedCacheIndexHolder(new DummyInfrastructureFileDescriptor(recentlyUsedFile));
+        assertEquals(150, otherHolder.getSynchronized(LeastRecentlyUsedCacheIndex::getTotalSize).longValue());
+        assertTrue(otherHolder.getSynchronized(LeastRecentlyUsedCacheIndex::getEntriesWithUnknownSize).isEmpty());
+
+        holder.runSynchronized(idx -> idx.removeEntry(url, version));
+        assertEquals(50, otherHolder.getSynchronized(LeastRecentlyUsedCacheIndex::getTotalSize).longValue());
+    }
+
+    @Test
+    public void testEntriesWithUnknownSize() throws InterruptedException {
+        createTwoEntries(holder);
+        holder.runSynchronized(idx -> idx.setSize("1-2", 50));
+
+        final List<LeastRecentlyUsedCacheEntry> unknown = holder.getSynchronized(LeastRecentlyUsedCacheIndex::getEntriesWithUnknownSize);
+        assertEquals(1, unknown.size());
+        assertEquals("1-1", unknown.get(0).getId());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws InterruptedException {
+        createTwoEntries(holder);
+        holder.runSynchronized(idx -> idx.createEntry(url, VersionId.fromString("3.0"), "1-3"));
+        holder.runSynchronized(idx -> {
+            idx.setSize("1-1", 100);
+            idx.setSize("1-2", 50);
+            idx.setSize("1-3", 10);
+        });
+
+        assertTrue(holder.getSynchronized(idx -> idx.getEntriesToEvict(160)).isEmpty());
+
+        final List<String> evicted = holder.getSynchronized(idx -> idx.getEntriesToEvict(60)).stream()
+                .map(LeastRecentlyUsedCacheEntry::getId)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("1-1"), evicted);
+
+        final List<String> allEvicted = holder.getSynchronized(idx -> idx.getEntriesToEvict(0)).stream()
+                .map(LeastRecentlyUsedCacheEntry::getId)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("1-1", "1-2", "1-3"), allEvicted);
+    }
+
+    @Test
+    public void testDeferredAccessIsOnlyWrittenOnRequest() throws InterruptedException {
+        final LeastRecentlyUsedCacheIndexHolder deferredHolder = createDeferredHolder();
+        createTwoEntries(deferredHolder);
+        final File journalFile = new LeastRecentlyUsedCacheJournal(recentlyUsedFile).getFile();
+        final long journalLengthBefore = journalFile.length();
+
+        deferredHolder.runSynchronized(idx -> idx.findAndMarkAsAccessed(url, version));
+        assertEquals(journalLengthBefore, journalFile.length());
+        assertEquals("1-1", deferredHolder.getSynchronized(idx -> idx.getAllEntries().get(0).getId()));
+        assertEquals("1-2", holder.getSynchronized(idx -> idx.getAllEntries().get(0).getId()));
+
+        deferredHolder.writePendingAccesses();
+        assertTrue(journalFile.length() > journalLengthBefore);
+        assertEquals("1-1", holder.getSynchronized(idx -> idx.getAllEntries().get(0).getId()));
+    }
+
+    @Test
+    public void testDeferredAccessIsWrittenWithNextChange() throws InterruptedException {
+        final LeastRecentlyUsedCacheIndexHolder deferredHolder = createDeferredHolder();
+        createTwoEntries(deferredHolder);
+
+        deferredHolder.runSynchronized(idx -> idx.findAndMarkAsAccessed(url, version));
+        deferredHolder.runSynchronized(idx -> idx.removeEntry(url, VersionId.fromString("2.0")));
+
+        final List<LeastRecentlyUsedCacheEntry> entries = holder.getSynchronized(LeastRecentlyUsedCacheIndex::getAllEntries);
+        assertEquals(1, entries.size());
+        assertEquals(entries.get(0).getLastAccessed(), deferredHolder.getSynchronized(idx -> idx.getAllEntries().get(0).getLastAccessed()).longValue());
+        assertFalse(deferredHolder.getSynchronized(LeastRecentlyUsedCacheIndex::hasPendingAccesses));
+    }
+
     @Test
     public void testSortingOfIndex() throws IOException {
         // given
@@ -201,6 +342,19 @@ public class LeastRecentlyUsedCacheIndexHolderTest {
         assertEquals(ids, result);
     }
 
+    private void createTwoEntries(LeastRecentlyUsedCacheIndexHolder target) throws InterruptedException {
+        // sleep to make sure the timestamps differ
+        target.runSynchronized(idx -> idx.createEntry(url, version, "1-1"));
+        Thread.sleep(10);
+        target.runSynchronized(idx -> idx.createEntry(url, VersionId.fromString("2.0"), "1-2"));
+        Thread.sleep(10);
+    }
+
+    private LeastRecentlyUsedCacheIndexHolder createDeferredHolder() {
+        final DummyInfrastructureFileDescriptor descriptor = new DummyInfrastructureFileDescriptor(recentlyUsedFile);
+        return new LeastRecentlyUsedCacheIndexHolder(descriptor, LeastRecentlyUsedCacheIndexHolder.WriteBackPolicy.ON_EXIT, 0);
+    }
+
     private void fillCacheIndexFile() {
         // fill cache index file
         holder.runSynchronized(idx -> {
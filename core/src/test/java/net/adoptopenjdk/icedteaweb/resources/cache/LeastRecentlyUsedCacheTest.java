@@ -0,0 +1,87 @@
+package net.adoptopenjdk.icedteaweb.resources.cache;
+
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LeastRecentlyUsedCacheTest {
+
+    private static final long ONE_HOUR_AGO = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+
+    // moving the cache writes the index back to the previous directory, so all tests share one directory
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static String cacheDir;
+    private static File cacheRoot;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        cacheDir = PathsAndFiles.CACHE_DIR.getFullPath();
+        cacheRoot = temporaryFolder.newFolder();
+        PathsAndFiles.CACHE_DIR.setValue(cacheRoot.getCanonicalPath());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        PathsAndFiles.CACHE_DIR.setValue(cacheDir);
+    }
+
+    @Test
+    public void sweepRemovesOldStrayFilesOnly() throws IOException {
+        final LeastRecentlyUsedCache cache = LeastRecentlyUsedCache.getInstance();
+        final File download = cache.createDownloadFile(new URL("http://localhost/sweep.jar"));
+        final File cacheFile = cache.addToCache(new DownloadInfo(new URL("http://localhost/sweep.jar"), null, 0), download);
+        final File entryDir = cacheFile.getParentFile();
+
+        final File oldTempFile = newFile(entryDir, "old.tmp", ONE_HOUR_AGO);
+        final File newTempFile = newFile(entryDir, "new.tmp", System.currentTimeMillis());
+
+        cache.sweep();
+
+        assertTrue(cacheFile.isFile());
+        assertFalse(oldTempFile.exists());
+        assertTrue("file possibly written by another process was swept", newTempFile.exists());
+    }
+
+    @Test
+    public void sweepRemovesOldDirectoriesWithoutEntryOnly() throws IOException {
+        final File oldOrphan = newDir(new File(cacheRoot, "101"), "2", ONE_HOUR_AGO);
+        final File newOrphan = newDir(new File(cacheRoot, "103"), "4", System.currentTimeMillis());
+        final File oldEmptyDir = newDir(cacheRoot, "105", ONE_HOUR_AGO);
+        final File downloadDir = newDir(cacheRoot, "download", ONE_HOUR_AGO);
+
+        LeastRecentlyUsedCache.getInstance().sweep();
+
+        assertFalse(oldOrphan.exists());
+        assertFalse(oldEmptyDir.exists());
+        assertTrue("directory possibly created by another process was swept", newOrphan.exists());
+        assertTrue("download directory was swept", downloadDir.isDirectory());
+    }
+
+    private static File newFile(final File dir, final String name, final long lastModified) throws IOException {
+        final File file = new File(dir, name);
+        Files.write(file.toPath(), new byte[1]);
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    private static File newDir(final File parent, final String name, final long lastModified) {
+        final File dir = new File(parent, name);
+        assertTrue(dir.isDirectory() || dir.mkdirs());
+        assertTrue(dir.setLastModified(lastModified));
+        return dir;
+    }
+}
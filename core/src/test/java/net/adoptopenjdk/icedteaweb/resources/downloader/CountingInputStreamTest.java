@@ -0,0 +1,65 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class CountingInputStreamTest {
+
+    @Test
+    public void countsBytesReadAndSkipped() throws IOException {
+        final CountingInputStream stream = new CountingInputStream(new ByteArrayInputStream(new byte[100]));
+
+        stream.read();
+        stream.read(new byte[10], 0, 10);
+        stream.skip(20);
+
+        assertEquals(31, stream.numBytesRead());
+    }
+
+    @Test
+    public void publishesAtMostOncePerInterval() throws IOException {
+        final AtomicLong clock = new AtomicLong();
+        final List<Long> published = new ArrayList<>();
+        final InputStream stream = new CountingInputStream(new ByteArrayInputStream(new byte[100]), published::add, 100, clock::get);
+        final byte[] buffer = new byte[10];
+
+        stream.read(buffer);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        stream.read(buffer);
+        assertEquals(Collections.emptyList(), published);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        stream.read(buffer);
+        stream.read(buffer);
+        assertEquals(Collections.singletonList(30L), published);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        stream.read(buffer);
+        assertEquals(Arrays.asList(30L, 50L), published);
+    }
+
+    @Test
+    public void publishesFinalCountAtEndOfStream() throws IOException {
+        final List<Long> published = new ArrayList<>();
+        final InputStream stream = new CountingInputStream(new ByteArrayInputStream(new byte[25]), published::add, 100, () -> 0L);
+        final byte[] buffer = new byte[10];
+
+        while (stream.read(buffer) != -1) {
+            // consume
+        }
+        stream.read(buffer);
+
+        assertEquals(Collections.singletonList(25L), published);
+    }
+}
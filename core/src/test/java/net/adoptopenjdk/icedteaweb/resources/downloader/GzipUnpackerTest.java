@@ -0,0 +1,43 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GzipUnpackerTest {
+
+    @Test
+    public void testContentIsInflatedWhileReading() throws Exception {
+        final byte[] content = new byte[1024 * 1024];
+        new Random(42).nextBytes(content);
+        final CountingInputStream compressed = new CountingInputStream(new ByteArrayInputStream(gzip(content)));
+
+        try (final InputStream unpacked = new GzipUnpacker().unpack(compressed)) {
+            assertTrue("content was read before the unpacked stream", compressed.numBytesRead() < content.length / 2);
+
+            final ByteArrayOutputStream result = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = unpacked.read(buffer)) != -1) {
+                result.write(buffer, 0, read);
+            }
+            assertArrayEquals(content, result.toByteArray());
+        }
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
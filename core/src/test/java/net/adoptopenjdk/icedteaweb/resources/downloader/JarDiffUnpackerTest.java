@@ -0,0 +1,51 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class JarDiffUnpackerTest {
+
+    private static final String JARDIFF_RESOURCES = "/net/adoptopenjdk/icedteaweb/resources/jardiff/";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testMergedJarIsStreamedFromTemporaryFile() throws Exception {
+        final File workDir = temporaryFolder.newFolder();
+        final File cachedJar = new File(JarDiffUnpackerTest.class.getResource(JARDIFF_RESOURCES + "version-1.jar").toURI());
+        final File expectedJar = new File(JarDiffUnpackerTest.class.getResource(JARDIFF_RESOURCES + "version-2.jar").toURI());
+        final File mergedJar = temporaryFolder.newFile("merged.jar");
+
+        try (final InputStream diff = JarDiffUnpackerTest.class.getResourceAsStream(JARDIFF_RESOURCES + "diff-1-to-2.jardiff");
+             final InputStream merged = new JarDiffUnpacker(cachedJar, workDir).unpack(diff)) {
+            assertEquals(1, workDir.list().length);
+            Files.copy(merged, mergedJar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        assertEquals(0, workDir.list().length);
+        assertEquals(entryNames(expectedJar), entryNames(mergedJar));
+    }
+
+    private static List<String> entryNames(final File jar) throws Exception {
+        try (final JarFile jarFile = new JarFile(jar)) {
+            return Collections.list(jarFile.entries()).stream()
+                    .map(JarEntry::getName)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+import java.util.jar.Pack200;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class PackGzipUnpackerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testJarIsUnpackedIntoTemporaryFile() throws Exception {
+        final File workDir = temporaryFolder.newFolder();
+        final byte[] packed = pack(createJar("some/Entry.txt", "content"));
+
+        try (final InputStream unpacked = new PackGzipUnpacker(workDir).unpack(new ByteArrayInputStream(packed))) {
+            assertEquals(1, workDir.list().length);
+
+            final JarInputStream jar = new JarInputStream(unpacked);
+            final JarEntry entry = jar.getNextJarEntry();
+            assertEquals("some/Entry.txt", entry.getName());
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = jar.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            assertEquals("content", new String(content.toByteArray(), UTF_8));
+            assertNull(jar.getNextJarEntry());
+        }
+
+        assertEquals(0, workDir.list().length);
+    }
+
+    @Test
+    public void testTemporaryFileIsDeletedOnError() throws Exception {
+        final File workDir = temporaryFolder.newFolder();
+
+        try {
+            new PackGzipUnpacker(workDir).unpack(new ByteArrayInputStream("not packed".getBytes(UTF_8)));
+            fail("unpacking should fail");
+        } catch (IOException e) {
+            assertEquals(0, workDir.list().length);
+        }
+    }
+
+    private File createJar(final String name, final String content) throws IOException {
+        final File jar = temporaryFolder.newFile("test.jar");
+        createJarWithContents(jar, null, singletonMap(name, content.getBytes(UTF_8)));
+        return jar;
+    }
+
+    private static byte[] pack(final File jar) throws IOException {
+        final ByteArrayOutputStream packed = new ByteArrayOutputStream();
+        try (final JarFile jarFile = new JarFile(jar); final GZIPOutputStream out = new GZIPOutputStream(packed)) {
+            Pack200.newPacker().pack(jarFile, out);
+        }
+        return packed.toByteArray();
+    }
+}
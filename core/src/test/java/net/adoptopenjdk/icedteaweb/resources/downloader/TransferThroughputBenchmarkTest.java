@@ -0,0 +1,138 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import com.sun.net.httpserver.HttpServer;
+import net.adoptopenjdk.icedteaweb.io.IOUtils;
+import net.adoptopenjdk.icedteaweb.testing.ServerAccess;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the throughput of writing a large download into a file using a small copy buffer
+ * with {@link IOUtils#transferToFile(InputStream, File)}.
+ * The content is served by a server on the loopback interface.
+ */
+@Ignore("benchmark - run manually")
+public class TransferThroughputBenchmarkTest {
+
+    private static final long JAR_SIZE = 128L * 1024 * 1024;
+    private static final int ROUNDS = 5;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File jar;
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        jar = temporaryFolder.newFile("large.jar");
+        try (final RandomAccessFile file = new RandomAccessFile(jar, "rw")) {
+            file.setLength(JAR_SIZE);
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, jar.length());
+            try (final OutputStream body = exchange.getResponseBody()) {
+                Files.copy(jar.toPath(), body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testHttpThroughput() throws IOException {
+        final URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), "/large.jar");
+        final File target = temporaryFolder.newFile();
+
+        long copyNanos = 0;
+        long transferNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            copyNanos += measure(() -> {
+                try (final InputStream in = open(url); final OutputStream out = new FileOutputStream(target)) {
+                    IOUtils.copy(in, out, 8192);
+                }
+            });
+            assertEquals(JAR_SIZE, target.length());
+
+            transferNanos += measure(() -> {
+                try (final InputStream in = open(url)) {
+                    IOUtils.transferToFile(in, target);
+                }
+            });
+            assertEquals(JAR_SIZE, target.length());
+        }
+
+        report("http", copyNanos, transferNanos);
+    }
+
+    @Test
+    public void testFileThroughput() throws IOException {
+        final File target = temporaryFolder.newFile();
+
+        long copyNanos = 0;
+        long transferNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            copyNanos += measure(() -> {
+                try (final InputStream in = new FileInputStream(jar); final OutputStream out = new FileOutputStream(target)) {
+                    IOUtils.copy(in, out, 8192);
+                }
+            });
+            assertEquals(JAR_SIZE, target.length());
+
+            transferNanos += measure(() -> {
+                try (final InputStream in = new FileInputStream(jar)) {
+                    IOUtils.transferToFile(in, target);
+                }
+            });
+            assertEquals(JAR_SIZE, target.length());
+        }
+
+        report("file", copyNanos, transferNanos);
+    }
+
+    private static InputStream open(final URL url) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        return connection.getInputStream();
+    }
+
+    private static long measure(final IoAction action) throws IOException {
+        final long start = System.nanoTime();
+        action.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(final String source, final long copyNanos, final long transferNanos) {
+        final double megaBytes = (double) JAR_SIZE * ROUNDS / (1024 * 1024);
+        ServerAccess.logErrorReprint(String.format("%s copy:     %.1f MB/s", source, megaBytes / (copyNanos / 1e9)));
+        ServerAccess.logErrorReprint(String.format("%s transfer: %.1f MB/s", source, megaBytes / (transferNanos / 1e9)));
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,71 @@
+package net.adoptopenjdk.icedteaweb.resources.initializer;
+
+import net.adoptopenjdk.icedteaweb.resources.Resource;
+import net.adoptopenjdk.icedteaweb.resources.ResourceFactory;
+import net.adoptopenjdk.icedteaweb.resources.UpdatePolicy;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import net.sourceforge.jnlp.util.logging.NoStdOutErrTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class UnversionedResourceInitializerTest extends NoStdOutErrTest {
+
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static String cacheDir;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        cacheDir = PathsAndFiles.CACHE_DIR.getFullPath();
+        PathsAndFiles.CACHE_DIR.setValue(temporaryFolder.newFolder().getCanonicalPath());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        PathsAndFiles.CACHE_DIR.setValue(cacheDir);
+    }
+
+    @Test
+    public void cachedResourceIsRevalidatedAtItsDownloadUrlOnly() throws IOException {
+        final URL location = new URL("http://localhost/revalidate-download-url.jar");
+        final URL httpsLocation = new URL("https://localhost/revalidate-download-url.jar");
+        addToCache(location, location);
+        final Resource resource = ResourceFactory.createResource(location, null, null, UpdatePolicy.ALWAYS);
+
+        final InitializationResult result = new UnversionedResourceInitializer(resource).init();
+
+        assertEquals(singletonList(location), result.getDownloadUrls());
+        assertEquals(singletonList(httpsLocation), result.getFallbackUrls());
+    }
+
+    @Test
+    public void cachedResourceWithoutDownloadUrlIsRevalidatedAtBestCandidateOnly() throws IOException {
+        final URL location = new URL("http://localhost/revalidate-best-candidate.jar");
+        final URL httpsLocation = new URL("https://localhost/revalidate-best-candidate.jar");
+        addToCache(location, null);
+        final Resource resource = ResourceFactory.createResource(location, null, null, UpdatePolicy.ALWAYS);
+
+        final InitializationResult result = new UnversionedResourceInitializer(resource).init();
+
+        assertEquals(singletonList(httpsLocation), result.getDownloadUrls());
+        assertEquals(singletonList(location), result.getFallbackUrls());
+    }
+
+    private static void addToCache(final URL location, final URL downloadUrl) throws IOException {
+        final DownloadInfo info = new DownloadInfo(location, null, System.currentTimeMillis(), "\"etag\"", downloadUrl);
+        Cache.addToCache(info, new ByteArrayInputStream(new byte[]{1}));
+    }
+}
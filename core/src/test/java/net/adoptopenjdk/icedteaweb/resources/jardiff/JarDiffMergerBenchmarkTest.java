@@ -0,0 +1,91 @@
+package net.adoptopenjdk.icedteaweb.resources.jardiff;
+
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures how long applying a small JarDiff to a large jar takes, with the entries recompressed
+ * and with the entries copied raw.
+ */
+@Ignore("benchmark - run manually")
+public class JarDiffMergerBenchmarkTest {
+
+    private static final int ENTRIES = 20_000;
+    private static final int ENTRY_SIZE = 4 * 1024;
+    private static final int CHANGED_ENTRIES = 20;
+    private static final int RUNS = 5;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLargeJarWithSmallDiff() throws Exception {
+        final File oldJar = temporaryFolder.newFile("old.jar");
+        final File jarDiff = temporaryFolder.newFile("small.jardiff");
+        createJar(oldJar);
+        createJarDiff(jarDiff);
+        final File recompressed = temporaryFolder.newFile("recompressed.jar");
+        final File raw = temporaryFolder.newFile("raw.jar");
+
+        for (int run = 0; run < RUNS; run++) {
+            final long recompressStart = System.nanoTime();
+            try (final JarFile old = new JarFile(oldJar); final JarFile diff = new JarFile(jarDiff);
+                 final JarOutputStream out = new JarOutputStream(new FileOutputStream(recompressed))) {
+                JarDiffMerger.merge(old, diff, out);
+            }
+            final long recompressNanos = System.nanoTime() - recompressStart;
+
+            final long rawStart = System.nanoTime();
+            JarDiffMerger.merge(oldJar, jarDiff, raw);
+            final long rawNanos = System.nanoTime() - rawStart;
+
+            System.out.println(String.format("%d entries, %d changed: recompressed %6d ms, raw copy %6d ms",
+                    ENTRIES, CHANGED_ENTRIES, recompressNanos / 1_000_000, rawNanos / 1_000_000));
+        }
+
+        try (final JarFile merged = new JarFile(raw)) {
+            // one entry removed, one added
+            assertEquals(ENTRIES, merged.size());
+        }
+    }
+
+    private static void createJar(final File jar) throws IOException {
+        final Random random = new Random(42);
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            // half random, half repeated bytes so the entries compress like class files
+            final byte[] content = new byte[ENTRY_SIZE];
+            random.nextBytes(content);
+            for (int j = ENTRY_SIZE / 2; j < ENTRY_SIZE; j++) {
+                content[j] = (byte) (j % 7);
+            }
+            entries.put("some/package/Class" + i + ".class", content);
+        }
+        createJarWithContents(jar, null, entries);
+    }
+
+    private static void createJarDiff(final File jarDiff) throws IOException {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/INDEX.JD", ("version 1.0\nremove some/package/Class0.class\n").getBytes(UTF_8));
+        for (int i = 1; i <= CHANGED_ENTRIES; i++) {
+            entries.put("some/package/Class" + i + ".class", ("changed " + i).getBytes(UTF_8));
+        }
+        entries.put("some/package/Added.class", "added".getBytes(UTF_8));
+        createJarWithContents(jarDiff, null, entries);
+    }
+}
@@ -3,6 +3,7 @@ package net.adoptopenjdk.icedteaweb.resources.jardiff;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
@@ -135,6 +136,61 @@ public class JarDiffMergerTest {
         Assert.assertEquals(originalHashes, createdHashes);
     }
 
+    @Test
+    public void testRawMergeOfAllVersions() throws Exception {
+        for (int version = 1; version < 8; version++) {
+            //given
+            final URL jar1Url = JarDiffMergerTest.class.getResource("version-" + version + ".jar");
+            final URL jar2Url = JarDiffMergerTest.class.getResource("version-" + (version + 1) + ".jar");
+            final URL diffUrl = JarDiffMergerTest.class.getResource("diff-" + version + "-to-" + (version + 1) + ".jardiff");
+
+            //when
+            final Path createdJar = mergeFiles(jar1Url, diffUrl);
+            final Map<String, String> originalHashes = getMd5Hashes(jar2Url.getFile());
+            final Map<String, String> createdHashes = getMd5Hashes(createdJar.toFile().getAbsolutePath());
+
+            //than
+            Assert.assertEquals("version " + version, originalHashes, createdHashes);
+        }
+    }
+
+    @Test
+    public void testRawMergeKeepsCompressedEntries() throws Exception {
+        //given
+        final URL jar1Url = JarDiffMergerTest.class.getResource("version-1.jar");
+        final URL diffUrl = JarDiffMergerTest.class.getResource("diff-1-to-2.jardiff");
+
+        //when
+        final Path createdJar = mergeFiles(jar1Url, diffUrl);
+
+        //than
+        int copied = 0;
+        try (final JarFile oldJar = new JarFile(jar1Url.getFile());
+             final JarFile diffJar = new JarFile(diffUrl.getFile());
+             final JarFile createdJarFile = new JarFile(createdJar.toFile())) {
+            for (JarEntry created : Collections.list(createdJarFile.entries())) {
+                final JarEntry source = diffJar.getJarEntry(created.getName()) != null
+                        ? diffJar.getJarEntry(created.getName())
+                        : oldJar.getJarEntry(created.getName());
+                if (source != null) {
+                    Assert.assertEquals(source.getCrc(), created.getCrc());
+                    Assert.assertEquals(source.getCompressedSize(), created.getCompressedSize());
+                    Assert.assertEquals(source.getSize(), created.getSize());
+                    Assert.assertEquals(source.getMethod(), created.getMethod());
+                    copied++;
+                }
+            }
+        }
+        Assert.assertTrue(copied > 0);
+    }
+
+    private Path mergeFiles(final URL jar1Url, final URL diffUrl) throws IOException {
+        final Path tempDirectory = Files.createTempDirectory("jardiff");
+        final Path createdJar = Paths.get(tempDirectory.toFile().getAbsolutePath(), "created.jar");
+        JarDiffMerger.merge(new File(jar1Url.getFile()), new File(diffUrl.getFile()), createdJar.toFile());
+        return createdJar;
+    }
+
     private Path merge(final URL jar1Url, final URL diffUrl) throws IOException {
         final Path tempDirectory = Files.createTempDirectory("jardiff");
         final Path createdJar = Paths.get(tempDirectory.toFile().getAbsolutePath(), "created.jar");
@@ -0,0 +1,120 @@
+package net.sourceforge.jnlp.cache;
+
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CachedNativeLibrariesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String cacheDir;
+
+    @Before
+    public void useTemporaryCache() throws Exception {
+        cacheDir = PathsAndFiles.CACHE_DIR.getFullPath();
+        PathsAndFiles.CACHE_DIR.setValue(temporaryFolder.newFolder().getCanonicalPath());
+    }
+
+    @After
+    public void restoreCache() {
+        PathsAndFiles.CACHE_DIR.setValue(cacheDir);
+    }
+
+    @Test
+    public void testLibrariesAreExtractedIntoOneDirectory() throws Exception {
+        final File jar = addToCache("natives.jar", "lib/libfoo.so", "foo", "lib/libbar.so", "bar", "some/Class.class", "");
+
+        final Map<String, File> libraries = CachedNativeLibraries.getLibraries(jar).get();
+
+        assertEquals(2, libraries.size());
+        final File foo = libraries.get("libfoo.so");
+        final File bar = libraries.get("libbar.so");
+        assertEquals("foo", new String(Files.readAllBytes(foo.toPath()), UTF_8));
+        assertEquals("bar", new String(Files.readAllBytes(bar.toPath()), UTF_8));
+        assertEquals(foo.getParentFile(), bar.getParentFile());
+        assertEquals(Cache.getNativeLibraryDirectory(jar).get(), foo.getParentFile().getParentFile());
+    }
+
+    @Test
+    public void testStoredLibrariesAreUsedWithoutReadingTheJar() throws Exception {
+        final File jar = addToCache("natives.jar", "libfoo.so", "foo");
+        final Map<String, File> extracted = CachedNativeLibraries.getLibraries(jar).get();
+
+        // destroy the jar without changing its size and modification time
+        final long lastModified = jar.lastModified();
+        try (final RandomAccessFile file = new RandomAccessFile(jar, "rw")) {
+            file.write(new byte[(int) file.length()]);
+        }
+        assertTrue(jar.setLastModified(lastModified));
+
+        assertEquals(extracted, CachedNativeLibraries.getLibraries(jar).get());
+    }
+
+    @Test
+    public void testChangedJarIsExtractedAgain() throws Exception {
+        final File jar = addToCache("natives.jar", "libfoo.so", "foo");
+        final File before = CachedNativeLibraries.getLibraries(jar).get().get("libfoo.so");
+
+        createJar(jar, "libfoo.so", "changed");
+        assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+
+        final File after = CachedNativeLibraries.getLibraries(jar).get().get("libfoo.so");
+        assertNotEquals(before, after);
+        assertEquals("changed", new String(Files.readAllBytes(after.toPath()), UTF_8));
+    }
+
+    @Test
+    public void testJarWithoutLibrariesIsRecorded() throws Exception {
+        final File jar = addToCache("classes.jar", "some/Class.class", "");
+
+        assertTrue(CachedNativeLibraries.getLibraries(jar).get().isEmpty());
+        assertTrue(CachedNativeLibraries.getLibraries(jar).get().isEmpty());
+    }
+
+    @Test
+    public void testJarOutsideOfTheCacheIsNotStored() throws Exception {
+        final File jar = temporaryFolder.newFile("natives.jar");
+        createJar(jar, "libfoo.so", "foo");
+
+        final Optional<Map<String, File>> libraries = CachedNativeLibraries.getLibraries(jar);
+
+        assertFalse(libraries.isPresent());
+    }
+
+    private File addToCache(final String name, final String... entries) throws Exception {
+        final File jar = temporaryFolder.newFile(name);
+        createJar(jar, entries);
+        return Cache.addToCache(new DownloadInfo(new URL("http://localhost/" + name), null, 0), jar);
+    }
+
+    private static void createJar(final File jar, final String... entries) throws IOException {
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            contents.put(entries[i], entries[i + 1].getBytes(UTF_8));
+        }
+        createJarWithContents(jar, null, contents);
+    }
+}
@@ -0,0 +1,91 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import org.junit.Test;
+
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PacDnsCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<String> lookups = new ArrayList<>();
+
+    private PacDnsCache createCache(final int ttlSeconds, final int negativeTtlSeconds) {
+        return new PacDnsCache(ttlSeconds, negativeTtlSeconds, host -> {
+            lookups.add(host);
+            if (host.startsWith("unknown")) {
+                throw new UnknownHostException(host);
+            }
+            return host.isEmpty() ? "192.168.0.1" : "10.0.0." + host.length();
+        }, now::get);
+    }
+
+    @Test
+    public void testResolvedAddressIsCachedUntilItExpires() {
+        final PacDnsCache cache = createCache(60, 10);
+
+        assertEquals("10.0.0.4", cache.resolve("host"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals("10.0.0.4", cache.resolve("host"));
+        assertEquals(1, lookups.size());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("10.0.0.4", cache.resolve("host"));
+        assertEquals(2, lookups.size());
+    }
+
+    @Test
+    public void testUnknownHostIsCachedForTheNegativeTimeToLive() {
+        final PacDnsCache cache = createCache(60, 10);
+
+        assertNull(cache.resolve("unknown"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertNull(cache.resolve("unknown"));
+        assertEquals(1, lookups.size());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertNull(cache.resolve("unknown"));
+        assertEquals(2, lookups.size());
+    }
+
+    @Test
+    public void testTimeToLiveOfZeroDisablesCaching() {
+        final PacDnsCache cache = createCache(0, 0);
+
+        cache.resolve("host");
+        cache.resolve("host");
+        cache.resolve("unknown");
+        cache.resolve("unknown");
+
+        assertEquals(4, lookups.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLocalAddress() {
+        final PacDnsCache cache = createCache(60, 10);
+
+        assertEquals("192.168.0.1", cache.getLocalAddress());
+        assertEquals("192.168.0.1", cache.getLocalAddress());
+        assertEquals(1, lookups.size());
+        assertNull(cache.resolve(""));
+        assertNull(cache.resolve(null));
+    }
+
+    @Test
+    public void testNumberOfCachedHostsIsBounded() {
+        final PacDnsCache cache = createCache(60, 10);
+
+        for (int i = 0; i < PacDnsCache.MAX_ENTRIES + 10; i++) {
+            cache.resolve("host" + i);
+        }
+
+        assertEquals(PacDnsCache.MAX_ENTRIES, cache.size());
+    }
+}
@@ -0,0 +1,167 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class RhinoBasedPacEvaluatorTest {
+
+    private static final String PROXY_DEFAULT = "PROXY proxy.corp.example.com:8080; PROXY proxy2.corp.example.com:8080; DIRECT";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCorporatePacFile() throws Exception {
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(RhinoBasedPacEvaluatorTest.class.getResource("corporate.pac"), 0, 10);
+
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://intranet/")));
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://wiki.corp.example.com/")));
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://10.20.30.40:8080/app.jnlp")));
+        assertEquals("PROXY partner-proxy.corp.example.com:3128", evaluator.getProxies(new URL("https://portal.partner-a.com/")));
+        assertEquals(PROXY_DEFAULT, evaluator.getProxies(new URL("https://www.example.com/")));
+    }
+
+    @Test
+    public void testResultIsCachedPerHost() throws Exception {
+        final URL pacUrl = createPacFile("function FindProxyForURL(url, host) { return url.indexOf('direct') >= 0 ? 'DIRECT' : 'PROXY p:8080'; }");
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(pacUrl, 10, 60);
+
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://example.com/direct")));
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://example.com/other")));
+        assertEquals("PROXY p:8080", evaluator.getProxies(new URL("http://example.com:8080/other")));
+        assertEquals("PROXY p:8080", evaluator.getProxies(new URL("https://example.com/other")));
+    }
+
+    @Test
+    public void testAssignedVariablesDoNotLeakIntoOtherLookups() throws Exception {
+        final URL pacUrl = createPacFile("var suffix = '';\n"
+                + "function FindProxyForURL(url, host) {\n"
+                + "  if (typeof counter == 'undefined') { counter = 0; }\n"
+                + "  counter++;\n"
+                + "  suffix = suffix + host;\n"
+                + "  return 'PROXY ' + suffix + ':' + counter;\n"
+                + "}");
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(pacUrl, 0, 10);
+
+        assertEquals("PROXY a:1", evaluator.getProxies(new URL("http://a/")));
+        assertEquals("PROXY b:1", evaluator.getProxies(new URL("http://b/")));
+    }
+
+    @Test
+    public void testHostNamesAreResolvedThroughTheDnsCache() throws Exception {
+        final URL pacUrl = createPacFile("function FindProxyForURL(url, host) {\n"
+                + "  if (dnsResolve(host) === null) { return 'PROXY unresolved:8080'; }\n"
+                + "  if (isInNet(host, '10.1.0.0', '255.255.0.0') || isInNet(host, '10.2.0.0', '255.255.0.0')) { return 'DIRECT'; }\n"
+                + "  return isResolvable(host) ? 'PROXY p:8080' : 'DIRECT';\n"
+                + "}");
+        final AtomicInteger lookups = new AtomicInteger();
+        final PacDnsCache dnsCache = new PacDnsCache(60, 10, host -> {
+            lookups.incrementAndGet();
+            if (host.startsWith("unknown")) {
+                throw new UnknownHostException(host);
+            }
+            return host.startsWith("intranet") ? "10.2.0.1" : "93.184.216.34";
+        }, System::nanoTime);
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(pacUrl, 0, 10, dnsCache);
+
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://intranet.example.com/")));
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://intranet.example.com/other")));
+        assertEquals("PROXY p:8080", evaluator.getProxies(new URL("http://www.example.com/")));
+        assertEquals("PROXY unresolved:8080", evaluator.getProxies(new URL("http://unknown.example.com/")));
+        assertEquals("PROXY unresolved:8080", evaluator.getProxies(new URL("http://unknown.example.com/other")));
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(RhinoBasedPacEvaluatorTest.class.getResource("corporate.pac"), 0, 10);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final String url = i % 2 == 0 ? "http://wiki.corp.example.com/" : "https://www.example.com/";
+                futures.add(executor.submit(() -> evaluator.getProxies(new URL(url))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i % 2 == 0 ? "DIRECT" : PROXY_DEFAULT, futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHelperFunctions() throws Exception {
+        final URL pacUrl = createPacFile("function FindProxyForURL(url, host) {\n"
+                + "  return [isPlainHostName('www'), isPlainHostName('www.example.com'),\n"
+                + "    dnsDomainIs('www.example.com', '.example.com'), dnsDomainIs('www.example.org', '.example.com'),\n"
+                + "    localHostOrDomainIs('www', 'www.example.com'), localHostOrDomainIs('www.example.org', 'www.example.com'),\n"
+                + "    dnsDomainLevels('www.example.com'), shExpMatch(url, '*/*.jar'), shExpMatch(url, '*.jnlp'),\n"
+                + "    dnsResolve('127.0.0.1'), isResolvable('127.0.0.1'),\n"
+                + "    isInNet('127.0.0.1', '127.0.0.0', '255.0.0.0'), isInNet('127.0.0.1', '10.0.0.0', '255.0.0.0'),\n"
+                + "    typeof myIpAddress(), weekdayRange('SUN', 'SAT'), dateRange(1, 31), timeRange(0, 23)].join();\n"
+                + "}");
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(pacUrl, 0, 10);
+
+        assertEquals("true,false,true,false,true,false,2,true,false,127.0.0.1,true,true,false,string,true,true,true",
+                evaluator.getProxies(new URL("http://www.example.com/app.jar")));
+    }
+
+    @Test
+    public void testUnresolvableHost() throws Exception {
+        final URL pacUrl = createPacFile("function FindProxyForURL(url, host) {\n"
+                + "  if (isInNet(host, '10.0.0.0', '255.0.0.0')) { return 'DIRECT'; }\n"
+                + "  return [dnsResolve(host), isResolvable(host)].join();\n"
+                + "}");
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(pacUrl, 0, 10);
+
+        assertEquals(",false", evaluator.getProxies(new URL("http://icedtea-web.invalid/")));
+    }
+
+    @Test
+    public void testConcurrentLookupsAssigningGlobals() throws Exception {
+        final URL pacUrl = createPacFile("var lookups = 0;\n"
+                + "function FindProxyForURL(url, host) {\n"
+                + "  if (typeof current != 'undefined' || lookups != 0) { return 'LEAKED'; }\n"
+                + "  current = host;\n"
+                + "  lookups++;\n"
+                + "  for (var i = 0; i < 100; i++) { dnsDomainLevels(current); }\n"
+                + "  return 'PROXY ' + current + ':' + lookups;\n"
+                + "}");
+        final PacEvaluator evaluator = new RhinoBasedPacEvaluator(pacUrl, 0, 10);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final URL url = new URL("http://host" + i + ".example.com/");
+                futures.add(executor.submit(() -> evaluator.getProxies(url)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("PROXY host" + i + ".example.com:1", futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private URL createPacFile(final String contents) throws Exception {
+        final File pacFile = temporaryFolder.newFile("proxy.pac");
+        Files.write(pacFile.toPath(), contents.getBytes(UTF_8));
+        return pacFile.toURI().toURL();
+    }
+}
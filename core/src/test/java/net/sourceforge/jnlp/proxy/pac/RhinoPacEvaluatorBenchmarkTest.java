@@ -0,0 +1,86 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Measures the number of proxy lookups per second against a PAC file modelled after a corporate one.
+ * Lookups are measured with and without the result cache, from one thread and from several threads.
+ */
+@Ignore("benchmark - run manually")
+public class RhinoPacEvaluatorBenchmarkTest {
+
+    private static final int WARM_UP_LOOKUPS = 2_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String[] URLS = {
+            "http://wiki.corp.example.com/display/TEAM",
+            "https://jira.intranet.example.com/browse/ITW-1",
+            "http://10.20.30.40:8080/app/app.jnlp",
+            "http://192.168.1.10/update",
+            "https://portal.partner-a.com/login",
+            "https://files.supplier.example.org/download.jar",
+            "https://store.cloud.example.com/bucket/lib.jar",
+            "https://api.eu.example.io/v1/status",
+            "ftp://ftp.example.org/pub/file.zip",
+            "https://cdn.update.example.com/app/update.jar",
+            "https://www.example.com/",
+            "http://news.example.net/index.html",
+            "http://intranet/",
+    };
+
+    @Test
+    public void testLookupsPerSecond() throws Exception {
+        final URL pacUrl = RhinoPacEvaluatorBenchmarkTest.class.getResource("corporate.pac");
+        assertNotNull(pacUrl);
+
+        final RhinoBasedPacEvaluator uncached = new RhinoBasedPacEvaluator(pacUrl, 0, RhinoBasedPacEvaluator.DEFAULT_CACHE_TIMEOUT_SECONDS);
+        final RhinoBasedPacEvaluator cached = new RhinoBasedPacEvaluator(pacUrl, RhinoBasedPacEvaluator.DEFAULT_CACHE_SIZE, RhinoBasedPacEvaluator.DEFAULT_CACHE_TIMEOUT_SECONDS);
+        final List<URL> urls = new ArrayList<>();
+        for (String url : URLS) {
+            urls.add(new URL(url));
+        }
+
+        lookup(uncached, urls, WARM_UP_LOOKUPS);
+        lookup(cached, urls, WARM_UP_LOOKUPS);
+
+        System.out.println(String.format("uncached, 1 thread:   %8.0f lookups/s", lookupsPerSecond(uncached, urls, 1)));
+        System.out.println(String.format("uncached, %d threads: %8.0f lookups/s", THREADS, lookupsPerSecond(uncached, urls, THREADS)));
+        System.out.println(String.format("cached, 1 thread:     %8.0f lookups/s", lookupsPerSecond(cached, urls, 1)));
+        System.out.println(String.format("cached, %d threads:   %8.0f lookups/s", THREADS, lookupsPerSecond(cached, urls, THREADS)));
+    }
+
+    private static double lookupsPerSecond(final RhinoBasedPacEvaluator evaluator, final List<URL> urls, final int threads) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            final long start = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> lookup(evaluator, urls, LOOKUPS / threads)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            final long duration = System.nanoTime() - start;
+            return (LOOKUPS / threads) * threads * 1e9 / duration;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void lookup(final RhinoBasedPacEvaluator evaluator, final List<URL> urls, final int lookups) {
+        for (int i = 0; i < lookups; i++) {
+            assertNotNull(evaluator.getProxies(urls.get(i % urls.size())));
+        }
+    }
+}
@@ -45,6 +45,7 @@ import net.sourceforge.jnlp.proxy.pac.PacUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
@@ -74,6 +75,28 @@ public class JNLPProxySelectorTest {
         }
     }
 
+    class CountingProxySelector extends JNLPProxySelector {
+        private final List<Proxy> proxies;
+        private int browserQueries = 0;
+
+        public CountingProxySelector(DeploymentConfiguration config, Proxy... proxies) {
+            super(config);
+            this.proxies = Arrays.asList(proxies);
+        }
+
+        @Override
+        protected List<Proxy> getFromBrowser(URI uri) {
+            browserQueries++;
+            return proxies;
+        }
+    }
+
+    private static DeploymentConfiguration browserProxyConfiguration() {
+        DeploymentConfiguration config = new DeploymentConfiguration();
+        config.setProperty(ConfigurationConstants.KEY_PROXY_TYPE, String.valueOf(ProxyType.PROXY_TYPE_BROWSER.getConfigValue()));
+        return config;
+    }
+
     @Test
     public void testNoProxy() throws URISyntaxException {
         DeploymentConfiguration config = new DeploymentConfiguration();
@@ -334,4 +357,68 @@ public class JNLPProxySelectorTest {
         assertEquals(0, result.size());
 
     }
+
+    @Test
+    public void testSelectionIsCachedPerSchemeHostAndPort() throws URISyntaxException {
+        CountingProxySelector selector = new CountingProxySelector(browserProxyConfiguration(), BROWSER_PROXY);
+
+        assertEquals(Arrays.asList(BROWSER_PROXY), selector.select(new URI("http://example.org/a.jar")));
+        assertEquals(Arrays.asList(BROWSER_PROXY), selector.select(new URI("http://example.org/b.jar")));
+        assertEquals(1, selector.browserQueries);
+
+        selector.select(new URI("http://example.org:8080/a.jar"));
+        selector.select(new URI("https://example.org/a.jar"));
+        selector.select(new URI("http://example.com/a.jar"));
+        assertEquals(4, selector.browserQueries);
+    }
+
+    @Test
+    public void testSelectionIsNotCachedIfDisabled() throws URISyntaxException {
+        DeploymentConfiguration config = browserProxyConfiguration();
+        config.setProperty(ConfigurationConstants.KEY_PROXY_CACHE_TIMEOUT, "0");
+        CountingProxySelector selector = new CountingProxySelector(config, BROWSER_PROXY);
+
+        selector.select(new URI("http://example.org/a.jar"));
+        selector.select(new URI("http://example.org/a.jar"));
+        assertEquals(2, selector.browserQueries);
+    }
+
+    @Test
+    public void testCachedSelectionCanNotBeModified() throws URISyntaxException {
+        CountingProxySelector selector = new CountingProxySelector(browserProxyConfiguration(), BROWSER_PROXY);
+
+        selector.select(new URI("http://example.org/a.jar")).clear();
+        assertEquals(Arrays.asList(BROWSER_PROXY), selector.select(new URI("http://example.org/a.jar")));
+    }
+
+    @Test
+    public void testFailedConnectionInvalidatesSelectionAndDemotesProxy() throws URISyntaxException {
+        Proxy first = new Proxy(Type.HTTP, InetSocketAddress.createUnresolved("first", 3128));
+        Proxy second = new Proxy(Type.HTTP, InetSocketAddress.createUnresolved("second", 3128));
+        CountingProxySelector selector = new CountingProxySelector(browserProxyConfiguration(), first, second);
+        URI uri = new URI("http://example.org/a.jar");
+
+        assertEquals(Arrays.asList(first, second), selector.select(uri));
+        selector.connectFailed(uri, first.address(), new IOException("refused"));
+
+        assertEquals(Arrays.asList(second, first), selector.select(uri));
+        assertEquals(2, selector.browserQueries);
+        assertEquals(Arrays.asList(second, first), selector.select(new URI("https://example.com/")));
+    }
+
+    @Test
+    public void testFailedProxyIsNotDemotedIfDisabled() throws URISyntaxException {
+        DeploymentConfiguration config = browserProxyConfiguration();
+        config.setProperty(ConfigurationConstants.KEY_PROXY_DEMOTE_FAILED, "false");
+        Proxy first = new Proxy(Type.HTTP, InetSocketAddress.createUnresolved("first", 3128));
+        Proxy second = new Proxy(Type.HTTP, InetSocketAddress.createUnresolved("second", 3128));
+        CountingProxySelector selector = new CountingProxySelector(config, first, second);
+        URI uri = new URI("http://example.org/a.jar");
+
+        selector.select(uri);
+        selector.connectFailed(uri, first.address(), new IOException("refused"));
+
+        assertEquals(Arrays.asList(first, second), selector.select(uri));
+        assertEquals(2, selector.browserQueries);
+    }
 }
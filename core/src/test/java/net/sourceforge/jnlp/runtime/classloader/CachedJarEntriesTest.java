@@ -0,0 +1,100 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachedJarEntriesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String cacheDir;
+
+    @Before
+    public void useTemporaryCache() throws Exception {
+        cacheDir = PathsAndFiles.CACHE_DIR.getFullPath();
+        PathsAndFiles.CACHE_DIR.setValue(temporaryFolder.newFolder().getCanonicalPath());
+    }
+
+    @After
+    public void restoreCache() {
+        PathsAndFiles.CACHE_DIR.setValue(cacheDir);
+    }
+
+    @Test
+    public void testEntriesOfLazyJarAreStored() throws Exception {
+        final File jar = addToCache("lazy.jar", "some/package/SomeClass.class", "META-INF/services/some.Service");
+
+        CachedJarEntries.store(jar, readEntryNames(jar));
+
+        assertTrue(CachedJarEntries.isStored(jar));
+        assertTrue(CachedJarEntries.load(jar).get().contains("META-INF/services/some.Service"));
+        assertFalse(CachedJarEntries.load(jar).get().contains("META-INF/services/other.Service"));
+    }
+
+    @Test
+    public void testEntriesOfLazyJarWithNestedJarAreNotStored() throws Exception {
+        final File jar = addToCache("lazy.jar", "some/package/SomeClass.class", "lib/nested.jar");
+
+        CachedJarEntries.store(jar, readEntryNames(jar));
+
+        assertFalse(CachedJarEntries.isStored(jar));
+        assertFalse(CachedJarEntries.load(jar).isPresent());
+    }
+
+    @Test
+    public void testEntriesOfLazyJarWithJarIndexAreNotStored() throws Exception {
+        final File jar = addToCache("lazy.jar", "some/package/SomeClass.class", "META-INF/INDEX.LIST");
+
+        CachedJarEntries.store(jar, readEntryNames(jar));
+
+        assertFalse(CachedJarEntries.isStored(jar));
+    }
+
+    @Test
+    public void testStoredEntriesListingNestedJarAreNotUsed() throws Exception {
+        final File jar = addToCache("lazy.jar", "some/package/SomeClass.class");
+        CachedJarEntries.store(jar, readEntryNames(jar));
+        final File entryListFile = Cache.getEntryListFile(jar).get();
+        final List<String> lines = Files.readAllLines(entryListFile.toPath());
+        lines.add("lib/nested.jar");
+        Files.write(entryListFile.toPath(), lines);
+
+        assertFalse(CachedJarEntries.load(jar).isPresent());
+    }
+
+    private static List<String> readEntryNames(final File jar) throws IOException {
+        try (final JarFile jarFile = new JarFile(jar)) {
+            return JarEntryIndex.readEntryNames(jarFile).get();
+        }
+    }
+
+    private File addToCache(final String name, final String... entries) throws Exception {
+        final File jar = temporaryFolder.newFile(name);
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (String entry : entries) {
+            contents.put(entry, new byte[0]);
+        }
+        createJarWithContents(jar, contents);
+        return Cache.addToCache(new DownloadInfo(new URL("http://localhost/" + name), null, 0), jar);
+    }
+}
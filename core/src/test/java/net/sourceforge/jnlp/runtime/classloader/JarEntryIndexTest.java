@@ -0,0 +1,109 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JarEntryIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testIndexedJarsAreConclusive() throws IOException {
+        final JarEntryIndex index = new JarEntryIndex();
+        final URL location = new URL("http://example.com/app.jar");
+        index.index(location, createJar(null, "some/package/SomeClass.class", "META-INF/versions/9/some/package/NewClass.class"));
+        index.addedToClassPath(location);
+
+        assertTrue(index.mightContain("some/package/SomeClass.class"));
+        assertTrue(index.mightContain("some/package/NewClass.class"));
+        assertFalse(index.mightContain("some/package/OtherClass.class"));
+    }
+
+    @Test
+    public void testUnindexedLocationMakesIndexInconclusive() throws IOException {
+        final JarEntryIndex index = new JarEntryIndex();
+        final URL location = new URL("http://example.com/app.jar");
+        index.index(location, createJar(null, "some/package/SomeClass.class"));
+        index.addedToClassPath(location);
+        index.addedToClassPath(new URL("http://example.com/not-cached.jar"));
+
+        assertTrue(index.mightContain("some/package/OtherClass.class"));
+    }
+
+    @Test
+    public void testJarWithManifestClassPathIsNotIndexed() throws IOException {
+        final JarEntryIndex index = new JarEntryIndex();
+        final URL location = new URL("http://example.com/app.jar");
+        index.index(location, createJar("lib.jar", "some/package/SomeClass.class"));
+        index.addedToClassPath(location);
+
+        assertTrue(index.mightContain("some/package/OtherClass.class"));
+    }
+
+    @Test
+    public void testDirectoryIsFoundWithoutTrailingSlash() throws IOException {
+        final JarEntryIndex index = new JarEntryIndex();
+        final URL location = new URL("http://example.com/app.jar");
+        index.index(location, createJar(null, "some/package/"));
+        index.addedToClassPath(location);
+
+        assertTrue(index.mightContain("some/package"));
+        assertTrue(index.mightContain("some/package/"));
+        assertFalse(index.mightContain("some/other"));
+    }
+
+    @Test
+    public void testEntryNamesAreNotReadFromJarWithManifestClassPath() throws IOException {
+        try (final JarFile jarFile = new JarFile(createJar("lib.jar", "some/package/SomeClass.class"))) {
+            assertFalse(JarEntryIndex.readEntryNames(jarFile).isPresent());
+        }
+        try (final JarFile jarFile = new JarFile(createJar(null, "some/package/SomeClass.class"))) {
+            assertTrue(JarEntryIndex.readEntryNames(jarFile).get().contains("some/package/SomeClass.class"));
+        }
+    }
+
+    @Test
+    public void testMergedIndexKeepsEntriesOfOtherIndex() throws IOException {
+        final JarEntryIndex extension = new JarEntryIndex();
+        final URL location = new URL("http://example.com/ext.jar");
+        extension.index(location, createJar(null, "ext/ExtClass.class"));
+        extension.addedToClassPath(location);
+
+        final JarEntryIndex index = new JarEntryIndex();
+        index.addAll(extension);
+        index.addedToClassPath(location);
+
+        assertTrue(index.mightContain("ext/ExtClass.class"));
+        assertFalse(index.mightContain("ext/OtherClass.class"));
+    }
+
+    private File createJar(final String classPath, final String... entries) throws IOException {
+        final File jar = temporaryFolder.newFile();
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (classPath != null) {
+            manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+        }
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (String entry : entries) {
+            contents.put(entry, new byte[0]);
+        }
+        createJarWithContents(jar, manifest, contents);
+        return jar;
+    }
+}
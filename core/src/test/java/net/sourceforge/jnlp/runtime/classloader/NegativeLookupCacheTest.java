@@ -0,0 +1,53 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NegativeLookupCacheTest {
+
+    @Test
+    public void testAbsentNameIsRemembered() {
+        final NegativeLookupCache cache = new NegativeLookupCache(10);
+        final long generation = cache.startLookup();
+        cache.markAbsent("some.Class", generation);
+
+        assertTrue(cache.isKnownAbsent("some.Class"));
+        assertFalse(cache.isKnownAbsent("other.Class"));
+    }
+
+    @Test
+    public void testClassPathChangeInvalidatesEntries() {
+        final NegativeLookupCache cache = new NegativeLookupCache(10);
+        cache.markAbsent("some.Class", cache.startLookup());
+
+        NegativeLookupCache.classPathChanged();
+
+        assertFalse(cache.isKnownAbsent("some.Class"));
+    }
+
+    @Test
+    public void testLookupRunningWhileClassPathChangedIsNotRecorded() {
+        final NegativeLookupCache cache = new NegativeLookupCache(10);
+        final long generation = cache.startLookup();
+
+        NegativeLookupCache.classPathChanged();
+        cache.markAbsent("some.Class", generation);
+
+        assertFalse(cache.isKnownAbsent("some.Class"));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        final NegativeLookupCache cache = new NegativeLookupCache(2);
+        final long generation = cache.startLookup();
+        cache.markAbsent("first.Class", generation);
+        cache.markAbsent("second.Class", generation);
+        cache.markAbsent("third.Class", generation);
+
+        assertFalse(cache.isKnownAbsent("first.Class"));
+        assertTrue(cache.isKnownAbsent("second.Class"));
+        assertTrue(cache.isKnownAbsent("third.Class"));
+    }
+}
@@ -0,0 +1,90 @@
+package net.sourceforge.jnlp.security;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TrustedChainCacheTest {
+
+    /** self signed certificate for CN=example.com valid until 2126 */
+    private static final String CERTIFICATE = "-----BEGIN CERTIFICATE-----\n" +
+            "MIIBRTCB6aADAgECAgR9F6CNMAwGCCqGSM49BAMCBQAwFjEUMBIGA1UEAxMLZXhh\n" +
+            "bXBsZS5jb20wIBcNMjYxMDE4MTMyMDA4WhgPMjEyNjA5MjQxMzIwMDhaMBYxFDAS\n" +
+            "BgNVBAMTC2V4YW1wbGUuY29tMFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAEdkZk\n" +
+            "VcpZgMgbhYk761lqUhkDGuuskh/KCEIITl2HpAnijbzWPi8UvXBQ5Zj/l/jQcM/p\n" +
+            "eVumxSuIVFdoOYs+9qMhMB8wHQYDVR0OBBYEFAZE+jywPtltGzx2gfrlthez0/oe\n" +
+            "MAwGCCqGSM49BAMCBQADSQAwRgIhAPKwpR52Ur6y6+wxOh91qGTNKTw/StCETNRJ\n" +
+            "bSd9/shcAiEA3TG1Og3koWHj64THar+SPd/+30aWkVpzAHR2VfOARvo=\n" +
+            "-----END CERTIFICATE-----\n";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void trustedChainIsRememberedForHostAndAuthType() throws Exception {
+        final X509Certificate[] chain = getChain();
+        final TrustedChainCache cache = new TrustedChainCache(60, clock::get);
+        assertFalse(cache.isTrusted(chain, "ECDHE_ECDSA", "example.com"));
+
+        cache.trusted(chain, "ECDHE_ECDSA", "example.com");
+
+        assertTrue(cache.isTrusted(getChain(), "ECDHE_ECDSA", "example.com"));
+        assertFalse(cache.isTrusted(chain, "ECDHE_ECDSA", "other.example.com"));
+        assertFalse(cache.isTrusted(chain, "ECDHE_RSA", "example.com"));
+        assertFalse(cache.isTrusted(chain, "ECDHE_ECDSA", null));
+    }
+
+    @Test
+    public void trustedChainExpires() throws Exception {
+        final X509Certificate[] chain = getChain();
+        final TrustedChainCache cache = new TrustedChainCache(60, clock::get);
+        cache.trusted(chain, "ECDHE_ECDSA", "example.com");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertTrue(cache.isTrusted(chain, "ECDHE_ECDSA", "example.com"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertFalse(cache.isTrusted(chain, "ECDHE_ECDSA", "example.com"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void numberOfTrustedChainsIsBounded() throws Exception {
+        final X509Certificate[] chain = getChain();
+        final TrustedChainCache cache = new TrustedChainCache(60, clock::get);
+        for (int i = 0; i <= TrustedChainCache.MAX_ENTRIES; i++) {
+            cache.trusted(chain, "ECDHE_ECDSA", "host" + i);
+        }
+        assertEquals(TrustedChainCache.MAX_ENTRIES, cache.size());
+
+        // expired decisions make room for new ones
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        cache.trusted(chain, "ECDHE_ECDSA", "example.com");
+        assertEquals(1, cache.size());
+        assertTrue(cache.isTrusted(chain, "ECDHE_ECDSA", "example.com"));
+    }
+
+    @Test
+    public void emptyChainIsNeverTrusted() {
+        final TrustedChainCache cache = new TrustedChainCache(60, clock::get);
+        cache.trusted(new X509Certificate[0], "ECDHE_ECDSA", "example.com");
+
+        assertFalse(cache.isTrusted(new X509Certificate[0], "ECDHE_ECDSA", "example.com"));
+        assertEquals(0, cache.size());
+    }
+
+    private static X509Certificate[] getChain() throws CertificateException {
+        final CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        final X509Certificate certificate = (X509Certificate) factory.generateCertificate(new ByteArrayInputStream(CERTIFICATE.getBytes(US_ASCII)));
+        return new X509Certificate[]{certificate};
+    }
+}
@@ -37,9 +37,16 @@ exception statement from your version.
 
 package net.sourceforge.jnlp.tools;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.security.CodeSigner;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import java.util.jar.JarEntry;
 import net.adoptopenjdk.icedteaweb.jnlp.element.resource.JARDesc;
@@ -47,14 +54,21 @@ import net.adoptopenjdk.icedteaweb.testing.tools.CodeSignerCreator;
 import net.sourceforge.jnlp.tools.JarCertVerifier.VerifyResult;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static net.adoptopenjdk.icedteaweb.i18n.Translator.R;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class JarCertVerifierTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testIsMetaInfFile() {
         final String METAINF = "META-INF";
@@ -529,4 +543,48 @@ public class JarCertVerifierTest {
                 jcv.getCertsList().contains(alphaSigner.getSignerCertPath()));
     }
 
+    @Test
+    public void testParallelVerificationMatchesSerialVerification() throws Exception {
+        final List<String> jars = Arrays.asList(createJar("some/Resource.txt"), createJar(), createJar("other/Resource.txt"));
+
+        final JarCertVerifier serial = new JarCertVerifier(null, false);
+        serial.verifyJarPaths(jars);
+        final JarCertVerifier parallel = new JarCertVerifier(null, true);
+        parallel.verifyJarPaths(jars);
+
+        Assert.assertEquals(serial.getJarSignableEntries(), parallel.getJarSignableEntries());
+        Assert.assertEquals(serial.allJarsSigned(), parallel.allJarsSigned());
+        Assert.assertEquals(serial.getCertsList(), parallel.getCertsList());
+    }
+
+    @Test
+    public void testParallelVerificationStopsAtFirstBrokenJar() throws Exception {
+        final File broken = temporaryFolder.newFile();
+        Files.write(broken.toPath(), "not a jar".getBytes(UTF_8));
+        final String unsigned = createJar("some/Resource.txt");
+        final String empty = createJar();
+        final List<String> jars = Arrays.asList(unsigned, empty, broken.getAbsolutePath(), createJar("other/Resource.txt"));
+
+        final JarCertVerifier jcv = new JarCertVerifier(null, true);
+        try {
+            jcv.verifyJarPaths(jars);
+            Assert.fail("broken jar was not detected");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains(broken.getAbsolutePath()));
+        }
+
+        Assert.assertEquals("Only the jars before the broken one are merged, exactly as in serial mode.",
+                new HashSet<>(Arrays.asList(unsigned, empty)), jcv.getJarSignableEntries().keySet());
+        assertFalse(jcv.allJarsSigned());
+    }
+
+    private String createJar(final String... entries) throws IOException {
+        final File jar = temporaryFolder.newFile();
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (String entry : entries) {
+            contents.put(entry, entry.getBytes(UTF_8));
+        }
+        createJarWithContents(jar, contents);
+        return jar.getAbsolutePath();
+    }
 }
@@ -0,0 +1,111 @@
+package net.sourceforge.jnlp.tools;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the time needed to verify a set of signed jars one after the other
+ * with the time needed when the jars are verified concurrently.
+ * The jars are signed with a freshly generated key using the keytool and jarsigner of the running JDK.
+ */
+@Ignore("benchmark - run manually")
+public class JarVerificationBenchmarkTest {
+
+    private static final int JARS = 48;
+    private static final int ENTRIES_PER_JAR = 200;
+    private static final int ENTRY_SIZE = 16 * 1024;
+    private static final int WARM_UP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    private static final String ALIAS = "benchmark";
+    private static final String PASSWORD = "changeit";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> jars = new ArrayList<>();
+
+    @Before
+    public void createSignedJars() throws Exception {
+        final File keyStore = new File(temporaryFolder.getRoot(), "keystore.jks");
+        run(tool("keytool"), "-genkeypair", "-keyalg", "RSA", "-keysize", "2048", "-validity", "365",
+                "-alias", ALIAS, "-dname", "CN=Benchmark", "-keystore", keyStore.getAbsolutePath(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD);
+
+        final Random random = new Random(42);
+        final byte[] content = new byte[ENTRY_SIZE];
+        for (int i = 0; i < JARS; i++) {
+            final File jar = temporaryFolder.newFile("jar" + i + ".jar");
+            final Manifest manifest = new Manifest();
+            manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+            try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+                for (int j = 0; j < ENTRIES_PER_JAR; j++) {
+                    random.nextBytes(content);
+                    out.putNextEntry(new JarEntry("some/package/Class" + j + ".class"));
+                    out.write(content);
+                    out.closeEntry();
+                }
+            }
+            run(tool("jarsigner"), "-keystore", keyStore.getAbsolutePath(), "-storepass", PASSWORD,
+                    jar.getAbsolutePath(), ALIAS);
+            jars.add(jar.getAbsolutePath());
+        }
+    }
+
+    @Test
+    public void testSerialVersusParallelVerification() throws Exception {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            verify(false);
+            verify(true);
+        }
+
+        long serialNanos = 0;
+        long parallelNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            serialNanos += verify(false);
+            parallelNanos += verify(true);
+        }
+
+        System.out.println(String.format("verified %d jars with %d entries each", JARS, ENTRIES_PER_JAR));
+        System.out.println(String.format("serial:   %d ms", serialNanos / ROUNDS / 1_000_000));
+        System.out.println(String.format("parallel: %d ms (%d processors)", parallelNanos / ROUNDS / 1_000_000, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private long verify(final boolean parallel) throws Exception {
+        final JarCertVerifier verifier = new JarCertVerifier(null, parallel);
+        final long start = System.nanoTime();
+        verifier.verifyJarPaths(jars);
+        final long duration = System.nanoTime() - start;
+
+        assertTrue(verifier.allJarsSigned());
+        assertEquals(1, verifier.getCertsList().size());
+        return duration;
+    }
+
+    private static String tool(final String name) {
+        final File javaHome = new File(System.getProperty("java.home"));
+        final File tool = new File(new File(javaHome, "bin"), name);
+        return tool.isFile() ? tool.getAbsolutePath() : new File(new File(javaHome.getParentFile(), "bin"), name).getAbsolutePath();
+    }
+
+    private static void run(final String... command) throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder(command).inheritIO().start();
+        assertEquals(String.join(" ", command), 0, process.waitFor());
+    }
+}
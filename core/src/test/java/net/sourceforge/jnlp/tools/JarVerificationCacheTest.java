@@ -0,0 +1,53 @@
+package net.sourceforge.jnlp.tools;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.jar.Manifest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class JarVerificationCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSameStructureHasSameDigest() throws IOException {
+        final File first = createJar("Manifest-Version: 1.0\n", "content");
+        final File second = createJar("Manifest-Version: 1.0\n", "content");
+
+        assertEquals(JarVerificationCache.digestStructure(first), JarVerificationCache.digestStructure(second));
+    }
+
+    @Test
+    public void testChangedEntryChangesDigest() throws IOException {
+        final File first = createJar("Manifest-Version: 1.0\n", "content");
+        final File second = createJar("Manifest-Version: 1.0\n", "changed content");
+
+        assertNotEquals(JarVerificationCache.digestStructure(first), JarVerificationCache.digestStructure(second));
+    }
+
+    @Test
+    public void testChangedManifestChangesDigest() throws IOException {
+        final File first = createJar("Manifest-Version: 1.0\n", "content");
+        final File second = createJar("Manifest-Version: 1.0\nCreated-By: test\n", "content");
+
+        assertNotEquals(JarVerificationCache.digestStructure(first), JarVerificationCache.digestStructure(second));
+    }
+
+    private File createJar(final String manifest, final String content) throws IOException {
+        final File jar = temporaryFolder.newFile();
+        createJarWithContents(jar, new Manifest(new ByteArrayInputStream(manifest.getBytes(UTF_8))),
+                singletonMap("some/Resource.txt", content.getBytes(UTF_8)));
+        return jar;
+    }
+}
@@ -0,0 +1,119 @@
+package net.sourceforge.jnlp.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import static java.util.Collections.singletonMap;
+import static net.adoptopenjdk.icedteaweb.testing.util.FileTestUtils.createJarWithContents;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JarFilePoolTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testHandleIsShared() throws Exception {
+        final JarFilePool pool = new JarFilePool(2);
+        final File jar = createJar("a.jar", null);
+
+        try (final JarFile first = pool.open(jar); final JarFile second = pool.open(jar)) {
+            assertSame(first, second);
+            assertEquals(1, pool.getOpenHandles());
+            assertEquals(0, pool.getIdleHandles());
+        }
+        assertEquals(1, pool.getOpenHandles());
+        assertEquals(1, pool.getIdleHandles());
+
+        try (final JarFile third = pool.open(jar)) {
+            assertNotNull(third.getEntry("some/Entry.class"));
+            assertEquals(0, pool.getIdleHandles());
+        }
+        assertTrue(pool.getMetrics().contains("opened=1 reused=2"));
+    }
+
+    @Test
+    public void testHandleStaysOpenWhileReferenced() throws Exception {
+        final JarFilePool pool = new JarFilePool(0);
+        final File jar = createJar("a.jar", null);
+
+        final JarFile first = pool.open(jar);
+        final JarFile second = pool.open(jar);
+        first.close();
+        assertEquals(1, pool.getOpenHandles());
+        assertNotNull(second.getEntry("some/Entry.class"));
+
+        second.close();
+        assertEquals(0, pool.getOpenHandles());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIdleHandleIsClosed() throws Exception {
+        final JarFilePool pool = new JarFilePool(1);
+        final File a = createJar("a.jar", null);
+        final File b = createJar("b.jar", null);
+
+        pool.open(a).close();
+        pool.open(b).close();
+
+        assertEquals(1, pool.getOpenHandles());
+        assertEquals(b.getCanonicalPath(), pool.getOpenJars().get(0));
+
+        pool.closeIdleHandles();
+        assertEquals(0, pool.getOpenHandles());
+    }
+
+    @Test
+    public void testChangedJarGetsNewHandle() throws Exception {
+        final JarFilePool pool = new JarFilePool(2);
+        final File jar = createJar("a.jar", null);
+
+        try (final JarFile first = pool.open(jar)) {
+            createJar("a.jar", "other.jar");
+            assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+            try (final JarFile second = pool.open(jar)) {
+                assertNotSame(first, second);
+            }
+        }
+    }
+
+    @Test
+    public void testClassPathIsOnlyHiddenIfRequested() throws Exception {
+        final JarFilePool pool = new JarFilePool(2);
+        final File jar = createJar("a.jar", "other.jar");
+
+        try (final JarFile visible = pool.open(jar); final JarFile hidden = pool.openWithoutClassPath(jar)) {
+            assertNotSame(visible, hidden);
+            assertEquals("other.jar", visible.getManifest().getMainAttributes().getValue(Attributes.Name.CLASS_PATH));
+            assertNull(hidden.getManifest().getMainAttributes().getValue(Attributes.Name.CLASS_PATH));
+            assertEquals("1.0", hidden.getManifest().getMainAttributes().getValue(Attributes.Name.MANIFEST_VERSION));
+        }
+
+        try (final JarFile visible = pool.open(jar)) {
+            assertEquals("other.jar", visible.getManifest().getMainAttributes().getValue(Attributes.Name.CLASS_PATH));
+        }
+    }
+
+    private File createJar(final String name, final String classPath) throws IOException {
+        final File jar = new File(temporaryFolder.getRoot(), name);
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (classPath != null) {
+            manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+        }
+        createJarWithContents(jar, manifest, singletonMap("some/Entry.class", new byte[0]));
+        return jar;
+    }
+}
@@ -86,6 +86,20 @@ public class TimedHashMapTest {
         assertNull("map[o1] should have expired", testMap.get(o1));
     }
 
+    @Test
+    public void testLeastRecentlyAccessedEntryIsRemovedWhenBoundIsExceeded() {
+        final TimedHashMap<Object, Object> boundedMap = new TimedHashMap<>(10, TimeUnit.SECONDS, 2);
+        boundedMap.put(o1, o1);
+        boundedMap.put(o2, o2);
+        assertEquals(o1, boundedMap.get(o1));
+        boundedMap.put(o3, o3);
+
+        assertEquals(2, boundedMap.size());
+        assertEquals(o1, boundedMap.get(o1));
+        assertFalse("o2 should have been removed", boundedMap.containsKey(o2));
+        assertEquals(o3, boundedMap.get(o3));
+    }
+
     @Test(expected = NullPointerException.class)
     public void testPutNullKey() {
         testMap.put(null, o1);
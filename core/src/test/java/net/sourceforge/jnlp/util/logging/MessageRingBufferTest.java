@@ -0,0 +1,94 @@
+package net.sourceforge.jnlp.util.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MessageRingBufferTest {
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new MessageRingBuffer<String>(1).capacity());
+        assertEquals(8, new MessageRingBuffer<String>(5).capacity());
+        assertEquals(8, new MessageRingBuffer<String>(8).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacityIsRejected() {
+        new MessageRingBuffer<String>(0);
+    }
+
+    @Test
+    public void testElementsArePolledInOrder() {
+        final MessageRingBuffer<String> buffer = new MessageRingBuffer<>(4);
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer("e" + i));
+            }
+            assertFalse(buffer.offer("overflow"));
+            assertFalse(buffer.isEmpty());
+            for (int i = 0; i < 4; i++) {
+                assertEquals("e" + i, buffer.poll());
+            }
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final MessageRingBuffer<Integer> buffer = new MessageRingBuffer<>(64);
+        final int producers = 4;
+        final int perProducer = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(id * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        final int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        int received = 0;
+        while (received < producers * perProducer) {
+            final Integer value = buffer.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            final int producer = value / perProducer;
+            // the messages of one producer stay in order
+            assertTrue(value % perProducer > lastSeen[producer]);
+            lastSeen[producer] = value % perProducer;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}
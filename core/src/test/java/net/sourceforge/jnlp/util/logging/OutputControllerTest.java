@@ -39,6 +39,8 @@ import net.adoptopenjdk.icedteaweb.testing.closinglisteners.RulesFollowingClosin
 import net.adoptopenjdk.icedteaweb.StreamUtils;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.logging.filelogs.WriterBasedFileLog;
+import net.sourceforge.jnlp.util.logging.headers.Header;
+import net.sourceforge.jnlp.util.logging.headers.JavaMessage;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -380,6 +382,83 @@ public class OutputControllerTest {
 
     }
 
+    @Test
+    public void isFullBufferKeptUntilConsumerStarts() throws Exception {
+        LogConfig.getLogConfig().setEnableLogging(true);
+        LogConfig.getLogConfig().setLogToFile(false);
+        LogConfig.getLogConfig().setLogToStreams(true);
+        LogConfig.getLogConfig().setLogToSysLog(false);
+        ByteArrayOutputStream os1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream os2 = new ByteArrayOutputStream();
+        OutputController oc = new OutputController(new PrintStream(os1), new PrintStream(os2));
+
+        // the consumer is not started, so nobody makes room in the buffer
+        for (int i = 0; i < 20000; i++) {
+            oc.log(OutputControllerLevel.MESSAGE_ALL, "message " + i);
+        }
+        oc.flush();
+
+        String s = os1.toString(UTF_8);
+        Assert.assertTrue(s.contains("message 0" + System.lineSeparator()));
+        Assert.assertTrue(s.contains("message 19999" + System.lineSeparator()));
+        Assert.assertTrue(s.indexOf("message 8191" + System.lineSeparator()) < s.indexOf("message 8192" + System.lineSeparator()));
+    }
+
+    @Test
+    public void isOrderKeptWhileBufferSpillsOver() throws Exception {
+        LogConfig.getLogConfig().setEnableLogging(true);
+        LogConfig.getLogConfig().setLogToFile(false);
+        LogConfig.getLogConfig().setLogToStreams(true);
+        LogConfig.getLogConfig().setLogToSysLog(false);
+        ByteArrayOutputStream os1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream os2 = new ByteArrayOutputStream();
+        final OutputController oc = new OutputController(new PrintStream(os1), new PrintStream(os2));
+
+        // logged by the consumer while writing the first message, when the buffer has room again
+        oc.log(new JavaMessage(new Header(OutputControllerLevel.MESSAGE_ALL, false), "message 0") {
+            @Override
+            public String getMessage() {
+                oc.log(OutputControllerLevel.MESSAGE_ALL, "late message");
+                return super.getMessage();
+            }
+        });
+        for (int i = 1; i <= 8192; i++) {
+            oc.log(OutputControllerLevel.MESSAGE_ALL, "message " + i);
+        }
+        oc.log(OutputControllerLevel.MESSAGE_ALL, "after spill");
+        oc.flush();
+
+        String s = os1.toString(UTF_8);
+        Assert.assertTrue(s.indexOf("message 8191" + System.lineSeparator()) < s.indexOf("message 8192" + System.lineSeparator()));
+        Assert.assertTrue(s.indexOf("message 8192" + System.lineSeparator()) < s.indexOf("after spill" + System.lineSeparator()));
+        Assert.assertTrue(s.indexOf("after spill" + System.lineSeparator()) < s.indexOf("late message" + System.lineSeparator()));
+    }
+
+    @Test
+    public void isDebugDroppedFromFullBuffer() throws Exception {
+        JNLPRuntime.setDebug(true);
+        LogConfig.getLogConfig().setEnableLogging(true);
+        LogConfig.getLogConfig().setLogToFile(false);
+        LogConfig.getLogConfig().setLogToStreams(true);
+        LogConfig.getLogConfig().setLogToSysLog(false);
+        ByteArrayOutputStream os1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream os2 = new ByteArrayOutputStream();
+        OutputController oc = new OutputController(new PrintStream(os1), new PrintStream(os2));
+        oc.setDropDebugOnOverflow(true);
+
+        for (int i = 0; i < 10000; i++) {
+            oc.log(OutputControllerLevel.MESSAGE_DEBUG, "debug " + i);
+        }
+        oc.log(OutputControllerLevel.MESSAGE_ALL, line1);
+        oc.flush();
+
+        String s = os1.toString(UTF_8);
+        Assert.assertTrue(s.contains("debug 8191" + System.lineSeparator()));
+        Assert.assertFalse(s.contains("debug 8192" + System.lineSeparator()));
+        Assert.assertTrue(r1.evaluate(s));
+        Assert.assertTrue(s.contains("1808 debug messages were dropped"));
+    }
+
     /**
      * add syslog once implemented
      */
@@ -49,6 +49,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
@@ -156,6 +157,39 @@ public class FileTestUtils {
         jarWriter.close();
     }
 
+    /**
+     * Creates a jar with an empty manifest and the given entries, mapping entry names to their contents
+     */
+    public static void createJarWithContents(final File jarFile, final Map<String, byte[]> entries) throws IOException {
+        createJarWithContents(jarFile, new Manifest(), entries);
+    }
+
+    /**
+     * Creates a jar with the given manifest and entries, mapping entry names to their contents.
+     * A {@code null} manifest creates a jar without manifest. All entries have the same time,
+     * so jars with the same manifest and entries are equal.
+     */
+    public static void createJarWithContents(final File jarFile, final Manifest manifestContents, final Map<String, byte[]> entries)
+            throws IOException {
+        createFile(jarFile);
+
+        if (manifestContents != null) {
+            manifestContents.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        }
+
+        try (final JarOutputStream jarWriter = manifestContents == null
+                ? new JarOutputStream(new FileOutputStream(jarFile))
+                : new JarOutputStream(new FileOutputStream(jarFile), manifestContents)) {
+            for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                final JarEntry jarEntry = new JarEntry(entry.getKey());
+                jarEntry.setTime(0);
+                jarWriter.putNextEntry(jarEntry);
+                jarWriter.write(entry.getValue());
+                jarWriter.closeEntry();
+            }
+        }
+    }
+
     /**
      * Creates a temporary directory. Note that Java 7 has a method for this,
      * but we want to remain 6-compatible.